@@ -0,0 +1,114 @@
+package com.fintech.wallet_service.carga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parâmetros do gerador de carga, lidos das propriedades de sistema {@code carga.*}. O perfil
+ * {@code carga} do Maven repassa cada uma delas; os valores padrão estão aqui e no pom.
+ *
+ * @param duracao      tempo medido, depois do aquecimento
+ * @param aquecimento  tempo inicial em que as requisições rodam mas ficam fora das estatísticas
+ * @param concorrencia quantidade de clientes simultâneos
+ * @param taxa         requisições por segundo somadas de todos os clientes; 0 roda em malha fechada,
+ *                     cada cliente enviando a próxima assim que recebe a resposta
+ * @param mix          peso de cada operação no sorteio
+ * @param contas       contas criadas antes da medição, alvo de depósitos, saques e saldos
+ * @param usuarios     usuários donos dessas contas, alvo das listagens e das novas contas
+ * @param assimetria   expoente da distribuição Zipf usada para escolher contas e usuários;
+ *                     0 é uniforme e valores perto de 1 concentram a carga em poucas chaves quentes
+ * @param latenciaUsuarioService latência de cada resposta do user-service simulado
+ * @param semente      semente dos sorteios, para repetir a mesma sequência de operações
+ * @param resultado    arquivo JSON com o relatório; vazio para só imprimir
+ * @param argumentos   argumentos repassados à aplicação, por exemplo {@code --spring.datasource.url=...}
+ */
+public record ConfiguracaoCarga(
+        Duration duracao,
+        Duration aquecimento,
+        int concorrencia,
+        double taxa,
+        Map<Operacao, Integer> mix,
+        int contas,
+        int usuarios,
+        double assimetria,
+        Duration latenciaUsuarioService,
+        long semente,
+        String resultado,
+        List<String> argumentos
+) {
+
+    static final String MIX_PADRAO = "criar=2,depositar=30,sacar=18,saldo=40,listar=10";
+
+    public static ConfiguracaoCarga lerPropriedades() {
+        ConfiguracaoCarga configuracao = new ConfiguracaoCarga(
+                Duration.parse(propriedade("duracao", "PT60S")),
+                Duration.parse(propriedade("aquecimento", "PT15S")),
+                Integer.parseInt(propriedade("concorrencia", "64")),
+                Double.parseDouble(propriedade("taxa", "0")),
+                lerMix(propriedade("mix", MIX_PADRAO)),
+                Integer.parseInt(propriedade("contas", "1000")),
+                Integer.parseInt(propriedade("usuarios", "200")),
+                Double.parseDouble(propriedade("assimetria", "0.99")),
+                Duration.parse(propriedade("latencia-usuario-service", "PT0.005S")),
+                Long.parseLong(propriedade("semente", String.valueOf(System.nanoTime()))),
+                propriedade("resultado", ""),
+                propriedade("argumentos", "").isBlank()
+                        ? List.of()
+                        : Arrays.asList(propriedade("argumentos", "").trim().split("\\s+")));
+        configuracao.validar();
+        return configuracao;
+    }
+
+    /**
+     * Lê pesos no formato {@code operacao=peso,...}; operações ausentes ficam com peso 0.
+     */
+    static Map<Operacao, Integer> lerMix(String texto) {
+        Map<Operacao, Integer> mix = new EnumMap<>(Operacao.class);
+        for (String parte : texto.split(",")) {
+            String[] chaveValor = parte.trim().split("=");
+            if (chaveValor.length != 2) {
+                throw new IllegalArgumentException("Peso inválido em carga.mix: " + parte);
+            }
+            int peso = Integer.parseInt(chaveValor[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo em carga.mix: " + parte);
+            }
+            mix.put(Operacao.valueOf(chaveValor[0].trim().toUpperCase()), peso);
+        }
+        return mix;
+    }
+
+    /**
+     * Sequência de operações em que cada uma aparece tantas vezes quanto o seu peso; sortear um
+     * índice dela respeita as proporções do mix.
+     */
+    List<Operacao> roleta() {
+        List<Operacao> roleta = new ArrayList<>();
+        mix.forEach((operacao, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                roleta.add(operacao);
+            }
+        });
+        return roleta;
+    }
+
+    private void validar() {
+        if (duracao.isNegative() || duracao.isZero() || aquecimento.isNegative()) {
+            throw new IllegalArgumentException("carga.duracao deve ser positiva e carga.aquecimento não pode ser negativo");
+        }
+        if (concorrencia < 1 || contas < 1 || usuarios < 1 || taxa < 0 || assimetria < 0) {
+            throw new IllegalArgumentException("concorrencia, contas e usuarios devem ser positivos; taxa e assimetria não podem ser negativas");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("carga.mix precisa de ao menos uma operação com peso positivo");
+        }
+    }
+
+    private static String propriedade(String nome, String padrao) {
+        return System.getProperty("carga." + nome, padrao);
+    }
+}
@@ -0,0 +1,38 @@
+package com.fintech.wallet_service.carga;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteia índices em {@code [0, n)} com probabilidade proporcional a {@code 1 / (i + 1)^expoente}:
+ * o índice 0 é a chave mais quente. Com expoente 0 a distribuição é uniforme.
+ */
+final class DistribuicaoZipf {
+
+    private final double[] acumulada;
+
+    DistribuicaoZipf(int n, double expoente) {
+        acumulada = new double[n];
+        double soma = 0;
+        for (int i = 0; i < n; i++) {
+            soma += 1 / Math.pow(i + 1, expoente);
+            acumulada[i] = soma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= soma;
+        }
+    }
+
+    int sortear(RandomGenerator aleatorio) {
+        int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        int indice = posicao >= 0 ? posicao : -posicao - 1;
+        return Math.min(indice, acumulada.length - 1);
+    }
+
+    /**
+     * Fração das requisições que cai nas {@code k} chaves mais quentes.
+     */
+    double fracaoNasPrimeiras(int k) {
+        return acumulada[Math.min(k, acumulada.length) - 1];
+    }
+}
@@ -0,0 +1,66 @@
+package com.fintech.wallet_service.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (em microssegundos) e contagem de respostas de uma operação, registradas por vários
+ * clientes ao mesmo tempo. Respostas 4xx, como saldo insuficiente, contam como recusadas; 5xx e
+ * falhas de conexão contam como erros. Todas entram no histograma.
+ */
+final class EstatisticasOperacao {
+
+    private static final int DIGITOS_SIGNIFICATIVOS = 3;
+
+    private final Histogram latencias = new ConcurrentHistogram(DIGITOS_SIGNIFICATIVOS);
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+
+    /**
+     * @param status status HTTP da resposta, ou -1 se a requisição falhou sem resposta
+     */
+    void registrar(int status, long latenciaNanos) {
+        latencias.recordValue(Math.max(1, latenciaNanos / 1_000));
+        if (status < 0 || status >= 500) {
+            erros.increment();
+        } else if (status >= 400) {
+            recusadas.increment();
+        }
+    }
+
+    Histogram latencias() {
+        return latencias;
+    }
+
+    long recusadas() {
+        return recusadas.sum();
+    }
+
+    long erros() {
+        return erros.sum();
+    }
+
+    /**
+     * Resumo com vazão e percentis em milissegundos, no formato usado no relatório.
+     */
+    static Map<String, Object> resumir(Histogram latencias, long recusadas, long erros, double segundos) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("requisicoes", latencias.getTotalCount());
+        resumo.put("vazao", latencias.getTotalCount() / segundos);
+        resumo.put("p50Ms", milissegundos(latencias.getValueAtPercentile(50)));
+        resumo.put("p99Ms", milissegundos(latencias.getValueAtPercentile(99)));
+        resumo.put("p999Ms", milissegundos(latencias.getValueAtPercentile(99.9)));
+        resumo.put("maximoMs", milissegundos(latencias.getMaxValue()));
+        resumo.put("recusadas", recusadas);
+        resumo.put("erros", erros);
+        return resumo;
+    }
+
+    private static double milissegundos(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -0,0 +1,329 @@
+package com.fintech.wallet_service.carga;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet_service.WalletServiceApplication;
+import com.fintech.wallet_service.support.UsuarioServiceStub;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação contra o banco configurado e um user-service
+ * simulado com latência fixa, cria as contas e dispara uma mistura de criações, depósitos, saques,
+ * consultas de saldo e listagens, escolhendo contas e usuários por uma distribuição Zipf para
+ * simular chaves quentes. Ao fim imprime a vazão e os percentis de latência por operação.
+ * <p>
+ * Roda sem rede externa: {@code mvn -Pcarga -DskipTests verify -Dcarga.duracao=PT2M -Dcarga.taxa=2000}.
+ * Com {@code carga.taxa} positiva a carga é em malha aberta e a latência é contada a partir do
+ * instante em que a requisição deveria ter saído, para que uma aplicação lenta não reduza a
+ * própria carga e esconda a cauda (omissão coordenada). Em malha fechada mede-se a capacidade máxima.
+ */
+public final class GeradorCarga {
+
+    private static final String CARTEIRAS = "/api/v1/carteiras";
+    private static final String DEPOSITO_INICIAL = "1000.00";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ConfiguracaoCarga configuracao;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String urlBase;
+    private final Algorithm algoritmo;
+    private final ExecutorService executor;
+    private final List<Operacao> roleta;
+    private final DistribuicaoZipf distribuicaoContas;
+    private final DistribuicaoZipf distribuicaoUsuarios;
+    private final long primeiroUsuario;
+    private final String[] tokens;
+    private final List<long[]> contas = new ArrayList<>();
+    private final Map<Operacao, EstatisticasOperacao> estatisticas = new EnumMap<>(Operacao.class);
+
+    GeradorCarga(ConfiguracaoCarga configuracao, int porta, String segredoJwt, ExecutorService executor) {
+        this.configuracao = configuracao;
+        this.executor = executor;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+        this.urlBase = "http://localhost:" + porta + CARTEIRAS;
+        this.algoritmo = Algorithm.HMAC256(segredoJwt);
+        this.roleta = configuracao.roleta();
+        this.distribuicaoContas = new DistribuicaoZipf(configuracao.contas(), configuracao.assimetria());
+        this.distribuicaoUsuarios = new DistribuicaoZipf(configuracao.usuarios(), configuracao.assimetria());
+
+        // Usuários novos a cada execução, para as listagens não crescerem com as execuções anteriores
+        this.primeiroUsuario = ThreadLocalRandom.current().nextLong(1L << 40, 1L << 50);
+        this.tokens = new String[configuracao.usuarios()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = "Bearer " + JWT.create()
+                    .withClaim("userId", primeiroUsuario + i)
+                    .withExpiresAt(Instant.now().plus(configuracao.duracao()).plus(configuracao.aquecimento()).plusSeconds(3600))
+                    .sign(algoritmo);
+        }
+        for (Operacao operacao : Operacao.values()) {
+            estatisticas.put(operacao, new EstatisticasOperacao());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.lerPropriedades();
+        Map<String, Object> relatorio;
+        try (UsuarioServiceStub stub = new UsuarioServiceStub();
+             ConfigurableApplicationContext contexto = iniciarAplicacao(configuracao, stub);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            stub.definirLatencia(configuracao.latenciaUsuarioService());
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            GeradorCarga gerador = new GeradorCarga(configuracao, porta,
+                    contexto.getEnvironment().getRequiredProperty("jwt.secret"), executor);
+
+            gerador.criarContas();
+            stub.zerarContadores();
+            relatorio = gerador.executar();
+            relatorio.put("chamadasUserService", stub.requisicoes());
+        }
+
+        // Impresso depois de fechar a aplicação, para não se misturar ao log de desligamento
+        imprimir(relatorio, System.out);
+        if (!configuracao.resultado().isBlank()) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(Path.of(configuracao.resultado()).toFile(), relatorio);
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacao(ConfiguracaoCarga configuracao, UsuarioServiceStub stub) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--usuario-service.url=" + stub.url(),
+                "--usuario-service.bulkhead.chamadas-simultaneas=" + Math.max(50, configuracao.concorrencia())));
+        argumentos.addAll(configuracao.argumentos());
+        return new SpringApplicationBuilder(WalletServiceApplication.class).run(argumentos.toArray(String[]::new));
+    }
+
+    /**
+     * Cria as contas alvo, distribuídas entre os usuários, com um depósito inicial para que os
+     * saques não sejam quase todos recusados. A ordem da lista define o quão quente cada conta é.
+     */
+    void criarContas() throws Exception {
+        Semaphore emAndamento = new Semaphore(configuracao.concorrencia());
+        List<Future<long[]>> criadas = new ArrayList<>();
+        for (int i = 0; i < configuracao.contas(); i++) {
+            int usuario = i % configuracao.usuarios();
+            emAndamento.acquire();
+            criadas.add(executor.submit(() -> {
+                try {
+                    HttpResponse<String> resposta = enviar(usuario, "POST", urlBase, corpoCriacao(usuario));
+                    if (resposta.statusCode() != 201) {
+                        throw new IllegalStateException("Falha ao criar conta: " + resposta.statusCode() + " " + resposta.body());
+                    }
+                    long contaId = objectMapper.readTree(resposta.body()).get("id").asLong();
+                    HttpResponse<String> deposito = enviar(usuario, "PUT", urlBase + "/" + contaId + "/depositar",
+                            corpoValor(DEPOSITO_INICIAL));
+                    if (deposito.statusCode() != 200) {
+                        throw new IllegalStateException("Falha no depósito inicial: " + deposito.statusCode() + " " + deposito.body());
+                    }
+                    return new long[]{contaId, usuario};
+                } finally {
+                    emAndamento.release();
+                }
+            }));
+        }
+        for (Future<long[]> criada : criadas) {
+            contas.add(criada.get());
+        }
+    }
+
+    /**
+     * Roda o aquecimento e a medição e devolve o relatório; só entram nas estatísticas as
+     * requisições agendadas depois do aquecimento.
+     */
+    Map<String, Object> executar() throws Exception {
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + configuracao.aquecimento().toNanos();
+        long fim = inicioMedicao + configuracao.duracao().toNanos();
+
+        List<Future<?>> clientes = new ArrayList<>();
+        for (int i = 0; i < configuracao.concorrencia(); i++) {
+            int cliente = i;
+            clientes.add(executor.submit(() -> {
+                simularCliente(cliente, inicio, inicioMedicao, fim);
+                return null;
+            }));
+        }
+        for (Future<?> cliente : clientes) {
+            cliente.get();
+        }
+        return relatorio();
+    }
+
+    private void simularCliente(int cliente, long inicio, long inicioMedicao, long fim) {
+        RandomGenerator aleatorio = new SplittableRandom(configuracao.semente() + cliente);
+        long intervalo = configuracao.taxa() > 0 ? (long) (configuracao.concorrencia() * 1e9 / configuracao.taxa()) : 0;
+        long agendada = inicio + intervalo * cliente / configuracao.concorrencia();
+
+        while (true) {
+            long envio;
+            if (intervalo > 0) {
+                if (agendada >= fim) {
+                    return;
+                }
+                long espera;
+                while ((espera = agendada - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                envio = agendada;
+                agendada += intervalo;
+            } else {
+                envio = System.nanoTime();
+                if (envio >= fim) {
+                    return;
+                }
+            }
+
+            Operacao operacao = roleta.get(aleatorio.nextInt(roleta.size()));
+            int status = executarOperacao(operacao, aleatorio);
+            if (envio >= inicioMedicao) {
+                estatisticas.get(operacao).registrar(status, System.nanoTime() - envio);
+            }
+        }
+    }
+
+    private int executarOperacao(Operacao operacao, RandomGenerator aleatorio) {
+        long[] conta = contas.get(distribuicaoContas.sortear(aleatorio));
+        int usuarioConta = (int) conta[1];
+        try {
+            HttpResponse<String> resposta = switch (operacao) {
+                case CRIAR -> {
+                    int usuario = distribuicaoUsuarios.sortear(aleatorio);
+                    yield enviar(usuario, "POST", urlBase, corpoCriacao(usuario));
+                }
+                case DEPOSITAR -> enviar(usuarioConta, "PUT", urlBase + "/" + conta[0] + "/depositar",
+                        corpoValor(valor(aleatorio, 10_000)));
+                case SACAR -> enviar(usuarioConta, "PUT", urlBase + "/" + conta[0] + "/sacar",
+                        corpoValor(valor(aleatorio, 5_000)));
+                case SALDO -> enviar(usuarioConta, "GET", urlBase + "/" + conta[0] + "/saldo", null);
+                case LISTAR -> {
+                    int usuario = distribuicaoUsuarios.sortear(aleatorio);
+                    yield enviar(usuario, "GET", urlBase + "/usuario/" + (primeiroUsuario + usuario), null);
+                }
+            };
+            return resposta.statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private HttpResponse<String> enviar(int usuario, String metodo, String url, String corpo)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("Authorization", tokens[usuario]);
+        if (corpo == null) {
+            requisicao.method(metodo, HttpRequest.BodyPublishers.noBody());
+        } else {
+            requisicao.header("Content-Type", "application/json")
+                    .method(metodo, HttpRequest.BodyPublishers.ofString(corpo));
+        }
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String corpoCriacao(int usuario) {
+        return "{\"usuarioId\":" + (primeiroUsuario + usuario) + ",\"tipo\":\"CORRENTE\"}";
+    }
+
+    private static String corpoValor(String valor) {
+        return "{\"valor\":" + valor + "}";
+    }
+
+    /**
+     * Valor entre R$ 0,01 e {@code maximoCentavos} centavos.
+     */
+    private static String valor(RandomGenerator aleatorio, long maximoCentavos) {
+        return BigDecimal.valueOf(aleatorio.nextLong(1, maximoCentavos + 1), 2).toPlainString();
+    }
+
+    private Map<String, Object> relatorio() {
+        double segundos = configuracao.duracao().toNanos() / 1e9;
+        Map<String, Object> operacoes = new LinkedHashMap<>();
+        Histogram total = new Histogram(3);
+        long recusadas = 0;
+        long erros = 0;
+        for (Map.Entry<Operacao, EstatisticasOperacao> entrada : estatisticas.entrySet()) {
+            EstatisticasOperacao estatistica = entrada.getValue();
+            if (estatistica.latencias().getTotalCount() == 0) {
+                continue;
+            }
+            operacoes.put(entrada.getKey().name().toLowerCase(), EstatisticasOperacao.resumir(
+                    estatistica.latencias(), estatistica.recusadas(), estatistica.erros(), segundos));
+            total.add(estatistica.latencias());
+            recusadas += estatistica.recusadas();
+            erros += estatistica.erros();
+        }
+
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("duracao", configuracao.duracao().toString());
+        parametros.put("aquecimento", configuracao.aquecimento().toString());
+        parametros.put("concorrencia", configuracao.concorrencia());
+        parametros.put("taxa", configuracao.taxa() > 0 ? configuracao.taxa() : "malha fechada");
+        parametros.put("mix", configuracao.mix().toString());
+        parametros.put("contas", configuracao.contas());
+        parametros.put("usuarios", configuracao.usuarios());
+        parametros.put("assimetria", configuracao.assimetria());
+        parametros.put("fracaoNoTop1PorCentoDasContas",
+                distribuicaoContas.fracaoNasPrimeiras(Math.max(1, configuracao.contas() / 100)));
+        parametros.put("latenciaUserService", configuracao.latenciaUsuarioService().toString());
+        parametros.put("semente", configuracao.semente());
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("parametros", parametros);
+        relatorio.put("operacoes", operacoes);
+        relatorio.put("total", EstatisticasOperacao.resumir(total, recusadas, erros, segundos));
+        return relatorio;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void imprimir(Map<String, Object> relatorio, PrintStream saida) {
+        saida.println();
+        ((Map<String, Object>) relatorio.get("parametros")).forEach((nome, valor) -> saida.println(nome + ": " + valor));
+        saida.println("chamadasUserService: " + relatorio.get("chamadasUserService"));
+        saida.println();
+        saida.printf("%-10s %12s %10s %9s %9s %9s %9s %10s %8s%n",
+                "operacao", "requisicoes", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "recusadas", "erros");
+        Map<String, Object> linhas = new LinkedHashMap<>((Map<String, Object>) relatorio.get("operacoes"));
+        linhas.put("total", relatorio.get("total"));
+        linhas.forEach((operacao, valores) -> {
+            Map<String, Object> resumo = (Map<String, Object>) valores;
+            saida.printf("%-10s %12d %10.1f %9.2f %9.2f %9.2f %9.2f %10d %8d%n", operacao,
+                    resumo.get("requisicoes"), resumo.get("vazao"), resumo.get("p50Ms"), resumo.get("p99Ms"),
+                    resumo.get("p999Ms"), resumo.get("maximoMs"), resumo.get("recusadas"), resumo.get("erros"));
+        });
+    }
+}
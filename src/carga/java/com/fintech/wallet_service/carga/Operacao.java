@@ -0,0 +1,12 @@
+package com.fintech.wallet_service.carga;
+
+/**
+ * Operações sorteadas pelo gerador de carga, uma por endpoint exercitado.
+ */
+public enum Operacao {
+    CRIAR,
+    DEPOSITAR,
+    SACAR,
+    SALDO,
+    LISTAR
+}
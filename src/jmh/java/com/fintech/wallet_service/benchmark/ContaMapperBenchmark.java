@@ -0,0 +1,86 @@
+package com.fintech.wallet_service.benchmark;
+
+import com.fintech.wallet_service.config.mapper.ContaMapper;
+import com.fintech.wallet_service.config.mapper.ContaMapperImpl;
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.SaldoResponseDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoConta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamentos feitos a cada requisição: entidade para o saldo devolvido por depósitos e saques,
+ * conta em cache para a consulta de saldo e uma página de contas no tamanho padrão da listagem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContaMapperBenchmark {
+
+    private static final int TAMANHO_PAGINA = 50;
+
+    private final ContaMapper contaMapper = new ContaMapperImpl();
+
+    private Conta conta;
+    private ContaResponseDTO contaEmCache;
+    private List<Conta> pagina;
+
+    @Setup
+    public void setUp() {
+        conta = novaConta(1);
+        contaEmCache = contaMapper.toResponseDTO(conta);
+        pagina = new ArrayList<>(TAMANHO_PAGINA);
+        for (int i = 0; i < TAMANHO_PAGINA; i++) {
+            pagina.add(novaConta(i));
+        }
+    }
+
+    @Benchmark
+    public SaldoResponseDTO saldoDaEntidade() {
+        return contaMapper.toSaldoResponseDTO(conta);
+    }
+
+    @Benchmark
+    public SaldoResponseDTO saldoDaContaEmCache() {
+        return contaMapper.toSaldoResponseDTO(contaEmCache);
+    }
+
+    @Benchmark
+    public List<ContaResponseDTO> paginaDeContas() {
+        List<ContaResponseDTO> contas = new ArrayList<>(pagina.size());
+        for (Conta item : pagina) {
+            contas.add(contaMapper.toResponseDTO(item));
+        }
+        return contas;
+    }
+
+    private static Conta novaConta(int indice) {
+        Conta conta = new Conta();
+        conta.setUsuarioId(10L);
+        conta.setNumeroConta("ACC-" + String.format("%09d", indice) + "0");
+        conta.setSaldo(Dinheiro.parse("2500.00").somar(Dinheiro.deCentavos(100L * indice)));
+        conta.setTipo(TipoConta.CORRENTE);
+        conta.setDataCriacao(OffsetDateTime.now());
+        conta.setDataAtualizacao(OffsetDateTime.now());
+        conta.setAtiva(true);
+        return conta;
+    }
+}
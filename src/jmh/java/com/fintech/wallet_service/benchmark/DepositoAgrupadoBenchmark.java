@@ -0,0 +1,102 @@
+package com.fintech.wallet_service.benchmark;
+
+import com.fintech.wallet_service.WalletServiceApplication;
+import com.fintech.wallet_service.dto.SaldoResponseDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoConta;
+import com.fintech.wallet_service.repository.ContaRepository;
+import com.fintech.wallet_service.service.ContaService;
+import com.fintech.wallet_service.service.GeradorNumeroConta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósitos simultâneos em contas sorteadas, pelo {@link ContaService} e contra o Postgres de verdade
+ * (o do compose.yaml precisa estar de pé), sem agrupamento e com group commit em janelas diferentes.
+ * A vazão sai em operações por milissegundo e a latência em percentis por milissegundo. Cada janela
+ * sobe a aplicação de novo, então este benchmark leva alguns minutos:
+ * mvn -Pbenchmark -DskipTests verify -Djmh.filtro=DepositoAgrupadoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(64)
+@Fork(1)
+public class DepositoAgrupadoBenchmark {
+
+    private static final int CONTAS = 1000;
+    private static final TransicaoRequestDTO DEPOSITO = new TransicaoRequestDTO(Dinheiro.parse("1.00"));
+
+    /**
+     * "desligado" usa o caminho de uma transação por depósito; os demais são a janela do agrupamento.
+     */
+    @Param({"desligado", "PT0S", "PT0.001S", "PT0.005S", "PT0.02S"})
+    private String janela;
+
+    private ConfigurableApplicationContext contexto;
+    private ContaService contaService;
+    private long[] contaIds;
+
+    @Setup
+    public void setUp() {
+        boolean agrupado = !janela.equals("desligado");
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.docker.compose.enabled=false",
+                "--logging.level.root=WARN",
+                "--carteira.deposito.agrupamento.habilitado=" + agrupado));
+        if (agrupado) {
+            argumentos.add("--carteira.deposito.agrupamento.janela=" + janela);
+        }
+        contexto = new SpringApplicationBuilder(WalletServiceApplication.class).run(argumentos.toArray(String[]::new));
+        contaService = contexto.getBean(ContaService.class);
+
+        GeradorNumeroConta geradorNumeroConta = contexto.getBean(GeradorNumeroConta.class);
+        List<Conta> contas = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            Conta conta = new Conta();
+            conta.setUsuarioId(1L);
+            conta.setNumeroConta(geradorNumeroConta.gerar());
+            conta.setSaldo(Dinheiro.ZERO);
+            conta.setTipo(TipoConta.CORRENTE);
+            conta.setAtiva(true);
+            contas.add(conta);
+        }
+        contaIds = contexto.getBean(ContaRepository.class).saveAll(contas).stream()
+                .mapToLong(Conta::getId)
+                .toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public SaldoResponseDTO depositar() {
+        long contaId = contaIds[ThreadLocalRandom.current().nextInt(contaIds.length)];
+        return contaService.depositar(contaId, DEPOSITO, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.fintech.wallet_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.ContaResumoResponseDTO;
+import com.fintech.wallet_service.dto.SaldoResponseDTO;
+import com.fintech.wallet_service.dto.TransferenciaResponseDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das respostas mais frequentes e leitura do corpo de depósitos e saques, com um
+ * {@link ObjectMapper} configurado como o do Spring Boot (datas em ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializacaoBenchmark {
+
+    private static final int TAMANHO_PAGINA = 50;
+
+    private ObjectWriter escritorSaldo;
+    private ObjectWriter escritorConta;
+    private ObjectWriter escritorPagina;
+    private ObjectWriter escritorTransferencia;
+    private ObjectReader leitorTransicao;
+
+    private SaldoResponseDTO saldo;
+    private ContaResponseDTO conta;
+    private List<ContaResumoResponseDTO> pagina;
+    private TransferenciaResponseDTO transferencia;
+    private byte[] corpoTransicao;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        escritorSaldo = objectMapper.writerFor(SaldoResponseDTO.class);
+        escritorConta = objectMapper.writerFor(ContaResponseDTO.class);
+        escritorPagina = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ContaResumoResponseDTO.class));
+        escritorTransferencia = objectMapper.writerFor(TransferenciaResponseDTO.class);
+        leitorTransicao = objectMapper.readerFor(TransicaoRequestDTO.class);
+
+        OffsetDateTime agora = OffsetDateTime.now();
+        saldo = new SaldoResponseDTO(1L, "ACC-1234567890", Dinheiro.parse("2500.00"), "CORRENTE", agora);
+        conta = new ContaResponseDTO(1L, 10L, "ACC-1234567890", Dinheiro.parse("2500.00"), "CORRENTE",
+                agora, agora, true, 0);
+        pagina = new ArrayList<>(TAMANHO_PAGINA);
+        for (long i = 0; i < TAMANHO_PAGINA; i++) {
+            pagina.add(new ContaResumoResponseDTO(i, 10L, "ACC-" + (1_234_567_890L + i), "CORRENTE"));
+        }
+        transferencia = new TransferenciaResponseDTO(1L, 2L, Dinheiro.parse("150.00"), Dinheiro.parse("2350.00"), agora);
+        corpoTransicao = "{\"valor\": 150.00}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] saldo() throws IOException {
+        return escritorSaldo.writeValueAsBytes(saldo);
+    }
+
+    @Benchmark
+    public byte[] conta() throws IOException {
+        return escritorConta.writeValueAsBytes(conta);
+    }
+
+    @Benchmark
+    public byte[] paginaDeContas() throws IOException {
+        return escritorPagina.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] transferencia() throws IOException {
+        return escritorTransferencia.writeValueAsBytes(transferencia);
+    }
+
+    @Benchmark
+    public TransicaoRequestDTO lerTransicao() throws IOException {
+        return leitorTransicao.readValue(corpoTransicao);
+    }
+}
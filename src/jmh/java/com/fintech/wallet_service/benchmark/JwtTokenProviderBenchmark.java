@@ -0,0 +1,70 @@
+package com.fintech.wallet_service.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fintech.wallet_service.config.security.JwtTokenProvider;
+import com.fintech.wallet_service.config.security.TokenVerificado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a verificação do token no filtro JWT: o caminho antigo (algoritmo e verificador
+ * montados e o token verificado duas vezes por requisição), o verificador reutilizado sem
+ * cache e o token já presente no cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "secret";
+
+    private String token;
+    private JwtTokenProvider semCache;
+    private JwtTokenProvider comCache;
+
+    @Setup
+    public void setUp() {
+        token = JWT.create()
+                .withClaim("userId", 42L)
+                .withExpiresAt(Instant.now().plus(Duration.ofHours(1)))
+                .sign(Algorithm.HMAC256(SECRET));
+
+        semCache = new JwtTokenProvider(SECRET, 0, Duration.ofMinutes(15), new SimpleMeterRegistry());
+        comCache = new JwtTokenProvider(SECRET, 10_000, Duration.ofMinutes(15), new SimpleMeterRegistry());
+        comCache.verificar(token);
+    }
+
+    @Benchmark
+    public String caminhoAnterior() {
+        JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token);
+        return JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token).getClaim("userId").asLong().toString();
+    }
+
+    @Benchmark
+    public Optional<TokenVerificado> verificadorReutilizado() {
+        return semCache.verificar(token);
+    }
+
+    @Benchmark
+    public Optional<TokenVerificado> tokenEmCache() {
+        return comCache.verificar(token);
+    }
+}
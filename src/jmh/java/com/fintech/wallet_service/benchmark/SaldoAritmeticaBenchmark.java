@@ -0,0 +1,143 @@
+package com.fintech.wallet_service.benchmark;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aritmética de saldo feita em Java: leitura do valor recebido, soma dos slots de uma conta em modo
+ * quente e débito distribuído entre eles, como em {@code SaldoFracionadoService.debitar}. Cada operação
+ * é medida com {@link Dinheiro}, usado pelo serviço, e com o {@link BigDecimal} que ele substituiu; a
+ * soma em {@code long} puro é o piso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaldoAritmeticaBenchmark {
+
+    @Param({"8", "32"})
+    private int slots;
+
+    private BigDecimal saldoConta;
+    private BigDecimal[] saldosSlots;
+    private long[] centavosSlots;
+    private BigDecimal valor;
+    private Dinheiro dinheiroConta;
+    private Dinheiro[] dinheiroSlots;
+    private Dinheiro dinheiroValor;
+
+    @Setup
+    public void setUp() {
+        saldoConta = new BigDecimal("10.00");
+        saldosSlots = new BigDecimal[slots];
+        centavosSlots = new long[slots];
+        for (int i = 0; i < slots; i++) {
+            saldosSlots[i] = new BigDecimal("125.37").add(BigDecimal.valueOf(i));
+            centavosSlots[i] = 12_537 + i * 100L;
+        }
+        valor = new BigDecimal("310.55");
+
+        dinheiroConta = Dinheiro.de(saldoConta);
+        dinheiroSlots = new Dinheiro[slots];
+        for (int i = 0; i < slots; i++) {
+            dinheiroSlots[i] = Dinheiro.de(saldosSlots[i]);
+        }
+        dinheiroValor = Dinheiro.de(valor);
+    }
+
+    @Benchmark
+    public BigDecimal lerValor() {
+        return new BigDecimal("1234.56");
+    }
+
+    @Benchmark
+    public Dinheiro lerValorDinheiro() {
+        return Dinheiro.parse("1234.56");
+    }
+
+    @Benchmark
+    public BigDecimal somarSlots() {
+        BigDecimal total = saldoConta;
+        for (BigDecimal saldo : saldosSlots) {
+            total = total.add(saldo);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Dinheiro somarSlotsDinheiro() {
+        Dinheiro total = dinheiroConta;
+        for (Dinheiro saldo : dinheiroSlots) {
+            total = total.somar(saldo);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long somarSlotsEmCentavos() {
+        long total = 1_000;
+        for (long centavos : centavosSlots) {
+            total += centavos;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal debitarDistribuindo() {
+        BigDecimal disponivel = saldoConta;
+        for (BigDecimal saldo : saldosSlots) {
+            disponivel = disponivel.add(saldo);
+        }
+        if (disponivel.compareTo(valor) < 0) {
+            throw new IllegalStateException();
+        }
+
+        BigDecimal restante = valor.subtract(saldoConta.min(valor));
+        for (BigDecimal saldo : saldosSlots) {
+            if (restante.signum() == 0) {
+                break;
+            }
+            restante = restante.subtract(saldo.min(restante));
+        }
+        return disponivel.subtract(valor);
+    }
+
+    /**
+     * Como o serviço faz hoje: as somas em centavos, só o resultado vira {@link Dinheiro}.
+     */
+    @Benchmark
+    public Dinheiro debitarDistribuindoDinheiro() {
+        long disponivel = dinheiroConta.centavos();
+        for (Dinheiro saldo : dinheiroSlots) {
+            disponivel = Math.addExact(disponivel, saldo.centavos());
+        }
+        long debito = dinheiroValor.centavos();
+        if (disponivel < debito) {
+            throw new IllegalStateException();
+        }
+
+        long restante = debito - Math.min(dinheiroConta.centavos(), debito);
+        for (Dinheiro saldo : dinheiroSlots) {
+            if (restante == 0) {
+                break;
+            }
+            restante -= Math.min(saldo.centavos(), restante);
+        }
+        return Dinheiro.deCentavos(disponivel - debito);
+    }
+}
@@ -0,0 +1,52 @@
+package com.fintech.wallet_service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de CPU de {@link GeradorNumeroConta#gerar()} por conta: embaralhar o índice, formatar os
+ * dígitos e calcular o dígito verificador. A reserva de blocos vai ao banco uma vez a cada bloco e
+ * fica de fora; por isso o benchmark está no pacote do gerador, com acesso a {@code formatar}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeradorNumeroContaBenchmark {
+
+    private final GeradorNumeroConta gerador = new GeradorNumeroConta(null, 7046029254386353131L);
+    private final GeradorNumeroConta.PermutacaoFeistel permutacao = new GeradorNumeroConta.PermutacaoFeistel(7046029254386353131L);
+
+    private long indice;
+
+    @Benchmark
+    public String gerarNumero() {
+        return gerador.formatar(proximoIndice());
+    }
+
+    @Benchmark
+    public long embaralharIndice() {
+        return permutacao.aplicar(proximoIndice());
+    }
+
+    @Benchmark
+    public int digitoVerificador() {
+        return GeradorNumeroConta.digitoVerificador("123456789");
+    }
+
+    private long proximoIndice() {
+        indice = (indice + 1) % GeradorNumeroConta.LIMITE;
+        return indice;
+    }
+}
@@ -4,10 +4,15 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.exception.RequisicaoIdempotenteConflitanteException;
+import com.fintech.wallet_service.exception.SaldoInsuficienteException;
 import com.fintech.wallet_service.exception.UsuarioNaoEncontradoException;
+import com.fintech.wallet_service.exception.UsuarioServiceIndisponivelException;
+import com.fintech.wallet_service.service.MetricasCarteira;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -36,9 +41,11 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
                     "com o administrador do sistema.";
 
     private final MessageSource messageSource;
+    private final MetricasCarteira metricas;
 
-    public ApiExceptionHandler(MessageSource messageSource) {
+    public ApiExceptionHandler(MessageSource messageSource, MetricasCarteira metricas) {
         this.messageSource = messageSource;
+        this.metricas = metricas;
     }
 
     @ExceptionHandler(UsuarioNaoEncontradoException.class)
@@ -67,6 +74,64 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(ex, problem, new HttpHeaders(), status, request);
     }
 
+    @ExceptionHandler(SaldoInsuficienteException.class)
+    public ResponseEntity<?> handleSaldoInsuficiente(SaldoInsuficienteException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        ProblemType problemType = ProblemType.SALDO_INSUFICIENTE;
+        String detail = ex.getMessage();
+
+        ApiError problem = createApiErrorBuilder(status, problemType, detail)
+                .userMessage("A conta não possui saldo suficiente para realizar a operação.")
+                .build();
+
+        return handleExceptionInternal(ex, problem, new HttpHeaders(), status, request);
+    }
+
+    @ExceptionHandler(RequisicaoIdempotenteConflitanteException.class)
+    public ResponseEntity<?> handleRequisicaoIdempotenteConflitante(RequisicaoIdempotenteConflitanteException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+        ProblemType problemType = ProblemType.REQUISICAO_CONFLITANTE;
+        String detail = ex.getMessage();
+
+        ApiError problem = createApiErrorBuilder(status, problemType, detail)
+                .userMessage("Esta chave de idempotência já foi usada em outra operação. Gere uma nova chave e tente novamente.")
+                .build();
+
+        return handleExceptionInternal(ex, problem, new HttpHeaders(), status, request);
+    }
+
+    /**
+     * Deadlock, falha de serialização ou espera por lock esgotada: a transação foi desfeita por inteiro
+     * e a mesma requisição pode ser repetida.
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<?> handleConcorrencia(ConcurrencyFailureException ex, WebRequest request) {
+        metricas.registrarConflito("concorrencia");
+
+        HttpStatus status = HttpStatus.CONFLICT;
+        ProblemType problemType = ProblemType.REQUISICAO_CONFLITANTE;
+        String detail = "A operação conflitou com outra executada ao mesmo tempo.";
+
+        ApiError problem = createApiErrorBuilder(status, problemType, detail)
+                .userMessage("A operação conflitou com outra executada ao mesmo tempo. Tente novamente.")
+                .build();
+
+        return handleExceptionInternal(ex, problem, new HttpHeaders(), status, request);
+    }
+
+    @ExceptionHandler(UsuarioServiceIndisponivelException.class)
+    public ResponseEntity<?> handleUsuarioServiceIndisponivel(UsuarioServiceIndisponivelException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        ProblemType problemType = ProblemType.SERVICO_INDISPONIVEL;
+        String detail = ex.getMessage();
+
+        ApiError problem = createApiErrorBuilder(status, problemType, detail)
+                .userMessage("Não foi possível validar o usuário agora. Tente novamente em instantes.")
+                .build();
+
+        return handleExceptionInternal(ex, problem, new HttpHeaders(), status, request);
+    }
+
     @ExceptionHandler(WebClientResponseException.Forbidden.class)
     public ResponseEntity<?> handleForbiddenError(WebClientResponseException.Forbidden ex, WebRequest request) {
         HttpStatus status = HttpStatus.FORBIDDEN;
@@ -10,6 +10,9 @@ public enum ProblemType {
     PARAMETRO_INVALIDO("/parametro-invalido", "Parâmetro inválido"),
     MENSGEM_INCOMPREENSIVEL("/mensagem-incompreensivel", "Mensagem incompreensível"),
     RECURSO_NAO_ENCONTRADO("/recurso-nao-encontrado", "Recurso não encontrado"),
+    SALDO_INSUFICIENTE("/saldo-insuficiente", "Saldo insuficiente"),
+    REQUISICAO_CONFLITANTE("/requisicao-conflitante", "Requisição conflitante"),
+    SERVICO_INDISPONIVEL("/servico-indisponivel", "Serviço indisponível"),
     ACESSO_NEGADO("/acesso-negado", "Acesso negado");
 
     private final String title;
@@ -0,0 +1,76 @@
+package com.fintech.wallet_service.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta o {@link DataSource} da aplicação: transações de escrita usam o pool do primário
+ * ({@code spring.datasource.*}) e transações somente leitura usam o {@link DataSourceLeitura}.
+ * A conexão só é obtida no primeiro comando, quando o Spring já marcou a transação como somente
+ * leitura, por isso o roteamento fica atrás de um {@link LazyConnectionDataSourceProxy}.
+ * Sem {@code carteira.replicas.urls} todas as conexões vão ao primário.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(DataSourceLeitura.PRIMARIO);
+        return dataSource;
+    }
+
+    /**
+     * As réplicas herdam a configuração do pool do primário, mudando apenas a URL. Uma réplica
+     * fora do ar não impede a aplicação de subir; ela apenas não entra no rodízio.
+     */
+    @Bean(defaultCandidate = false)
+    public DataSourceLeitura dataSourceLeitura(@Qualifier("dataSourcePrimario") HikariDataSource primario,
+                                               RoteamentoLeitura roteamentoLeitura,
+                                               @Value("${carteira.replicas.urls:}") List<String> urls,
+                                               @Value("${carteira.replicas.atraso-maximo:PT2S}") Duration atrasoMaximo,
+                                               @Value("${carteira.replicas.espera-conexao:PT1S}") Duration esperaConexao,
+                                               MeterRegistry meterRegistry) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            primario.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setReadOnly(true);
+            config.setConnectionTimeout(esperaConexao.toMillis());
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(null);
+            config.setMetricRegistry(meterRegistry);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new DataSourceLeitura(primario, replicas, roteamentoLeitura, atrasoMaximo, meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceLeitura") DataSource leitura) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primario);
+        dataSource.setReadOnlyDataSource(leitura);
+        return dataSource;
+    }
+}
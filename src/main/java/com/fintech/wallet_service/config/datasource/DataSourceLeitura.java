@@ -0,0 +1,118 @@
+package com.fintech.wallet_service.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Destino das conexões de transações somente leitura: distribui entre as réplicas em dia, em
+ * rodízio, e cai para o primário quando nenhuma está disponível ou quando o {@link RoteamentoLeitura}
+ * pede leitura no primário. O atraso das réplicas é medido periodicamente; até a primeira medição,
+ * ou enquanto o atraso passar de {@code atrasoMaximo}, a réplica fica fora do rodízio.
+ */
+public class DataSourceLeitura extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = Logger.getLogger(DataSourceLeitura.class.getName());
+
+    static final String PRIMARIO = "primario";
+
+    /**
+     * Zero quando a réplica já aplicou tudo o que recebeu, para que um primário sem escritas não
+     * pareça atraso; caso contrário, o tempo desde a última transação reaplicada.
+     */
+    private static final String CONSULTA_ATRASO = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END::bigint
+            """;
+
+    private final Map<String, HikariDataSource> replicas;
+    private final Map<String, Long> atrasosMs = new ConcurrentHashMap<>();
+    private final RoteamentoLeitura roteamentoLeitura;
+    private final Duration atrasoMaximo;
+    private final AtomicInteger rodizio = new AtomicInteger();
+    private volatile List<String> disponiveis = List.of();
+
+    public DataSourceLeitura(DataSource primario, Map<String, HikariDataSource> replicas,
+                             RoteamentoLeitura roteamentoLeitura, Duration atrasoMaximo, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.roteamentoLeitura = roteamentoLeitura;
+        this.atrasoMaximo = atrasoMaximo;
+
+        Map<Object, Object> destinos = new HashMap<>(replicas);
+        destinos.put(PRIMARIO, primario);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+
+        for (String replica : replicas.keySet()) {
+            Gauge.builder("carteira.replica.atraso", this, dataSource -> dataSource.atrasoMs(replica))
+                    .tag("replica", replica)
+                    .baseUnit("milliseconds")
+                    .description("Atraso de replicação medido na última verificação; -1 se inacessível")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidatas = disponiveis;
+        if (candidatas.isEmpty() || roteamentoLeitura.usarPrimario()) {
+            return PRIMARIO;
+        }
+        return candidatas.get(Math.floorMod(rodizio.getAndIncrement(), candidatas.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${carteira.replicas.verificacao.intervalo:PT1S}")
+    public void verificarReplicas() {
+        List<String> emDia = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, HikariDataSource> replica : replicas.entrySet()) {
+            long atraso = medirAtraso(replica.getKey(), replica.getValue());
+            atrasosMs.put(replica.getKey(), atraso);
+            if (atraso >= 0 && atraso <= atrasoMaximo.toMillis()) {
+                emDia.add(replica.getKey());
+            }
+        }
+        if (!emDia.equals(disponiveis)) {
+            logger.warning("Réplicas disponíveis para leitura: " + emDia + " de " + replicas.keySet());
+        }
+        disponiveis = List.copyOf(emDia);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+
+    private long medirAtraso(String nome, DataSource replica) {
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+            jdbcTemplate.setQueryTimeout(1);
+            Long atraso = jdbcTemplate.queryForObject(CONSULTA_ATRASO, Long.class);
+            return atraso == null ? 0 : atraso;
+        } catch (RuntimeException e) {
+            // A saída do rodízio já é registrada em verificarReplicas
+            logger.log(Level.FINE, "Réplica " + nome + " inacessível", e);
+            return -1;
+        }
+    }
+
+    private double atrasoMs(String replica) {
+        return atrasosMs.getOrDefault(replica, -1L);
+    }
+}
@@ -0,0 +1,79 @@
+package com.fintech.wallet_service.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Decide quando uma transação somente leitura precisa ir ao primário mesmo havendo réplicas.
+ * Depois de confirmar uma transação de escrita, o usuário autenticado fica fixado no primário por
+ * {@code janelaLeituraPropria}, para enxergar o que acabou de gravar enquanto as réplicas alcançam.
+ * O listener é registrado no gerenciador de transações pelo Spring Boot.
+ */
+@Component
+public class RoteamentoLeitura implements TransactionExecutionListener {
+
+    private static final ThreadLocal<Boolean> FORCAR_PRIMARIO = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> escritasRecentes;
+
+    public RoteamentoLeitura(@Value("${carteira.replicas.janela-leitura-propria:PT5S}") Duration janelaLeituraPropria,
+                             @Value("${carteira.replicas.usuarios-fixados.tamanho-maximo:100000}") long tamanhoMaximo) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(janelaLeituraPropria)
+                .build();
+    }
+
+    /**
+     * Executa a operação lendo do primário, para leituras cujo resultado é compartilhado entre
+     * usuários e não pode ficar atrás do que já foi confirmado.
+     */
+    public <T> T executarNoPrimario(Supplier<T> operacao) {
+        Boolean anterior = FORCAR_PRIMARIO.get();
+        FORCAR_PRIMARIO.set(Boolean.TRUE);
+        try {
+            return operacao.get();
+        } finally {
+            if (anterior == null) {
+                FORCAR_PRIMARIO.remove();
+            }
+        }
+    }
+
+    public boolean usarPrimario() {
+        if (FORCAR_PRIMARIO.get() != null) {
+            return true;
+        }
+        String usuario = usuarioAtual();
+        return usuario != null && escritasRecentes.getIfPresent(usuario) != null;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            String usuario = usuarioAtual();
+            if (usuario != null) {
+                escritasRecentes.put(usuario, Boolean.TRUE);
+            }
+        }
+    }
+
+    private String usuarioAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -1,13 +1,18 @@
 package com.fintech.wallet_service.config.interfaces;
 
 import com.fintech.wallet_service.dto.*;
+import com.fintech.wallet_service.entity.TipoConta;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,10 +28,36 @@ public interface ContaControllerOpenApi {
                     description = "Conta criada com sucesso",
                     content = @Content(schema = @Schema(implementation = ContaResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada em outra requisição"),
+            @ApiResponse(responseCode = "503", description = "Serviço de usuários indisponível")
     })
     ResponseEntity<ContaResponseDTO> criarConta(
-            @Parameter(description = "Dados para criação da conta", required = true) ContaRequestDTO contaRequestDTO);
+            @Parameter(description = "Dados para criação da conta", required = true) ContaRequestDTO contaRequestDTO,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    name = "Idempotency-Key",
+                    description = "Chave que identifica a requisição. Repetições com a mesma chave devolvem a resposta original sem reaplicar a operação",
+                    example = "6f1c2a9e-8a9d-4c1b-9b0e-2f7a3d5c1e44"
+            )
+            String chaveIdempotencia);
+
+    @Operation(
+            summary = "Provisionar contas em massa",
+            description = "Cria muitas contas de uma vez, gravadas em blocos com INSERTs em lote. Contas de usuários " +
+                    "inexistentes são ignoradas e listadas no resumo. Blocos já gravados permanecem se um bloco posterior falhar"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Provisionamento concluído",
+                    content = @Content(schema = @Schema(implementation = ProvisionamentoResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "503", description = "Serviço de usuários indisponível")
+    })
+    ResponseEntity<ProvisionamentoResponseDTO> provisionarContas(
+            @Parameter(description = "Contas a criar", required = true) ProvisionamentoRequestDTO provisionamentoRequestDTO);
 
     @Operation(
             summary = "Buscar conta por ID",
@@ -49,16 +80,47 @@ public interface ContaControllerOpenApi {
 
     @Operation(
             summary = "Listar contas do usuário",
-            description = "Lista todas as contas vinculadas a um usuário"
+            description = "Lista as contas vinculadas a um usuário em ordem de id, paginadas por cursor. " +
+                    "Quando houver mais contas, o header X-Proximo-Cursor traz o cursor da próxima página"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "Lista de contas retornada com sucesso",
+                    description = "Página de contas retornada com sucesso",
+                    headers = @Header(name = "X-Proximo-Cursor", description = "Cursor da próxima página; ausente na última",
+                            schema = @Schema(type = "integer", format = "int64")),
                     content = @Content(schema = @Schema(implementation = ContaResumoResponseDTO.class))),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            @ApiResponse(responseCode = "400", description = "Tamanho de página inválido"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "503", description = "Serviço de usuários indisponível")
     })
     ResponseEntity<List<ContaResumoResponseDTO>> listarCarteirasUsuario(
+            @Parameter(
+                    description = "ID do usuário",
+                    example = "10",
+                    required = true
+            )
+            Long usuarioId,
+
+            @Parameter(description = "Cursor devolvido em X-Proximo-Cursor pela página anterior; vazio na primeira", example = "1050")
+            Long cursor,
+
+            @Parameter(description = "Quantidade de contas por página (padrão 50, máximo 200)", example = "50")
+            Integer tamanho
+    );
+
+    @Operation(
+            summary = "Consultar saldo consolidado do usuário",
+            description = "Retorna a soma dos saldos de todas as contas do usuário, no total e por tipo de conta, " +
+                    "a partir de um resumo atualizado junto com cada movimentação. Usuário sem contas tem saldo zero"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Saldo consolidado retornado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ResumoSaldoUsuarioResponseDTO.class)))
+    })
+    ResponseEntity<ResumoSaldoUsuarioResponseDTO> buscarResumoUsuario(
             @Parameter(
                     description = "ID do usuário",
                     example = "10",
@@ -87,6 +149,34 @@ public interface ContaControllerOpenApi {
             Long id
     );
 
+    @Operation(
+            summary = "Extrato da conta",
+            description = "Lista as movimentações da conta no período [de, ate) em ordem cronológica, cada uma com o " +
+                    "saldo logo após ela. Quando houver mais movimentações, o header X-Proximo-Cursor traz o cursor " +
+                    "da próxima página"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página do extrato retornada com sucesso",
+                    headers = @Header(name = "X-Proximo-Cursor", description = "Cursor da próxima página; ausente na última",
+                            schema = @Schema(type = "string")),
+                    content = @Content(schema = @Schema(implementation = ItemExtratoDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Período, cursor ou tamanho de página inválidos"),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada")
+    })
+    ResponseEntity<List<ItemExtratoDTO>> extrato(
+            @Parameter(description = "ID da conta", example = "1", required = true) Long id,
+            @Parameter(description = "Início do período, inclusive (ISO-8601)", example = "2025-01-01T00:00:00-03:00",
+                    required = true) OffsetDateTime de,
+            @Parameter(description = "Fim do período, exclusive (ISO-8601)", example = "2025-02-01T00:00:00-03:00",
+                    required = true) OffsetDateTime ate,
+            @Parameter(description = "Cursor devolvido em X-Proximo-Cursor pela página anterior; vazio na primeira",
+                    example = "1736962200000000_98765") String cursor,
+            @Parameter(description = "Quantidade de movimentações por página (padrão 100, máximo 500)", example = "100")
+            Integer tamanho
+    );
+
     @Operation(
             summary = "Depositar valor",
             description = "Realiza um depósito em uma conta"
@@ -97,7 +187,9 @@ public interface ContaControllerOpenApi {
                     description = "Depósito realizado com sucesso",
                     content = @Content(schema = @Schema(implementation = SaldoResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Valor inválido"),
-            @ApiResponse(responseCode = "404", description = "Conta não encontrada")
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Conflito com outra operação na mesma conta, após as novas tentativas"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada em outra requisição")
     })
     ResponseEntity<SaldoResponseDTO> depositar(
             @Parameter(
@@ -108,7 +200,15 @@ public interface ContaControllerOpenApi {
             Long id,
 
             @Parameter(description = "Dados da transação de depósito", required = true)
-            TransicaoRequestDTO transicaoRequestDTO
+            TransicaoRequestDTO transicaoRequestDTO,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    name = "Idempotency-Key",
+                    description = "Chave que identifica a requisição. Repetições com a mesma chave devolvem a resposta original sem reaplicar a operação",
+                    example = "6f1c2a9e-8a9d-4c1b-9b0e-2f7a3d5c1e44"
+            )
+            String chaveIdempotencia
     );
 
     @Operation(
@@ -121,7 +221,9 @@ public interface ContaControllerOpenApi {
                     description = "Saque realizado com sucesso",
                     content = @Content(schema = @Schema(implementation = SaldoResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Saldo insuficiente ou valor inválido"),
-            @ApiResponse(responseCode = "404", description = "Conta não encontrada")
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Conflito com outra operação na mesma conta, após as novas tentativas"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada em outra requisição")
     })
     ResponseEntity<SaldoResponseDTO> sacar(
             @Parameter(
@@ -132,7 +234,128 @@ public interface ContaControllerOpenApi {
             Long id,
 
             @Parameter(description = "Dados da transação de saque", required = true)
-            TransicaoRequestDTO transicaoRequestDTO
+            TransicaoRequestDTO transicaoRequestDTO,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    name = "Idempotency-Key",
+                    description = "Chave que identifica a requisição. Repetições com a mesma chave devolvem a resposta original sem reaplicar a operação",
+                    example = "6f1c2a9e-8a9d-4c1b-9b0e-2f7a3d5c1e44"
+            )
+            String chaveIdempotencia
+    );
+
+    @Operation(
+            summary = "Transferir entre contas",
+            description = "Debita a conta de origem e credita a de destino em uma única transação: " +
+                    "ou as duas contas são alteradas, ou nenhuma"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transferência realizada com sucesso",
+                    content = @Content(schema = @Schema(implementation = TransferenciaResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Saldo insuficiente, valor inválido ou origem igual ao destino"),
+            @ApiResponse(responseCode = "404", description = "Conta de origem ou de destino não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Conflito com outra operação na mesma conta, após as novas tentativas"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada em outra requisição")
+    })
+    ResponseEntity<TransferenciaResponseDTO> transferir(
+            @Parameter(description = "Dados da transferência", required = true)
+            TransferenciaRequestDTO transferenciaRequestDTO,
+
+            @Parameter(
+                    in = ParameterIn.HEADER,
+                    name = "Idempotency-Key",
+                    description = "Chave que identifica a requisição. Repetições com a mesma chave devolvem a resposta original sem reaplicar a operação",
+                    example = "6f1c2a9e-8a9d-4c1b-9b0e-2f7a3d5c1e44"
+            )
+            String chaveIdempotencia
+    );
+
+    @Operation(
+            summary = "Ativar modo quente",
+            description = "Divide o saldo da conta em slots para que depósitos concorrentes não disputem a mesma linha. " +
+                    "Pode ser chamado com a conta em uso e também para alterar a quantidade de slots."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Modo quente ativado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ContaResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Quantidade de slots inválida"),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada")
+    })
+    ResponseEntity<ContaResponseDTO> ativarModoQuente(
+            @Parameter(
+                    description = "ID da conta",
+                    example = "1",
+                    required = true
+            )
+            Long id,
+
+            @Parameter(description = "Configuração do modo quente", required = true)
+            ModoQuenteRequestDTO modoQuenteRequestDTO
+    );
+
+    @Operation(
+            summary = "Desativar modo quente",
+            description = "Consolida os slots de saldo de volta na conta, com a conta em uso"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Modo quente desativado com sucesso",
+                    content = @Content(schema = @Schema(implementation = ContaResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada")
+    })
+    ResponseEntity<ContaResponseDTO> desativarModoQuente(
+            @Parameter(
+                    description = "ID da conta",
+                    example = "1",
+                    required = true
+            )
+            Long id
+    );
+
+    @Operation(
+            summary = "Processar lote de transações",
+            description = "Aplica depósitos e saques em lote, em blocos transacionais. Os resultados de cada item " +
+                    "são devolvidos em NDJSON, um bloco por vez, à medida que os blocos são confirmados."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultados por item, um objeto JSON por linha",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = ItemLoteResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote inválido")
+    })
+    ResponseEntity<StreamingResponseBody> processarLote(
+            @Parameter(description = "Itens do lote", required = true) LoteTransacaoRequestDTO loteTransacaoRequestDTO
     );
-}
 
+    @Operation(
+            summary = "Exportar contas",
+            description = "Transmite todas as contas que atendem aos filtros, uma por linha, à medida que são lidas do " +
+                    "banco. Para cargas incrementais, use atualizadaApos com o horário da última exportação."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Contas em NDJSON (um objeto JSON por linha) ou CSV com cabeçalho",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = ContaResponseDTO.class)),
+                            @Content(mediaType = "text/csv")
+                    }),
+            @ApiResponse(responseCode = "400", description = "Formato, tipo ou data inválidos")
+    })
+    ResponseEntity<StreamingResponseBody> exportarContas(
+            @Parameter(description = "Formato da saída", example = "NDJSON") FormatoExportacao formato,
+            @Parameter(description = "Somente contas deste tipo", example = "CORRENTE") TipoConta tipo,
+            @Parameter(description = "Somente contas ativas (true) ou inativas (false)", example = "true") Boolean ativa,
+            @Parameter(description = "Somente contas atualizadas depois deste instante (ISO-8601)",
+                    example = "2025-01-15T00:00:00-03:00") OffsetDateTime atualizadaApos
+    );
+}
@@ -0,0 +1,37 @@
+package com.fintech.wallet_service.config.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fintech.wallet_service.entity.Dinheiro;
+
+import java.io.IOException;
+
+/**
+ * Lê {@link Dinheiro} de números JSON (inteiros ou decimais) e de strings numéricas, como o
+ * {@code BigDecimal} aceitava. O texto do número vai direto para {@link Dinheiro#parse}, sem
+ * criar um {@code BigDecimal}; mais de duas casas decimais são rejeitadas como formato inválido.
+ */
+public class DinheiroJsonDeserializer extends StdScalarDeserializer<Dinheiro> {
+
+    public DinheiroJsonDeserializer() {
+        super(Dinheiro.class);
+    }
+
+    @Override
+    public Dinheiro deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                && token != JsonToken.VALUE_STRING) {
+            return (Dinheiro) contexto.handleUnexpectedToken(Dinheiro.class, parser);
+        }
+        String texto = parser.getText().trim();
+        try {
+            return Dinheiro.parse(texto);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return (Dinheiro) contexto.handleWeirdStringValue(Dinheiro.class, texto,
+                    "valor monetário com no máximo duas casas decimais");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.fintech.wallet_service.config.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fintech.wallet_service.entity.Dinheiro;
+
+import java.io.IOException;
+
+/**
+ * Escreve {@link Dinheiro} como número JSON com duas casas ({@code 2500.00}), o mesmo texto que
+ * o {@code BigDecimal} lido de uma coluna {@code NUMERIC(15,2)} produzia.
+ */
+public class DinheiroJsonSerializer extends StdSerializer<Dinheiro> {
+
+    public DinheiroJsonSerializer() {
+        super(Dinheiro.class);
+    }
+
+    @Override
+    public void serialize(Dinheiro valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+        gerador.writeNumber(valor.toString());
+    }
+}
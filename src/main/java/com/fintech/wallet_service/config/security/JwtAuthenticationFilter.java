@@ -10,12 +10,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.logging.Logger;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private static final Logger logger = Logger.getLogger(JwtAuthenticationFilter.class.getName());
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
         this.jwtTokenProvider = jwtTokenProvider;
@@ -25,31 +23,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String authHeader = request.getHeader("Authorization");
-        logger.info("===== JWT FILTER DEBUG =====");
-        logger.info("Auth Header recebido: " + authHeader);
-
-        String token = jwtTokenProvider.extrairToken(authHeader);
-        logger.info("Token extraído: " + token);
+        String token = jwtTokenProvider.extrairToken(request.getHeader("Authorization"));
 
         if (token != null) {
-            boolean isValid = jwtTokenProvider.validarToken(token);
-            logger.info("Token é válido? " + isValid);
-
-            if (isValid) {
-                String usuarioId = jwtTokenProvider.obterUsuarioIdDoToken(token);
-                logger.info("UsuarioId extraído: " + usuarioId);
-
+            jwtTokenProvider.verificar(token).ifPresent(verificado -> {
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(usuarioId, token, new ArrayList<>());
+                        new UsernamePasswordAuthenticationToken(verificado.usuarioId(), token, new ArrayList<>());
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.info("Authentication definido com sucesso!");
-            } else {
-                logger.warning("Token inválido!");
-            }
-        } else {
-            logger.warning("Token é null!");
+            });
         }
 
         filterChain.doFilter(request, response);
@@ -1,17 +1,61 @@
 package com.fintech.wallet_service.config.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = Logger.getLogger(JwtTokenProvider.class.getName());
-    private String secret = "secret";
+
+    /**
+     * O verificador é imutável e thread-safe, então é montado uma única vez.
+     */
+    private final JWTVerifier verifier;
+
+    /**
+     * Tokens já verificados, indexados pelo SHA-256 do token para não manter o token em memória.
+     * Cada entrada vale até o {@code exp} do token, limitado a {@code validadeMaxima}.
+     * Tokens inválidos não entram no cache. Fica {@code null} quando o tamanho máximo é 0.
+     */
+    private final Cache<String, TokenVerificado> tokensVerificados;
+
+    public JwtTokenProvider(@Value("${jwt.secret:secret}") String secret,
+                            @Value("${jwt.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                            @Value("${jwt.cache.validade-maxima:PT15M}") Duration validadeMaxima,
+                            MeterRegistry meterRegistry) {
+        this.verifier = JWT.require(Algorithm.HMAC256(secret)).build();
+
+        if (tamanhoMaximo > 0) {
+            this.tokensVerificados = Caffeine.newBuilder()
+                    .maximumSize(tamanhoMaximo)
+                    .expireAfter(new ValidadeAteExpiracao(validadeMaxima))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "tokens-jwt");
+        } else {
+            this.tokensVerificados = null;
+        }
+    }
 
     public String extrairToken(String authorizationHeader) {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
@@ -20,36 +64,75 @@ public class JwtTokenProvider {
         return null;
     }
 
-    public boolean validarToken(String token) {
+    /**
+     * Verifica assinatura e validade do token e devolve o usuário autenticado, ou vazio se o
+     * token for inválido, estiver expirado ou não tiver a claim {@code userId}.
+     */
+    public Optional<TokenVerificado> verificar(String token) {
+        if (tokensVerificados == null) {
+            return decodificar(token);
+        }
+
+        String chave = hash(token);
+        TokenVerificado emCache = tokensVerificados.getIfPresent(chave);
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+
+        Optional<TokenVerificado> verificado = decodificar(token);
+        verificado.ifPresent(valor -> tokensVerificados.put(chave, valor));
+        return verificado;
+    }
+
+    private Optional<TokenVerificado> decodificar(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWT.require(algorithm)
-                    .build()
-                    .verify(token);
-            logger.info("Token validado com sucesso!");
-            return true;
+            DecodedJWT decodedJWT = verifier.verify(token);
+
+            Long usuarioId = decodedJWT.getClaim("userId").asLong();
+            if (usuarioId == null) {
+                logger.warning("Token sem a claim userId");
+                return Optional.empty();
+            }
+
+            return Optional.of(new TokenVerificado(usuarioId.toString(), decodedJWT.getExpiresAtAsInstant()));
         } catch (JWTVerificationException ex) {
             logger.warning("Token inválido: " + ex.getMessage());
-            return false;
-        } catch (Exception e) {
-            logger.warning("Erro ao validar token: " + e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
-    public String obterUsuarioIdDoToken(String token) {
+    private static String hash(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            DecodedJWT decodedJWT = JWT.require(algorithm)
-                    .build()
-                    .verify(token);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
 
-            Long usuarioId = decodedJWT.getClaim("userId").asLong();
-            logger.info("UsuarioId extraído do token: " + usuarioId);
-            return usuarioId.toString();
-        } catch (Exception e) {
-            logger.warning("Erro ao extrair usuarioId: " + e.getMessage());
-            return null;
+    private record ValidadeAteExpiracao(Duration validadeMaxima) implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String chave, TokenVerificado token, long agora) {
+            if (token.expiraEm() == null) {
+                return validadeMaxima.toNanos();
+            }
+
+            Duration restante = Duration.between(Instant.now(), token.expiraEm());
+            if (restante.isNegative()) {
+                return 0;
+            }
+            return restante.compareTo(validadeMaxima) < 0 ? restante.toNanos() : validadeMaxima.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, TokenVerificado token, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+
+        @Override
+        public long expireAfterRead(String chave, TokenVerificado token, long agora, long duracaoAtual) {
+            return duracaoAtual;
         }
     }
-}
\ No newline at end of file
+}
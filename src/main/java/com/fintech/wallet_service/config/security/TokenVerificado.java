@@ -0,0 +1,10 @@
+package com.fintech.wallet_service.config.security;
+
+import java.time.Instant;
+
+/**
+ * Dados do token já verificado: o usuário autenticado e quando o token expira
+ * ({@code null} quando o token não tem {@code exp}).
+ */
+public record TokenVerificado(String usuarioId, Instant expiraEm) {
+}
@@ -0,0 +1,19 @@
+package com.fintech.wallet_service.config.service;
+
+/**
+ * O que fazer quando o user-service não responde (circuito aberto, bulkhead cheio, timeout
+ * ou erro 5xx).
+ */
+public enum PoliticaFallbackUsuario {
+
+    /**
+     * Considera existente o usuário que é o próprio titular do JWT, já validado pelo filtro;
+     * consultas sobre outros usuários continuam falhando.
+     */
+    CONFIAR_JWT,
+
+    /**
+     * Recusa a operação imediatamente com 503.
+     */
+    FALHAR_RAPIDO
+}
@@ -1,11 +1,41 @@
 package com.fintech.wallet_service.config.service;
 
+import com.fintech.wallet_service.exception.UsuarioServiceIndisponivelException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 @Component
@@ -14,37 +44,224 @@ public class UsuarioServiceCliente {
     private static final Logger logger = Logger.getLogger(UsuarioServiceCliente.class.getName());
     private final WebClient webClient;
 
-    public UsuarioServiceCliente(WebClient.Builder builder) {
-        this.webClient = builder.baseUrl("http://localhost:8080").build();
+    /**
+     * Resultado da consulta de existência por usuário. Guardar o future (e não o valor) faz
+     * consultas simultâneas ao mesmo ID compartilharem uma única requisição em andamento;
+     * futures que falham são descartados pelo próprio Caffeine, então erros não ficam em cache.
+     * A requisição leva o token de quem a disparou; se ele for recusado, as demais consultas que a
+     * aguardavam não herdam a recusa e refazem a requisição com o próprio token.
+     */
+    private final AsyncCache<Long, Boolean> usuarios;
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration timeout;
+    private final PoliticaFallbackUsuario politicaFallback;
+    private final int janelaLote;
+    private final MeterRegistry meterRegistry;
+
+    public UsuarioServiceCliente(WebClient.Builder builder,
+                                 @Value("${usuario-service.url:http://localhost:8080}") String url,
+                                 @Value("${usuario-service.cache.ttl-existente:PT10M}") Duration ttlExistente,
+                                 @Value("${usuario-service.cache.ttl-inexistente:PT30S}") Duration ttlInexistente,
+                                 @Value("${usuario-service.cache.tamanho-maximo:50000}") long tamanhoMaximo,
+                                 @Value("${usuario-service.conexoes.maximo:200}") int maximoConexoes,
+                                 @Value("${usuario-service.conexoes.espera-maxima:PT5S}") Duration esperaMaximaConexao,
+                                 @Value("${usuario-service.timeout:PT2S}") Duration timeout,
+                                 @Value("${usuario-service.fallback:FALHAR_RAPIDO}") PoliticaFallbackUsuario politicaFallback,
+                                 @Value("${usuario-service.lote.janela:32}") int janelaLote,
+                                 CircuitBreaker circuitBreaker,
+                                 Bulkhead bulkhead,
+                                 MeterRegistry meterRegistry) {
+        // Sem limite na fila de espera por conexão: com threads virtuais o número de chamadas
+        // simultâneas não é mais contido pelo pool do Tomcat, e o limite padrão do Reactor Netty
+        // recusaria as excedentes em vez de fazê-las aguardar
+        ConnectionProvider conexoes = ConnectionProvider.builder("usuario-service")
+                .maxConnections(maximoConexoes)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(esperaMaximaConexao)
+                .build();
+
+        this.webClient = builder
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(conexoes)))
+                .build();
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ValidadePorResultado(ttlExistente, ttlInexistente))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "usuarios");
+
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.timeout = timeout;
+        this.politicaFallback = politicaFallback;
+        this.janelaLote = janelaLote;
+        this.meterRegistry = meterRegistry;
     }
 
     public boolean usuarioExiste(Long usuarioId) {
+        // O token é lido aqui porque o carregamento pode rodar fora da thread da requisição
+        String token = obterTokenDoContexto();
+
+        return aguardar(usuarioId, token, consultarComCache(usuarioId, token));
+    }
+
+    /**
+     * Verifica vários usuários disparando as consultas em janelas de {@code janelaLote}
+     * requisições simultâneas, para não estourar o bulkhead. IDs repetidos são consultados uma vez.
+     */
+    public Map<Long, Boolean> verificarUsuarios(Collection<Long> usuarioIds) {
+        String token = obterTokenDoContexto();
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(usuarioIds));
+        Map<Long, Boolean> resultado = new HashMap<>(ids.size() * 2);
+
+        for (int inicio = 0; inicio < ids.size(); inicio += janelaLote) {
+            Map<Long, Consulta> consultas = new LinkedHashMap<>();
+            for (Long usuarioId : ids.subList(inicio, Math.min(inicio + janelaLote, ids.size()))) {
+                consultas.put(usuarioId, consultarComCache(usuarioId, token));
+            }
+            consultas.forEach((usuarioId, consulta) -> resultado.put(usuarioId, aguardar(usuarioId, token, consulta)));
+        }
+
+        return resultado;
+    }
+
+    private Consulta consultarComCache(Long usuarioId, String token) {
+        AtomicBoolean propria = new AtomicBoolean();
+        CompletableFuture<Boolean> futuro = usuarios.get(usuarioId, (id, executor) -> {
+            propria.set(true);
+            return consultar(id, token);
+        });
+        return new Consulta(futuro, propria.get());
+    }
+
+    private boolean aguardar(Long usuarioId, String token, Consulta consulta) {
         try {
-            String token = obterTokenDoContexto();
-            logger.info("Token extraído: " + token);
+            return consulta.futuro().join();
+        } catch (CompletionException e) {
+            // O Caffeine também descarta o future com falha, mas de forma assíncrona; removendo
+            // aqui a próxima consulta já refaz a requisição
+            usuarios.asMap().remove(usuarioId, consulta.futuro());
 
-            webClient.get()
-                    .uri("/api/v1/usuarios/{usuarioId}", usuarioId)
-                    .header("Authorization", token)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            if (tokenRecusado(causa) && !consulta.propria()) {
+                // A recusa foi do token de outra requisição; este é conferido em uma requisição própria
+                CompletableFuture<Boolean> propria = consultar(usuarioId, token).thenApply(existe -> {
+                    usuarios.put(usuarioId, CompletableFuture.completedFuture(existe));
+                    return existe;
+                });
+                return aguardar(usuarioId, token, new Consulta(propria, true));
+            }
+            registrarErro(causa);
+
+            if (tokenRecusado(causa)) {
+                logger.severe("Token rejeitado pelo user-service: " + causa.getMessage());
+                throw new RuntimeException("Token inválido ou expirado");
+            }
+            if (indisponivel(causa)) {
+                return fallback(usuarioId, causa);
+            }
+            throw new RuntimeException("Erro ao verificar usuario: " + causa.getMessage());
+        }
+    }
+
+    /**
+     * Descarta o resultado em cache de um usuário, para ser usado quando o user-service
+     * avisar que ele foi criado ou removido.
+     */
+    public void invalidar(Long usuarioId) {
+        usuarios.synchronous().invalidate(usuarioId);
+    }
+
+    public void invalidarTodos() {
+        usuarios.synchronous().invalidateAll();
+    }
 
+    /**
+     * A requisição passa pelo bulkhead e pelo circuit breaker. Como é feita uma única vez por
+     * usuário mesmo com consultas simultâneas, cada uma ocupa uma só vaga do bulkhead.
+     */
+    private CompletableFuture<Boolean> consultar(Long usuarioId, String token) {
+        Supplier<CompletionStage<Boolean>> requisicao = () -> requisitar(usuarioId, token);
+
+        return CircuitBreaker.decorateCompletionStage(circuitBreaker,
+                        Bulkhead.decorateCompletionStage(bulkhead, requisicao))
+                .get()
+                .toCompletableFuture();
+    }
+
+    private CompletableFuture<Boolean> requisitar(Long usuarioId, String token) {
+        return webClient.get()
+                .uri("/api/v1/usuarios/{usuarioId}", usuarioId)
+                .header("Authorization", token)
+                .retrieve()
+                .toBodilessEntity()
+                .map(resposta -> true)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(false))
+                .timeout(timeout)
+                .toFuture();
+    }
+
+    /**
+     * A latência e o status de cada requisição ao user-service ficam em {@code http.client.requests};
+     * este contador cobre também as falhas que não chegam a virar resposta HTTP.
+     */
+    private void registrarErro(Throwable causa) {
+        String motivo;
+        if (causa instanceof CallNotPermittedException) {
+            motivo = "circuito_aberto";
+        } else if (causa instanceof BulkheadFullException) {
+            motivo = "bulkhead_cheio";
+        } else if (causa instanceof TimeoutException) {
+            motivo = "timeout";
+        } else if (causa instanceof WebClientRequestException) {
+            motivo = "conexao";
+        } else if (causa instanceof WebClientResponseException resposta) {
+            motivo = resposta.getStatusCode().is5xxServerError() ? "http_5xx" : "http_4xx";
+        } else {
+            motivo = "outro";
+        }
+        Counter.builder("usuario.servico.erros")
+                .description("Consultas ao user-service que falharam")
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean tokenRecusado(Throwable causa) {
+        return causa instanceof WebClientResponseException.Unauthorized
+                || causa instanceof WebClientResponseException.Forbidden;
+    }
+
+    private static boolean indisponivel(Throwable causa) {
+        return causa instanceof CallNotPermittedException
+                || causa instanceof BulkheadFullException
+                || causa instanceof TimeoutException
+                || causa instanceof WebClientRequestException
+                || causa instanceof WebClientResponseException resposta && resposta.getStatusCode().is5xxServerError();
+    }
+
+    /**
+     * Roda na thread da requisição, então o contexto de segurança ainda está disponível.
+     * O resultado do fallback não entra no cache.
+     */
+    private boolean fallback(Long usuarioId, Throwable causa) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (politicaFallback == PoliticaFallbackUsuario.CONFIAR_JWT
+                && authentication != null && usuarioId.toString().equals(authentication.getName())) {
+            logger.warning("User-service indisponível, confiando no userId do JWT: " + causa.getMessage());
             return true;
-        } catch (WebClientResponseException.NotFound e) {
-            return false;
-        } catch (WebClientResponseException.Forbidden e) {
-            logger.severe("Token rejeitado pelo user-service: " + e.getMessage());
-            throw new RuntimeException("Token inválido ou expirado");
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao verificar usuario: " + e.getMessage());
         }
+
+        throw new UsuarioServiceIndisponivelException(causa);
     }
 
     private String obterTokenDoContexto() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        logger.info("Authentication: " + authentication);
-        logger.info("Credentials: " + (authentication != null ? authentication.getCredentials() : "null"));
 
         if (authentication != null && authentication.getCredentials() != null) {
             String token = authentication.getCredentials().toString();
@@ -58,4 +275,33 @@ public class UsuarioServiceCliente {
 
         throw new RuntimeException("Token não encontrado no contexto de segurança");
     }
-}
\ No newline at end of file
+
+    /**
+     * Future de uma consulta e se foi esta chamada que disparou a requisição, com o próprio token.
+     */
+    private record Consulta(CompletableFuture<Boolean> futuro, boolean propria) {
+    }
+
+    /**
+     * Usuários existentes raramente deixam de existir, então ficam mais tempo em cache;
+     * o resultado negativo expira rápido para não atrasar contas de usuários recém-criados.
+     */
+    private record ValidadePorResultado(Duration ttlExistente, Duration ttlInexistente)
+            implements Expiry<Long, Boolean> {
+
+        @Override
+        public long expireAfterCreate(Long usuarioId, Boolean existe, long agora) {
+            return (existe ? ttlExistente : ttlInexistente).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long usuarioId, Boolean existe, long agora, long duracaoAtual) {
+            return expireAfterCreate(usuarioId, existe, agora);
+        }
+
+        @Override
+        public long expireAfterRead(Long usuarioId, Boolean existe, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.fintech.wallet_service.config.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker e bulkhead das chamadas ao user-service, com as métricas publicadas no
+ * Micrometer ({@code resilience4j.circuitbreaker.*} e {@code resilience4j.bulkhead.*}).
+ */
+@Configuration
+public class UsuarioServiceResilienciaConfig {
+
+    public static final String NOME = "usuario-service";
+
+    @Bean
+    public CircuitBreaker usuarioServiceCircuitBreaker(
+            @Value("${usuario-service.circuit-breaker.taxa-falhas:50}") float taxaFalhas,
+            @Value("${usuario-service.circuit-breaker.janela:20}") int janela,
+            @Value("${usuario-service.circuit-breaker.minimo-chamadas:10}") int minimoChamadas,
+            @Value("${usuario-service.circuit-breaker.espera-aberto:PT30S}") Duration esperaAberto,
+            @Value("${usuario-service.circuit-breaker.chamadas-meio-aberto:5}") int chamadasMeioAberto,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(taxaFalhas)
+                .slidingWindowSize(janela)
+                .minimumNumberOfCalls(minimoChamadas)
+                .waitDurationInOpenState(esperaAberto)
+                .permittedNumberOfCallsInHalfOpenState(chamadasMeioAberto)
+                // 4xx (token recusado, requisição inválida) é problema de quem chamou, não do user-service
+                .recordException(e -> !(e instanceof WebClientResponseException resposta
+                        && resposta.getStatusCode().is4xxClientError()))
+                // Rejeições do bulkhead indicam excesso de carga nossa, não falha da dependência
+                .ignoreExceptions(BulkheadFullException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(NOME);
+    }
+
+    @Bean
+    public Bulkhead usuarioServiceBulkhead(
+            @Value("${usuario-service.bulkhead.chamadas-simultaneas:50}") int chamadasSimultaneas,
+            @Value("${usuario-service.bulkhead.espera-maxima:PT0S}") Duration esperaMaxima,
+            MeterRegistry meterRegistry) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(chamadasSimultaneas)
+                .maxWaitDuration(esperaMaxima)
+                .build();
+
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        Bulkhead bulkhead = registry.bulkhead(NOME);
+
+        Counter rejeitadas = Counter.builder("resilience4j.bulkhead.rejected.calls")
+                .description("Chamadas recusadas por falta de vaga no bulkhead")
+                .tag("name", NOME)
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(evento -> rejeitadas.increment());
+
+        return bulkhead;
+    }
+}
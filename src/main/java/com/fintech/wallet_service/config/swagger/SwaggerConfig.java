@@ -1,5 +1,6 @@
 package com.fintech.wallet_service.config.swagger;
 
+import com.fintech.wallet_service.entity.Dinheiro;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
@@ -8,11 +9,19 @@ import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springframework.context.annotation.Bean;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Configuration;
 
+import java.math.BigDecimal;
+
 @Configuration
 public class SwaggerConfig {
 
+    static {
+        // Dinheiro é escrito em JSON como número decimal, então é documentado como BigDecimal
+        SpringDocUtils.getConfig().replaceWithClass(Dinheiro.class, BigDecimal.class);
+    }
+
     @Bean
     public OpenAPI openAPI() {
 
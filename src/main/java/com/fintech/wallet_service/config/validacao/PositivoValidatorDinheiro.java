@@ -0,0 +1,18 @@
+package com.fintech.wallet_service.config.validacao;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Permite usar {@link Positive} em campos {@link Dinheiro}. Registrado em
+ * {@code META-INF/services/jakarta.validation.ConstraintValidator}.
+ */
+public class PositivoValidatorDinheiro implements ConstraintValidator<Positive, Dinheiro> {
+
+    @Override
+    public boolean isValid(Dinheiro valor, ConstraintValidatorContext contexto) {
+        return valor == null || valor.signum() > 0;
+    }
+}
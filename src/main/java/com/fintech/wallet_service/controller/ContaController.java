@@ -2,30 +2,64 @@ package com.fintech.wallet_service.controller;
 
 import com.fintech.wallet_service.config.interfaces.ContaControllerOpenApi;
 import com.fintech.wallet_service.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet_service.entity.TipoConta;
 import com.fintech.wallet_service.service.ContaService;
+import com.fintech.wallet_service.service.ExportacaoContaService;
+import com.fintech.wallet_service.service.ExtratoService;
+import com.fintech.wallet_service.service.LoteTransacaoService;
+import com.fintech.wallet_service.service.ProvisionamentoService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/carteiras")
 public class ContaController implements ContaControllerOpenApi {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String PROXIMO_CURSOR = "X-Proximo-Cursor";
+
     private final ContaService contaService;
+    private final LoteTransacaoService loteTransacaoService;
+    private final ProvisionamentoService provisionamentoService;
+    private final ExportacaoContaService exportacaoContaService;
+    private final ExtratoService extratoService;
+    private final ObjectMapper objectMapper;
 
-    public ContaController(ContaService contaService) {
+    public ContaController(ContaService contaService, LoteTransacaoService loteTransacaoService,
+                           ProvisionamentoService provisionamentoService, ExportacaoContaService exportacaoContaService,
+                           ExtratoService extratoService, ObjectMapper objectMapper) {
         this.contaService = contaService;
+        this.loteTransacaoService = loteTransacaoService;
+        this.provisionamentoService = provisionamentoService;
+        this.exportacaoContaService = exportacaoContaService;
+        this.extratoService = extratoService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<ContaResponseDTO> criarConta(@RequestBody @Valid ContaRequestDTO contaRequestDTO) {
-        ContaResponseDTO contaResponseDTO = contaService.criarConta(contaRequestDTO);
+    public ResponseEntity<ContaResponseDTO> criarConta(@RequestBody @Valid ContaRequestDTO contaRequestDTO,
+                                                       @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia) {
+        ContaResponseDTO contaResponseDTO = contaService.criarConta(contaRequestDTO, chaveIdempotencia);
         return ResponseEntity.status(HttpStatus.CREATED).body(contaResponseDTO);
     }
 
+    @PostMapping("/provisionamento")
+    public ResponseEntity<ProvisionamentoResponseDTO> provisionarContas(@RequestBody @Valid ProvisionamentoRequestDTO provisionamentoRequestDTO) {
+        ProvisionamentoResponseDTO provisionamentoResponseDTO = provisionamentoService.provisionar(provisionamentoRequestDTO.contas());
+        return ResponseEntity.status(HttpStatus.CREATED).body(provisionamentoResponseDTO);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ContaResponseDTO> buscarCarteiraPorId(@PathVariable Long id) {
         ContaResponseDTO contaResponseDTO = contaService.buscarCarteiraPorId(id);
@@ -33,9 +67,22 @@ public class ContaController implements ContaControllerOpenApi {
     }
 
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<ContaResumoResponseDTO>>listarCarteirasUsuario(@PathVariable Long usuarioId) {
-        List<ContaResumoResponseDTO> contaResponseDTOS = contaService.listarCarteirasUsuario(usuarioId);
-        return ResponseEntity.status(HttpStatus.OK).body(contaResponseDTOS);
+    public ResponseEntity<List<ContaResumoResponseDTO>>listarCarteirasUsuario(@PathVariable Long usuarioId,
+                                                                             @RequestParam(required = false) Long cursor,
+                                                                             @RequestParam(required = false) Integer tamanho) {
+        PaginaCursor<ContaResumoResponseDTO> pagina = contaService.listarCarteirasUsuario(usuarioId, cursor, tamanho);
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.OK);
+        if (pagina.proximoCursor() != null) {
+            resposta.header(PROXIMO_CURSOR, pagina.proximoCursor().toString());
+        }
+        return resposta.body(pagina.itens());
+    }
+
+    @GetMapping("/usuario/{usuarioId}/resumo")
+    public ResponseEntity<ResumoSaldoUsuarioResponseDTO> buscarResumoUsuario(@PathVariable Long usuarioId) {
+        ResumoSaldoUsuarioResponseDTO resumo = contaService.buscarResumoUsuario(usuarioId);
+        return ResponseEntity.status(HttpStatus.OK).body(resumo);
     }
 
     @GetMapping("/{id}/saldo")
@@ -45,15 +92,78 @@ public class ContaController implements ContaControllerOpenApi {
 
     }
 
+    @GetMapping("/{id}/extrato")
+    public ResponseEntity<List<ItemExtratoDTO>> extrato(@PathVariable Long id,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer tamanho) {
+        PaginaExtrato pagina = extratoService.extrato(id, de, ate, cursor, tamanho);
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.OK);
+        if (pagina.proximoCursor() != null) {
+            resposta.header(PROXIMO_CURSOR, pagina.proximoCursor().toString());
+        }
+        return resposta.body(pagina.itens());
+    }
+
     @PutMapping("/{id}/depositar")
-    public ResponseEntity<SaldoResponseDTO> depositar(@PathVariable Long id, @RequestBody @Valid TransicaoRequestDTO transicaoRequestDTO) {
-        SaldoResponseDTO saldoResponseDTO = contaService.depositar(id, transicaoRequestDTO);
+    public ResponseEntity<SaldoResponseDTO> depositar(@PathVariable Long id, @RequestBody @Valid TransicaoRequestDTO transicaoRequestDTO,
+                                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia) {
+        SaldoResponseDTO saldoResponseDTO = contaService.depositar(id, transicaoRequestDTO, chaveIdempotencia);
         return ResponseEntity.status(HttpStatus.OK).body(saldoResponseDTO);
     }
 
     @PutMapping("/{id}/sacar")
-    public ResponseEntity<SaldoResponseDTO> sacar(@PathVariable Long id, @RequestBody @Valid TransicaoRequestDTO transicaoRequestDTO) {
-        SaldoResponseDTO saldoResponseDTO = contaService.sacar(id, transicaoRequestDTO);
+    public ResponseEntity<SaldoResponseDTO> sacar(@PathVariable Long id, @RequestBody @Valid TransicaoRequestDTO transicaoRequestDTO,
+                                                  @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia) {
+        SaldoResponseDTO saldoResponseDTO = contaService.sacar(id, transicaoRequestDTO, chaveIdempotencia);
         return ResponseEntity.status(HttpStatus.OK).body(saldoResponseDTO);
     }
+
+    @PostMapping("/transferencias")
+    public ResponseEntity<TransferenciaResponseDTO> transferir(@RequestBody @Valid TransferenciaRequestDTO transferenciaRequestDTO,
+                                                               @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia) {
+        TransferenciaResponseDTO transferenciaResponseDTO = contaService.transferir(transferenciaRequestDTO, chaveIdempotencia);
+        return ResponseEntity.status(HttpStatus.OK).body(transferenciaResponseDTO);
+    }
+
+    @PutMapping("/{id}/modo-quente")
+    public ResponseEntity<ContaResponseDTO> ativarModoQuente(@PathVariable Long id, @RequestBody @Valid ModoQuenteRequestDTO modoQuenteRequestDTO) {
+        ContaResponseDTO contaResponseDTO = contaService.ativarModoQuente(id, modoQuenteRequestDTO);
+        return ResponseEntity.status(HttpStatus.OK).body(contaResponseDTO);
+    }
+
+    @DeleteMapping("/{id}/modo-quente")
+    public ResponseEntity<ContaResponseDTO> desativarModoQuente(@PathVariable Long id) {
+        ContaResponseDTO contaResponseDTO = contaService.desativarModoQuente(id);
+        return ResponseEntity.status(HttpStatus.OK).body(contaResponseDTO);
+    }
+
+    @PostMapping("/lote")
+    public ResponseEntity<StreamingResponseBody> processarLote(@RequestBody @Valid LoteTransacaoRequestDTO loteTransacaoRequestDTO) {
+        StreamingResponseBody corpo = saida -> loteTransacaoService.processar(loteTransacaoRequestDTO.itens(), bloco -> {
+            try {
+                for (ItemLoteResponseDTO item : bloco) {
+                    saida.write(objectMapper.writeValueAsBytes(item));
+                    saida.write('\n');
+                }
+                saida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportarContas(@RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+                                                                @RequestParam(required = false) TipoConta tipo,
+                                                                @RequestParam(required = false) Boolean ativa,
+                                                                @RequestParam(required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime atualizadaApos) {
+        FiltroExportacaoContas filtro = new FiltroExportacaoContas(tipo, ativa, atualizadaApos);
+        StreamingResponseBody corpo = saida -> exportacaoContaService.exportar(filtro, formato, saida);
+        return ResponseEntity.status(HttpStatus.OK).contentType(formato.getMediaType()).body(corpo);
+    }
 }
@@ -1,8 +1,8 @@
 package com.fintech.wallet_service.dto;
 
+import com.fintech.wallet_service.entity.Dinheiro;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Schema(name = "ContaResponse", description = "Representação completa de uma conta")
@@ -18,7 +18,7 @@ public record ContaResponseDTO(
         String numeroConta,
 
         @Schema(description = "Saldo atual da conta", example = "1500.75")
-        BigDecimal saldo,
+        Dinheiro saldo,
 
         @Schema(description = "Tipo da conta", example = "CORRENTE")
         String tipo,
@@ -30,7 +30,10 @@ public record ContaResponseDTO(
         OffsetDateTime dataAtualizacao,
 
         @Schema(description = "Indica se a conta está ativa", example = "true")
-        Boolean ativa
+        Boolean ativa,
+
+        @Schema(description = "Quantidade de slots de saldo da conta em modo quente (0 indica modo normal)", example = "0")
+        Integer slotsSaldo
 ) {
 }
 
@@ -0,0 +1,30 @@
+package com.fintech.wallet_service.dto;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Posição no extrato: o extrato segue a ordem (data, id) e a próxima página começa depois desta
+ * posição. Em texto é {@code <microssegundos desde a época>_<id>}, a precisão dos timestamps do banco.
+ */
+public record CursorExtrato(Instant dataMovimentacao, long id) {
+
+    public static CursorExtrato ler(String valor) {
+        int separador = valor.indexOf('_');
+        try {
+            if (separador < 0) {
+                throw new NumberFormatException();
+            }
+            long micros = Long.parseLong(valor.substring(0, separador));
+            return new CursorExtrato(Instant.EPOCH.plus(micros, ChronoUnit.MICROS),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de extrato inválido: " + valor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, dataMovimentacao) + "_" + id;
+    }
+}
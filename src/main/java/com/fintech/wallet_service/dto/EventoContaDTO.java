@@ -0,0 +1,41 @@
+package com.fintech.wallet_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoEventoConta;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Conteúdo de um evento do outbox. O valor é assinado como no livro de movimentações; o saldo é o da
+ * conta logo após a alteração e fica ausente nos lotes, que não leem o saldo de volta, e nos créditos
+ * de contas em modo quente.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EventoContaDTO(
+        Long contaId,
+        TipoEventoConta tipo,
+        Long usuarioId,
+        String tipoConta,
+        TipoMovimentacao movimentacao,
+        Dinheiro valor,
+        Dinheiro saldo,
+        OffsetDateTime data
+) {
+
+    public static EventoContaDTO contaCriada(Long contaId, Long usuarioId, String tipoConta) {
+        return new EventoContaDTO(contaId, TipoEventoConta.CONTA_CRIADA, usuarioId, tipoConta, null, null,
+                Dinheiro.ZERO, OffsetDateTime.now());
+    }
+
+    public static EventoContaDTO saldoAlterado(Long contaId, String tipoConta, TipoMovimentacao movimentacao,
+                                               Dinheiro valor, Dinheiro saldo) {
+        return new EventoContaDTO(contaId, TipoEventoConta.SALDO_ALTERADO, null, tipoConta, movimentacao, valor,
+                saldo, OffsetDateTime.now());
+    }
+
+    public static EventoContaDTO saldoAlterado(SaldoResponseDTO saldo, TipoMovimentacao movimentacao, Dinheiro valor) {
+        return saldoAlterado(saldo.id(), saldo.tipo(), movimentacao, valor, saldo.saldo());
+    }
+}
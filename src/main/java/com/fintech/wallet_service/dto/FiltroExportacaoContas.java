@@ -0,0 +1,15 @@
+package com.fintech.wallet_service.dto;
+
+import com.fintech.wallet_service.entity.TipoConta;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Filtros opcionais da exportação de contas; campos nulos não restringem o resultado.
+ */
+public record FiltroExportacaoContas(
+        TipoConta tipo,
+        Boolean ativa,
+        OffsetDateTime atualizadaApos
+) {
+}
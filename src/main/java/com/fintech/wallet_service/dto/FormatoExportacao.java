@@ -0,0 +1,19 @@
+package com.fintech.wallet_service.dto;
+
+import org.springframework.http.MediaType;
+
+public enum FormatoExportacao {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    FormatoExportacao(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,26 @@
+package com.fintech.wallet_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Schema(name = "ItemExtrato", description = "Lançamento do extrato com o saldo da conta logo após ele")
+public record ItemExtratoDTO(
+
+        @Schema(description = "ID da movimentação", example = "98765")
+        Long id,
+
+        @Schema(description = "Tipo da movimentação", example = "DEPOSITO")
+        String tipo,
+
+        @Schema(description = "Valor com sinal: positivo para créditos, negativo para débitos", example = "-150.00")
+        BigDecimal valor,
+
+        @Schema(description = "Data e hora da movimentação", example = "2025-01-15T14:30:00-03:00")
+        OffsetDateTime dataMovimentacao,
+
+        @Schema(description = "Saldo da conta após a movimentação", example = "2350.00")
+        BigDecimal saldoApos
+) {
+}
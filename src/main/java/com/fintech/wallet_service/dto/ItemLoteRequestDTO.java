@@ -0,0 +1,25 @@
+package com.fintech.wallet_service.dto;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@Schema(name = "ItemLoteRequest", description = "Transação individual de um lote")
+public record ItemLoteRequestDTO(
+
+        @NotNull(message = "O id da conta é obrigatório")
+        @Schema(description = "ID da conta", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+        Long contaId,
+
+        @NotNull(message = "O tipo da transação é obrigatório")
+        @Schema(description = "Tipo da transação", example = "DEPOSITO", requiredMode = Schema.RequiredMode.REQUIRED)
+        TipoMovimentacao tipo,
+
+        @NotNull(message = "O valor da transação é obrigatório")
+        @Positive(message = "Valor da transação tem que ser maior que ZERO")
+        @Schema(description = "Valor da transação", example = "100.00", requiredMode = Schema.RequiredMode.REQUIRED)
+        Dinheiro valor
+) {
+}
@@ -0,0 +1,21 @@
+package com.fintech.wallet_service.dto;
+
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "ItemLoteResponse", description = "Resultado de uma transação do lote")
+public record ItemLoteResponseDTO(
+
+        @Schema(description = "Posição do item no lote, a partir de zero", example = "0")
+        Integer indice,
+
+        @Schema(description = "ID da conta", example = "1")
+        Long contaId,
+
+        @Schema(description = "Tipo da transação", example = "DEPOSITO")
+        TipoMovimentacao tipo,
+
+        @Schema(description = "Resultado da transação", example = "PROCESSADO")
+        StatusItemLote status
+) {
+}
@@ -0,0 +1,18 @@
+package com.fintech.wallet_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "LoteTransacaoRequest", description = "Lote de depósitos e saques aplicados em blocos")
+public record LoteTransacaoRequestDTO(
+
+        @NotEmpty(message = "O lote deve ter ao menos um item")
+        @Size(max = 250000, message = "O lote pode ter no máximo 250000 itens")
+        @Schema(description = "Transações do lote", requiredMode = Schema.RequiredMode.REQUIRED)
+        List<@Valid ItemLoteRequestDTO> itens
+) {
+}
@@ -0,0 +1,17 @@
+package com.fintech.wallet_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(name = "ModoQuenteRequest", description = "Configuração do modo quente de uma conta")
+public record ModoQuenteRequestDTO(
+
+        @NotNull(message = "A quantidade de slots é obrigatória")
+        @Min(value = 2, message = "A quantidade de slots deve ser no mínimo 2")
+        @Max(value = 64, message = "A quantidade de slots deve ser no máximo 64")
+        @Schema(description = "Quantidade de slots em que o saldo será dividido", example = "8", requiredMode = Schema.RequiredMode.REQUIRED)
+        Integer slots
+) {
+}
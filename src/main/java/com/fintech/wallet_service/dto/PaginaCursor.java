@@ -0,0 +1,9 @@
+package com.fintech.wallet_service.dto;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor; {@code proximoCursor} é {@code null} na última página.
+ */
+public record PaginaCursor<T>(List<T> itens, Long proximoCursor) {
+}
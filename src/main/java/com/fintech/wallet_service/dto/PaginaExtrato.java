@@ -0,0 +1,9 @@
+package com.fintech.wallet_service.dto;
+
+import java.util.List;
+
+/**
+ * Página do extrato; {@code proximoCursor} é {@code null} na última página.
+ */
+public record PaginaExtrato(List<ItemExtratoDTO> itens, CursorExtrato proximoCursor) {
+}
@@ -0,0 +1,18 @@
+package com.fintech.wallet_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "ProvisionamentoRequest", description = "Contas a criar de uma só vez, como na entrada de um parceiro")
+public record ProvisionamentoRequestDTO(
+
+        @NotEmpty(message = "Informe ao menos uma conta")
+        @Size(max = 500000, message = "O provisionamento pode ter no máximo 500000 contas")
+        @Schema(description = "Contas a criar", requiredMode = Schema.RequiredMode.REQUIRED)
+        List<@Valid ContaRequestDTO> contas
+) {
+}
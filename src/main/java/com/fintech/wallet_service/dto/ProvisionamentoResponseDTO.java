@@ -0,0 +1,25 @@
+package com.fintech.wallet_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "ProvisionamentoResponse", description = "Resumo do provisionamento de contas")
+public record ProvisionamentoResponseDTO(
+
+        @Schema(description = "Contas recebidas na requisição", example = "100000")
+        int solicitadas,
+
+        @Schema(description = "Contas criadas", example = "99990")
+        int criadas,
+
+        @Schema(description = "Usuários que não existem no user-service; as contas deles não foram criadas", example = "[42, 77]")
+        List<Long> usuariosNaoEncontrados,
+
+        @Schema(description = "Contas ignoradas por tipo de conta inválido", example = "0")
+        int tiposInvalidos,
+
+        @Schema(description = "Tempo total do provisionamento em milissegundos", example = "4120")
+        long duracaoMs
+) {
+}
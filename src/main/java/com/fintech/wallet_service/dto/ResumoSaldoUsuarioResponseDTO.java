@@ -0,0 +1,23 @@
+package com.fintech.wallet_service.dto;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "ResumoSaldoUsuarioResponse", description = "Saldo consolidado de todas as contas de um usuário")
+public record ResumoSaldoUsuarioResponseDTO(
+
+        @Schema(description = "ID do usuário", example = "10")
+        Long usuarioId,
+
+        @Schema(description = "Soma dos saldos de todas as contas do usuário", example = "4000.75")
+        Dinheiro saldoTotal,
+
+        @Schema(description = "Quantidade de contas do usuário", example = "3")
+        Integer quantidadeContas,
+
+        @Schema(description = "Saldo por tipo de conta, em ordem de tipo; tipos sem contas não aparecem")
+        List<SaldoPorTipoContaDTO> porTipo
+) {
+}
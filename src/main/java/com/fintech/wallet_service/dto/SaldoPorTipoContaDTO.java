@@ -0,0 +1,18 @@
+package com.fintech.wallet_service.dto;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "SaldoPorTipoConta", description = "Saldo somado das contas de um tipo")
+public record SaldoPorTipoContaDTO(
+
+        @Schema(description = "Tipo da conta", example = "CORRENTE")
+        String tipo,
+
+        @Schema(description = "Soma dos saldos das contas deste tipo", example = "1500.75")
+        Dinheiro saldo,
+
+        @Schema(description = "Quantidade de contas deste tipo", example = "2")
+        Integer quantidadeContas
+) {
+}
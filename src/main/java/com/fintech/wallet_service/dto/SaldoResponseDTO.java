@@ -1,8 +1,8 @@
 package com.fintech.wallet_service.dto;
 
+import com.fintech.wallet_service.entity.Dinheiro;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Schema(name = "SaldoResponse", description = "Dados de retorno da consulta de saldo")
@@ -15,7 +15,7 @@ public record SaldoResponseDTO(
         String numeroConta,
 
         @Schema(description = "Saldo atual da conta", example = "2500.00")
-        BigDecimal saldo,
+        Dinheiro saldo,
 
         @Schema(description = "Tipo da conta", example = "CORRENTE")
         String tipo,
@@ -0,0 +1,8 @@
+package com.fintech.wallet_service.dto;
+
+public enum StatusItemLote {
+
+    PROCESSADO,
+    CONTA_NAO_ENCONTRADA,
+    SALDO_INSUFICIENTE
+}
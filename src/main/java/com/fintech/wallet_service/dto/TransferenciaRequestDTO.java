@@ -0,0 +1,24 @@
+package com.fintech.wallet_service.dto;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@Schema(name = "TransferenciaRequest", description = "Dados para transferência de valor entre duas contas")
+public record TransferenciaRequestDTO(
+
+        @NotNull(message = "A conta de origem é obrigatória")
+        @Schema(description = "ID da conta debitada", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+        Long contaOrigemId,
+
+        @NotNull(message = "A conta de destino é obrigatória")
+        @Schema(description = "ID da conta creditada", example = "2", requiredMode = Schema.RequiredMode.REQUIRED)
+        Long contaDestinoId,
+
+        @NotNull(message = "O valor da transferência é obrigatório")
+        @Positive(message = "Valor da transferência tem que ser maior que ZERO")
+        @Schema(description = "Valor transferido", example = "100.00", requiredMode = Schema.RequiredMode.REQUIRED)
+        Dinheiro valor
+) {
+}
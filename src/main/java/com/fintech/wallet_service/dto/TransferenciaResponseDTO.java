@@ -0,0 +1,26 @@
+package com.fintech.wallet_service.dto;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+@Schema(name = "TransferenciaResponse", description = "Resultado de uma transferência entre contas")
+public record TransferenciaResponseDTO(
+
+        @Schema(description = "ID da conta debitada", example = "1")
+        Long contaOrigemId,
+
+        @Schema(description = "ID da conta creditada", example = "2")
+        Long contaDestinoId,
+
+        @Schema(description = "Valor transferido", example = "100.00")
+        Dinheiro valor,
+
+        @Schema(description = "Saldo da conta de origem após a transferência", example = "400.00")
+        Dinheiro saldoOrigem,
+
+        @Schema(description = "Data e hora da transferência", example = "2025-01-15T16:45:00-03:00")
+        OffsetDateTime dataTransferencia
+) {
+}
@@ -7,7 +7,6 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
@@ -18,7 +17,8 @@ import java.time.OffsetDateTime;
 public class Conta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contas_id_seq")
+    @SequenceGenerator(name = "contas_id_seq", sequenceName = "contas_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "usuario_id")
@@ -26,7 +26,7 @@ public class Conta {
 
     @Column(name = "numero_conta")
     private String numeroConta;
-    private BigDecimal saldo;
+    private Dinheiro saldo;
 
     @Enumerated(EnumType.STRING)
     private TipoConta tipo;
@@ -41,6 +41,16 @@ public class Conta {
 
     private Boolean ativa;
 
+    @Column(name = "slots_saldo")
+    private Integer slotsSaldo = 0;
+
+    /**
+     * Conferida no UPDATE gerado pelo Hibernate; os UPDATEs nativos de saldo também a incrementam,
+     * para que uma escrita atômica invalide uma leitura feita no modo otimista.
+     */
+    @Version
+    private Long versao;
+
     public Long getId() {
         return id;
     }
@@ -61,11 +71,11 @@ public class Conta {
         this.numeroConta = numeroConta;
     }
 
-    public BigDecimal getSaldo() {
+    public Dinheiro getSaldo() {
         return saldo;
     }
 
-    public void setSaldo(BigDecimal saldo) {
+    public void setSaldo(Dinheiro saldo) {
         this.saldo = saldo;
     }
 
@@ -100,4 +110,20 @@ public class Conta {
     public void setAtiva(Boolean ativa) {
         this.ativa = ativa;
     }
+
+    public Integer getSlotsSaldo() {
+        return slotsSaldo;
+    }
+
+    public void setSlotsSaldo(Integer slotsSaldo) {
+        this.slotsSaldo = slotsSaldo;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public boolean isModoQuente() {
+        return slotsSaldo != null && slotsSaldo > 0;
+    }
 }
@@ -0,0 +1,55 @@
+package com.fintech.wallet_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Fração do saldo de uma conta em modo quente. O saldo da conta passa a ser
+ * {@code contas.saldo} somado ao saldo de todos os seus slots.
+ */
+@Entity
+@Table(name = "conta_saldo_slots")
+@IdClass(ContaSaldoSlot.Chave.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"contaId", "slot"})
+public class ContaSaldoSlot {
+
+    @Id
+    @Column(name = "conta_id")
+    private Long contaId;
+
+    @Id
+    private Integer slot;
+
+    private Dinheiro saldo;
+
+    public Long getContaId() {
+        return contaId;
+    }
+
+    public Integer getSlot() {
+        return slot;
+    }
+
+    public Dinheiro getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(Dinheiro saldo) {
+        this.saldo = saldo;
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+
+        private Long contaId;
+        private Integer slot;
+    }
+}
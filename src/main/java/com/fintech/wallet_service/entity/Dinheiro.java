@@ -0,0 +1,146 @@
+package com.fintech.wallet_service.entity;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fintech.wallet_service.config.jackson.DinheiroJsonDeserializer;
+import com.fintech.wallet_service.config.jackson.DinheiroJsonSerializer;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantia em reais guardada como um {@code long} de centavos, a mesma escala de
+ * {@code NUMERIC(15,2)}. A aritmética é exata e lança {@link ArithmeticException} em vez de
+ * transbordar; converter um valor com mais de duas casas decimais também lança, em vez de arredondar.
+ * Em JSON é escrito como o número decimal de sempre, com duas casas.
+ */
+@JsonSerialize(using = DinheiroJsonSerializer.class)
+@JsonDeserialize(using = DinheiroJsonDeserializer.class)
+public final class Dinheiro implements Comparable<Dinheiro> {
+
+    public static final Dinheiro ZERO = new Dinheiro(0);
+
+    private static final int CASAS_DECIMAIS = 2;
+    private static final long CENTAVOS_POR_REAL = 100;
+
+    private final long centavos;
+
+    private Dinheiro(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Dinheiro deCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+
+    public static Dinheiro de(BigDecimal valor) {
+        return deCentavos(valor.movePointRight(CASAS_DECIMAIS).longValueExact());
+    }
+
+    /**
+     * Lê um decimal como {@code -12.34}, com no máximo duas casas, sem passar por {@link BigDecimal}.
+     * Notação científica é delegada a ele.
+     */
+    public static Dinheiro parse(CharSequence texto) {
+        int tamanho = texto.length();
+        int posicao = 0;
+        boolean negativo = false;
+        if (tamanho > 0 && (texto.charAt(0) == '-' || texto.charAt(0) == '+')) {
+            negativo = texto.charAt(0) == '-';
+            posicao++;
+        }
+        if (posicao == tamanho) {
+            throw new NumberFormatException("Valor monetário inválido: " + texto);
+        }
+
+        long centavos = 0;
+        int casas = -1;
+        int digitos = 0;
+        for (; posicao < tamanho; posicao++) {
+            char caractere = texto.charAt(posicao);
+            if (caractere == '.' && casas < 0) {
+                casas = 0;
+            } else if (caractere >= '0' && caractere <= '9') {
+                if (casas == CASAS_DECIMAIS) {
+                    return de(new BigDecimal(texto.toString()));
+                }
+                centavos = Math.addExact(Math.multiplyExact(centavos, 10), caractere - '0');
+                digitos++;
+                if (casas >= 0) {
+                    casas++;
+                }
+            } else if (caractere == 'e' || caractere == 'E') {
+                return de(new BigDecimal(texto.toString()));
+            } else {
+                throw new NumberFormatException("Valor monetário inválido: " + texto);
+            }
+        }
+        if (digitos == 0) {
+            throw new NumberFormatException("Valor monetário inválido: " + texto);
+        }
+        for (int casa = Math.max(casas, 0); casa < CASAS_DECIMAIS; casa++) {
+            centavos = Math.multiplyExact(centavos, 10);
+        }
+        return deCentavos(negativo ? -centavos : centavos);
+    }
+
+    public long centavos() {
+        return centavos;
+    }
+
+    public Dinheiro somar(Dinheiro outro) {
+        return deCentavos(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro subtrair(Dinheiro outro) {
+        return deCentavos(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro negar() {
+        return deCentavos(Math.negateExact(centavos));
+    }
+
+    public Dinheiro abs() {
+        return centavos < 0 ? negar() : this;
+    }
+
+    public Dinheiro min(Dinheiro outro) {
+        return centavos <= outro.centavos ? this : outro;
+    }
+
+    public int signum() {
+        return Long.signum(centavos);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, CASAS_DECIMAIS);
+    }
+
+    public double doubleValue() {
+        return (double) centavos / CENTAVOS_POR_REAL;
+    }
+
+    @Override
+    public int compareTo(Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof Dinheiro dinheiro && dinheiro.centavos == centavos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    /**
+     * Sempre com duas casas, como o {@code toPlainString} de um {@code NUMERIC(15,2)}.
+     */
+    @Override
+    public String toString() {
+        long reais = Math.abs(centavos / CENTAVOS_POR_REAL);
+        long resto = Math.abs(centavos % CENTAVOS_POR_REAL);
+        return (centavos < 0 ? "-" : "") + reais + (resto < 10 ? ".0" : ".") + resto;
+    }
+}
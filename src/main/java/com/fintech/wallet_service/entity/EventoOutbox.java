@@ -0,0 +1,18 @@
+package com.fintech.wallet_service.entity;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento lido do outbox para publicação. O id cresce na ordem em que os eventos de uma mesma conta
+ * foram gravados e serve ao destino para descartar repetidos.
+ */
+public record EventoOutbox(
+        Long id,
+        Long contaId,
+        TipoEventoConta tipo,
+        @JsonRawValue String payload,
+        OffsetDateTime dataCriacao
+) {
+}
@@ -0,0 +1,12 @@
+package com.fintech.wallet_service.entity;
+
+/**
+ * Lançamento do livro de movimentações. O valor é assinado: positivo para créditos e negativo para débitos.
+ * Os lançamentos são apenas inseridos, nunca atualizados.
+ */
+public record Movimentacao(
+        Long contaId,
+        TipoMovimentacao tipo,
+        Dinheiro valor
+) {
+}
@@ -0,0 +1,6 @@
+package com.fintech.wallet_service.entity;
+
+public enum TipoEventoConta {
+    CONTA_CRIADA,
+    SALDO_ALTERADO
+}
@@ -0,0 +1,9 @@
+package com.fintech.wallet_service.entity;
+
+public enum TipoMovimentacao {
+
+    DEPOSITO,
+    SAQUE,
+    TRANSFERENCIA_ENVIADA,
+    TRANSFERENCIA_RECEBIDA
+}
@@ -0,0 +1,8 @@
+package com.fintech.wallet_service.exception;
+
+public class RequisicaoIdempotenteConflitanteException extends RuntimeException {
+
+    public RequisicaoIdempotenteConflitanteException(String chave) {
+        super("A chave de idempotência '" + chave + "' já foi usada em uma requisição diferente");
+    }
+}
@@ -0,0 +1,8 @@
+package com.fintech.wallet_service.exception;
+
+public class SaldoInsuficienteException extends RuntimeException {
+
+    public SaldoInsuficienteException(Long id) {
+        super("Saldo insuficiente na conta com o ID: " + id);
+    }
+}
@@ -0,0 +1,8 @@
+package com.fintech.wallet_service.exception;
+
+public class UsuarioServiceIndisponivelException extends RuntimeException {
+
+    public UsuarioServiceIndisponivelException(Throwable causa) {
+        super("O serviço de usuários está indisponível: " + causa.getMessage(), causa);
+    }
+}
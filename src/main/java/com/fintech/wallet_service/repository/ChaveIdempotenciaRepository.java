@@ -0,0 +1,70 @@
+package com.fintech.wallet_service.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public class ChaveIdempotenciaRepository {
+
+    /**
+     * Insere a chave do usuário ou reaproveita uma chave já expirada que ainda não foi removida pela limpeza.
+     * Uma requisição concorrente com a mesma chave fica bloqueada no índice único até a primeira
+     * transação terminar.
+     */
+    private static final String RESERVAR = """
+            INSERT INTO chaves_idempotencia (principal, chave, requisicao, expira_em)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (principal, chave) DO UPDATE
+               SET requisicao = EXCLUDED.requisicao,
+                   resposta = NULL,
+                   data_criacao = CURRENT_TIMESTAMP,
+                   expira_em = EXCLUDED.expira_em
+             WHERE chaves_idempotencia.expira_em < CURRENT_TIMESTAMP
+            """;
+
+    private static final String REMOVER_EXPIRADAS = """
+            DELETE FROM chaves_idempotencia
+             WHERE (principal, chave) IN (SELECT principal, chave
+                                            FROM chaves_idempotencia
+                                           WHERE expira_em < CURRENT_TIMESTAMP
+                                           LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChaveIdempotenciaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean reservar(String principal, String chave, String requisicao, Instant expiraEm) {
+        return jdbcTemplate.update(RESERVAR, principal, chave, requisicao, Timestamp.from(expiraEm)) == 1;
+    }
+
+    public Optional<Registro> buscar(String principal, String chave) {
+        return jdbcTemplate.query(
+                "SELECT requisicao, resposta FROM chaves_idempotencia WHERE principal = ? AND chave = ?",
+                (rs, rowNum) -> new Registro(rs.getString("requisicao"), rs.getString("resposta")), principal, chave)
+                .stream()
+                .findFirst();
+    }
+
+    public void gravarResposta(String principal, String chave, String resposta) {
+        jdbcTemplate.update("UPDATE chaves_idempotencia SET resposta = ? WHERE principal = ? AND chave = ?",
+                resposta, principal, chave);
+    }
+
+    public void liberar(String principal, String chave) {
+        jdbcTemplate.update("DELETE FROM chaves_idempotencia WHERE principal = ? AND chave = ?", principal, chave);
+    }
+
+    public int removerExpiradas(int limite) {
+        return jdbcTemplate.update(REMOVER_EXPIRADAS, limite);
+    }
+
+    public record Registro(String requisicao, String resposta) {
+    }
+}
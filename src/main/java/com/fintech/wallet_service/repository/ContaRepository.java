@@ -1,13 +1,96 @@
 package com.fintech.wallet_service.repository;
 
+import com.fintech.wallet_service.dto.ContaResumoResponseDTO;
 import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ContaRepository extends JpaRepository<Conta, Long> {
+public interface ContaRepository extends JpaRepository<Conta, Long>, ContaRepositoryCustom {
 
     List<Conta> findAllContaByUsuarioId(Long usuarioId);
+
+    /**
+     * Página de contas do usuário com id maior que o cursor, projetada direto no DTO: não carrega
+     * entidades e é atendida pelo índice {@code idx_contas_usuario_id_id}. Roda somente leitura,
+     * podendo ser atendida por uma réplica.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.fintech.wallet_service.dto.ContaResumoResponseDTO(c.id, c.usuarioId, c.numeroConta, str(c.tipo))
+              FROM Conta c
+             WHERE c.usuarioId = :usuarioId AND c.id > :cursor
+             ORDER BY c.id
+            """)
+    List<ContaResumoResponseDTO> listarResumoPorUsuario(@Param("usuarioId") Long usuarioId, @Param("cursor") Long cursor,
+                                                        Limit limite);
+
+    @Query("""
+            SELECT new com.fintech.wallet_service.dto.ContaResumoResponseDTO(c.id, c.usuarioId, c.numeroConta, str(c.tipo))
+              FROM Conta c
+             WHERE c.id IN :ids
+            """)
+    List<ContaResumoResponseDTO> buscarResumos(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Aplica o delta diretamente no banco em um único UPDATE condicional.
+     * O guarda de saldo insuficiente fica no WHERE, então nenhuma linha é
+     * retornada quando a conta não existe, quando o saque deixaria o saldo negativo
+     * ou quando a conta está em modo quente.
+     */
+    default Optional<Conta> aplicarMovimentacao(Long id, Dinheiro delta) {
+        return aplicarMovimentacaoEmCentavos(id, delta.centavos());
+    }
+
+    /**
+     * O delta vai em centavos, como {@code bigint}, e é convertido para reais no próprio SQL.
+     */
+    @Query(value = """
+            UPDATE contas
+               SET saldo = saldo + :deltaCentavos * 0.01,
+                   data_atualizacao = CURRENT_TIMESTAMP,
+                   versao = versao + 1
+             WHERE id = :id
+               AND slots_saldo = 0
+               AND saldo + :deltaCentavos * 0.01 >= 0
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Conta> aplicarMovimentacaoEmCentavos(@Param("id") Long id, @Param("deltaCentavos") long deltaCentavos);
+
+    @Query("select c.slotsSaldo from Conta c where c.id = :id")
+    Optional<Integer> buscarSlotsSaldo(@Param("id") Long id);
+
+    /**
+     * Os bloqueios de {@code contas} usam FOR NO KEY UPDATE, o mesmo de um UPDATE de saldo, para não
+     * conflitarem com o FOR KEY SHARE tomado pelas chaves estrangeiras que apontam para a conta.
+     */
+    @Query(value = "SELECT slots_saldo FROM contas WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Integer> bloquearSlotsSaldo(@Param("id") Long id);
+
+    @Query(value = "SELECT * FROM contas WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Conta> buscarParaAtualizacao(@Param("id") Long id);
+
+    /**
+     * Saldo da conta somado ao de todos os seus slots, lido em uma única instrução
+     * para que uma troca de modo concorrente não conte o mesmo valor duas vezes.
+     */
+    default Dinheiro somarSaldoTotal(Long id) {
+        return Dinheiro.deCentavos(somarSaldoTotalEmCentavos(id));
+    }
+
+    @Query(value = """
+            SELECT CAST((c.saldo + COALESCE((SELECT SUM(s.saldo) FROM conta_saldo_slots s WHERE s.conta_id = c.id), 0)) * 100 AS BIGINT)
+              FROM contas c
+             WHERE c.id = :id
+            """, nativeQuery = true)
+    long somarSaldoTotalEmCentavos(@Param("id") Long id);
 }
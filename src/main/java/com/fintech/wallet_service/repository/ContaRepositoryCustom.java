@@ -0,0 +1,36 @@
+package com.fintech.wallet_service.repository;
+
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.FiltroExportacaoContas;
+import com.fintech.wallet_service.dto.SaldoResponseDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.Movimentacao;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+public interface ContaRepositoryCustom {
+
+    /**
+     * Aplica os deltas em um único lote JDBC, na ordem recebida e com o mesmo guarda de
+     * {@link ContaRepository#aplicarMovimentacao}. Devolve, para cada item, a quantidade de linhas
+     * atualizadas: 0 indica conta inexistente, em modo quente ou sem saldo suficiente.
+     */
+    int[] aplicarMovimentacoesEmLote(List<Movimentacao> movimentacoes);
+
+    /**
+     * Soma a cada conta o seu valor com duas instruções, qualquer que seja a quantidade de contas: as
+     * linhas são bloqueadas em ordem de id e atualizadas por um único UPDATE, com o mesmo guarda de
+     * {@link ContaRepository#aplicarMovimentacao}. Devolve o saldo das contas atualizadas; as que
+     * ficaram de fora estão em modo quente, não existem ou ficariam negativas.
+     */
+    List<SaldoResponseDTO> aplicarSomas(SortedMap<Long, Dinheiro> somasPorConta);
+
+    /**
+     * Entrega ao consumidor, uma a uma, as contas que atendem ao filtro, com o saldo total já somado
+     * aos slots. As linhas são lidas por cursor no servidor, {@code tamanhoLote} por vez, sem ordem
+     * definida; precisa rodar dentro de uma transação, senão o driver carrega o resultado inteiro.
+     */
+    void percorrer(FiltroExportacaoContas filtro, int tamanhoLote, Consumer<ContaResponseDTO> consumidor);
+}
@@ -0,0 +1,135 @@
+package com.fintech.wallet_service.repository;
+
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.FiltroExportacaoContas;
+import com.fintech.wallet_service.dto.SaldoResponseDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.Movimentacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+class ContaRepositoryCustomImpl implements ContaRepositoryCustom {
+
+    private static final String APLICAR_MOVIMENTACAO = """
+            UPDATE contas
+               SET saldo = saldo + ? * 0.01,
+                   data_atualizacao = CURRENT_TIMESTAMP,
+                   versao = versao + 1
+             WHERE id = ?
+               AND slots_saldo = 0
+               AND saldo + ? * 0.01 >= 0
+            """;
+
+    private static final String BLOQUEAR_EM_ORDEM = """
+            SELECT id FROM contas WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE
+            """;
+
+    private static final String APLICAR_SOMAS = """
+            UPDATE contas c
+               SET saldo = c.saldo + d.centavos * 0.01,
+                   data_atualizacao = CURRENT_TIMESTAMP,
+                   versao = c.versao + 1
+              FROM unnest(?::bigint[], ?::bigint[]) AS d(id, centavos)
+             WHERE c.id = d.id
+               AND c.slots_saldo = 0
+               AND c.saldo + d.centavos * 0.01 >= 0
+            RETURNING c.id, c.numero_conta, c.saldo, c.tipo
+            """;
+
+    private static final String PERCORRER = """
+            SELECT c.id, c.usuario_id, c.numero_conta, c.tipo, c.data_criacao, c.data_atualizacao, c.ativa, c.slots_saldo,
+                   CASE WHEN c.slots_saldo > 0
+                        THEN c.saldo + (SELECT COALESCE(SUM(s.saldo), 0) FROM conta_saldo_slots s WHERE s.conta_id = c.id)
+                        ELSE c.saldo
+                   END AS saldo_total
+              FROM contas c
+             WHERE TRUE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ContaRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] aplicarMovimentacoesEmLote(List<Movimentacao> movimentacoes) {
+        int[][] resultado = jdbcTemplate.batchUpdate(APLICAR_MOVIMENTACAO, movimentacoes, movimentacoes.size(),
+                (ps, movimentacao) -> {
+                    ps.setLong(1, movimentacao.valor().centavos());
+                    ps.setLong(2, movimentacao.contaId());
+                    ps.setLong(3, movimentacao.valor().centavos());
+                });
+        return resultado.length == 0 ? new int[0] : resultado[0];
+    }
+
+    /**
+     * O UPDATE com FROM trava as linhas na ordem do plano de junção, por isso o SELECT anterior as
+     * bloqueia em ordem de id, a mesma das transferências e dos lotes.
+     */
+    @Override
+    public List<SaldoResponseDTO> aplicarSomas(SortedMap<Long, Dinheiro> somasPorConta) {
+        Long[] ids = somasPorConta.keySet().toArray(Long[]::new);
+        Long[] centavos = somasPorConta.values().stream().map(Dinheiro::centavos).toArray(Long[]::new);
+
+        jdbcTemplate.query(BLOQUEAR_EM_ORDEM, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                (RowCallbackHandler) rs -> { });
+        OffsetDateTime agora = OffsetDateTime.now();
+        return jdbcTemplate.query(APLICAR_SOMAS, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", centavos));
+        }, (rs, rowNum) -> new SaldoResponseDTO(
+                rs.getLong("id"),
+                rs.getString("numero_conta"),
+                Dinheiro.de(rs.getBigDecimal("saldo")),
+                rs.getString("tipo"),
+                agora));
+    }
+
+    /**
+     * Sem ORDER BY, o Postgres pode entregar as linhas conforme varre a tabela, sem ordenar tudo antes.
+     */
+    @Override
+    public void percorrer(FiltroExportacaoContas filtro, int tamanhoLote, Consumer<ContaResponseDTO> consumidor) {
+        StringBuilder sql = new StringBuilder(PERCORRER);
+        List<Object> parametros = new ArrayList<>();
+        if (filtro.tipo() != null) {
+            sql.append(" AND c.tipo = ?");
+            parametros.add(filtro.tipo().name());
+        }
+        if (filtro.ativa() != null) {
+            sql.append(" AND c.ativa = ?");
+            parametros.add(filtro.ativa());
+        }
+        if (filtro.atualizadaApos() != null) {
+            // As datas são gravadas sem fuso, no fuso da sessão, que o driver iguala ao da JVM
+            sql.append(" AND c.data_atualizacao > ?");
+            parametros.add(filtro.atualizadaApos().atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+        }
+
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(tamanhoLote);
+        cursor.query(sql.toString(), (RowCallbackHandler) rs -> consumidor.accept(new ContaResponseDTO(
+                rs.getLong("id"),
+                rs.getLong("usuario_id"),
+                rs.getString("numero_conta"),
+                Dinheiro.de(rs.getBigDecimal("saldo_total")),
+                rs.getString("tipo"),
+                comFuso(rs.getObject("data_criacao", LocalDateTime.class)),
+                comFuso(rs.getObject("data_atualizacao", LocalDateTime.class)),
+                rs.getBoolean("ativa"),
+                rs.getInt("slots_saldo"))), parametros.toArray());
+    }
+
+    private static OffsetDateTime comFuso(LocalDateTime data) {
+        return data.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
@@ -0,0 +1,48 @@
+package com.fintech.wallet_service.repository;
+
+import com.fintech.wallet_service.entity.ContaSaldoSlot;
+import com.fintech.wallet_service.entity.Dinheiro;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContaSaldoSlotRepository extends JpaRepository<ContaSaldoSlot, ContaSaldoSlot.Chave> {
+
+    default int creditar(Long contaId, int slot, Dinheiro valor) {
+        return creditarEmCentavos(contaId, slot, valor.centavos());
+    }
+
+    @Modifying
+    @Query(value = "UPDATE conta_saldo_slots SET saldo = saldo + :centavos * 0.01 WHERE conta_id = :contaId AND slot = :slot",
+            nativeQuery = true)
+    int creditarEmCentavos(@Param("contaId") Long contaId, @Param("slot") int slot, @Param("centavos") long centavos);
+
+    /**
+     * Bloqueia todos os slots da conta sempre na mesma ordem, evitando deadlock entre saques concorrentes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ContaSaldoSlot s where s.contaId = :contaId order by s.slot")
+    List<ContaSaldoSlot> buscarParaAtualizacao(@Param("contaId") Long contaId);
+
+    /**
+     * Remove os slots da conta e devolve a soma dos saldos removidos.
+     */
+    default Dinheiro removerTodos(Long contaId) {
+        return Dinheiro.deCentavos(removerTodosEmCentavos(contaId));
+    }
+
+    @Query(value = """
+            WITH removidos AS (
+                DELETE FROM conta_saldo_slots WHERE conta_id = :contaId RETURNING saldo
+            )
+            SELECT CAST(COALESCE(SUM(saldo), 0) * 100 AS BIGINT) FROM removidos
+            """, nativeQuery = true)
+    long removerTodosEmCentavos(@Param("contaId") Long contaId);
+}
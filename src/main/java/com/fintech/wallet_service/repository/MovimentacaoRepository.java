@@ -0,0 +1,234 @@
+package com.fintech.wallet_service.repository;
+
+import com.fintech.wallet_service.dto.CursorExtrato;
+import com.fintech.wallet_service.dto.ItemExtratoDTO;
+import com.fintech.wallet_service.entity.Movimentacao;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Acesso ao livro de movimentações via JDBC. O livro é somente de inserção, então não há entidade
+ * gerenciada: os lançamentos são gravados em lote e os saldos apurados direto no banco.
+ */
+@Repository
+@Timed("carteira.repositorio")
+public class MovimentacaoRepository {
+
+    // Chave do advisory lock que impede duas instâncias de consolidarem ao mesmo tempo
+    private static final int BLOQUEIO_CONSOLIDACAO = 3_001;
+
+    private static final String INSERIR = "INSERT INTO movimentacoes (conta_id, tipo, valor) VALUES (?, ?, ? * 0.01)";
+
+    private static final String CONSOLIDAR = """
+            WITH alteradas AS (
+                SELECT DISTINCT conta_id
+                  FROM movimentacoes
+                 WHERE data_movimentacao >= ? AND data_movimentacao < ?
+            ),
+            novas AS (
+                SELECT m.conta_id, m.id, m.data_movimentacao, m.valor, u.saldo AS saldo_anterior
+                  FROM alteradas a
+                  LEFT JOIN saldo_checkpoints u ON u.conta_id = a.conta_id
+                  JOIN movimentacoes m ON m.conta_id = a.conta_id
+                 WHERE m.data_movimentacao < ?
+                   AND (u.conta_id IS NULL
+                        OR (m.data_movimentacao >= u.data_movimentacao
+                            AND (m.data_movimentacao, m.id) > (u.data_movimentacao, u.movimentacao_id)))
+            )
+            INSERT INTO saldo_checkpoints (conta_id, data_movimentacao, movimentacao_id, saldo)
+            SELECT conta_id,
+                   (array_agg(data_movimentacao ORDER BY data_movimentacao DESC, id DESC))[1],
+                   (array_agg(id ORDER BY data_movimentacao DESC, id DESC))[1],
+                   COALESCE(saldo_anterior, 0) + SUM(valor)
+              FROM novas
+             GROUP BY conta_id, saldo_anterior
+            ON CONFLICT (conta_id) DO UPDATE
+               SET data_movimentacao = EXCLUDED.data_movimentacao,
+                   movimentacao_id = EXCLUDED.movimentacao_id,
+                   saldo = EXCLUDED.saldo,
+                   data_atualizacao = CURRENT_TIMESTAMP
+            RETURNING conta_id
+            """;
+
+    /**
+     * Início da transação de escrita mais antiga ainda aberta no banco (com xid atribuído, inclusive as
+     * preparadas), ou o instante atual se não houver nenhuma. Um lançamento ainda não confirmado tem
+     * data_movimentacao (clock_timestamp) posterior ao início da sua transação, então tudo o que fica
+     * antes desse instante já foi confirmado ou desfeito. Transações que ainda não escreveram nada
+     * só gravarão lançamentos com data posterior a esta consulta.
+     */
+    private static final String LIMITE_CONSOLIDACAO = """
+            SELECT LEAST(
+                       (SELECT MIN(xact_start)
+                          FROM pg_stat_activity
+                         WHERE datname = current_database()
+                           AND backend_xid IS NOT NULL
+                           AND pid <> pg_backend_pid()),
+                       (SELECT MIN(prepared) FROM pg_prepared_xacts WHERE database = current_database()),
+                       clock_timestamp())
+            """;
+
+    private static final String SALDO_APURADO = """
+            SELECT COALESCE(cp.saldo, 0) + COALESCE((
+                       SELECT SUM(m.valor)
+                         FROM movimentacoes m
+                        WHERE m.conta_id = ?
+                          AND (cp.conta_id IS NULL
+                               OR (m.data_movimentacao >= cp.data_movimentacao
+                                   AND (m.data_movimentacao, m.id) > (cp.data_movimentacao, cp.movimentacao_id)))
+                   ), 0)
+              FROM (SELECT 1) base
+              LEFT JOIN saldo_checkpoints cp ON cp.conta_id = ?
+            """;
+
+    private static final String DIVERGENCIAS = """
+            SELECT c.id
+              FROM contas c
+              JOIN saldo_checkpoints cp ON cp.conta_id = c.id
+             WHERE c.id = ANY (?)
+               AND c.saldo + COALESCE((SELECT SUM(s.saldo) FROM conta_saldo_slots s WHERE s.conta_id = c.id), 0)
+                   <> cp.saldo + COALESCE((
+                       SELECT SUM(m.valor)
+                         FROM movimentacoes m
+                        WHERE m.conta_id = c.id
+                          AND m.data_movimentacao >= cp.data_movimentacao
+                          AND (m.data_movimentacao, m.id) > (cp.data_movimentacao, cp.movimentacao_id)
+                   ), 0)
+            """;
+
+    // Saldo na posição do cursor, a partir do checkpoint da conta: somam-se os lançamentos entre o
+    // checkpoint e o cursor quando ele vem antes, e subtraem-se os entre o cursor e o checkpoint quando
+    // ele vem depois. O saldo é então somado aos lançamentos da página em ordem. As condições sobre
+    // data_movimentacao, redundantes com as comparações por (data, id), permitem ao planejador
+    // descartar as partições fora do intervalo.
+    private static final String EXTRATO = """
+            WITH anterior AS (
+                SELECT COALESCE(cp.saldo, 0) + COALESCE((
+                           SELECT SUM(m.valor)
+                             FROM movimentacoes m
+                            WHERE m.conta_id = :conta
+                              AND m.data_movimentacao <= :posicaoData
+                              AND (m.data_movimentacao, m.id) <= (:posicaoData, :posicaoId)
+                              AND (cp.conta_id IS NULL
+                                   OR (m.data_movimentacao >= cp.data_movimentacao
+                                       AND (m.data_movimentacao, m.id) > (cp.data_movimentacao, cp.movimentacao_id)))
+                       ), 0) - COALESCE((
+                           SELECT SUM(m.valor)
+                             FROM movimentacoes m
+                            WHERE m.conta_id = :conta
+                              AND m.data_movimentacao >= :posicaoData
+                              AND (m.data_movimentacao, m.id) > (:posicaoData, :posicaoId)
+                              AND m.data_movimentacao <= cp.data_movimentacao
+                              AND (m.data_movimentacao, m.id) <= (cp.data_movimentacao, cp.movimentacao_id)
+                       ), 0) AS saldo
+                  FROM (SELECT 1) base
+                  LEFT JOIN saldo_checkpoints cp ON cp.conta_id = :conta
+            )
+            SELECT m.id, m.tipo, m.valor, m.data_movimentacao,
+                   anterior.saldo + SUM(m.valor) OVER (ORDER BY m.data_movimentacao, m.id) AS saldo_apos
+              FROM movimentacoes m, anterior
+             WHERE m.conta_id = :conta
+               AND m.data_movimentacao >= :de
+               AND m.data_movimentacao < :ate
+               AND m.data_movimentacao >= :posicaoData
+               AND (m.data_movimentacao, m.id) > (:posicaoData, :posicaoId)
+             ORDER BY m.data_movimentacao, m.id
+             LIMIT :limite
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public MovimentacaoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public void inserir(List<Movimentacao> movimentacoes) {
+        if (movimentacoes.size() == 1) {
+            Movimentacao movimentacao = movimentacoes.get(0);
+            jdbcTemplate.update(INSERIR, movimentacao.contaId(), movimentacao.tipo().name(), movimentacao.valor().centavos());
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERIR, movimentacoes, movimentacoes.size(), (ps, movimentacao) -> {
+            ps.setLong(1, movimentacao.contaId());
+            ps.setString(2, movimentacao.tipo().name());
+            ps.setLong(3, movimentacao.valor().centavos());
+        });
+    }
+
+    /**
+     * Avança o checkpoint de cada conta com lançamentos no intervalo, somando ao checkpoint atual da
+     * conta todos os lançamentos posteriores a ele e anteriores a {@code ate}. Devolve os IDs das
+     * contas consolidadas.
+     */
+    public List<Long> consolidar(Instant desde, Instant ate) {
+        Timestamp limite = Timestamp.from(ate);
+        return jdbcTemplate.queryForList(CONSOLIDAR, Long.class, Timestamp.from(desde), limite, limite);
+    }
+
+    public Instant buscarLimiteConsolidacao() {
+        return jdbcTemplate.queryForObject(LIMITE_CONSOLIDACAO, Timestamp.class).toInstant();
+    }
+
+    /**
+     * Trava a consolidação para a transação atual, sem esperar. Falso quando outra instância já está
+     * consolidando.
+     */
+    public boolean bloquearConsolidacao() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, 0)", Boolean.class,
+                BLOQUEIO_CONSOLIDACAO));
+    }
+
+    /**
+     * Saldo segundo o livro: checkpoint da conta mais os lançamentos posteriores a ele.
+     */
+    public BigDecimal saldoApurado(Long contaId) {
+        return jdbcTemplate.queryForObject(SALDO_APURADO, BigDecimal.class, contaId, contaId);
+    }
+
+    /**
+     * Entre as contas informadas, devolve as que têm saldo diferente do apurado pelo livro.
+     */
+    public List<Long> buscarDivergencias(List<Long> contaIds) {
+        return jdbcTemplate.query(DIVERGENCIAS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", contaIds.toArray())),
+                (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Lançamentos da conta em [{@code de}, {@code ate}) posteriores a {@code posicao}, em ordem de
+     * (data, id), cada um com o saldo da conta logo após ele.
+     */
+    public List<ItemExtratoDTO> buscarExtrato(Long contaId, OffsetDateTime de, OffsetDateTime ate,
+                                              CursorExtrato posicao, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("conta", contaId)
+                .addValue("de", de)
+                .addValue("ate", ate)
+                .addValue("posicaoData", posicao.dataMovimentacao().atOffset(ZoneOffset.UTC))
+                .addValue("posicaoId", posicao.id())
+                .addValue("limite", limite);
+        return namedJdbcTemplate.query(EXTRATO, parametros, (rs, rowNum) -> new ItemExtratoDTO(
+                rs.getLong("id"),
+                rs.getString("tipo"),
+                rs.getBigDecimal("valor"),
+                rs.getObject("data_movimentacao", OffsetDateTime.class),
+                rs.getBigDecimal("saldo_apos")));
+    }
+
+    public Instant buscarUltimoCheckpoint() {
+        Timestamp ultimo = jdbcTemplate.queryForObject("SELECT MAX(data_movimentacao) FROM saldo_checkpoints", Timestamp.class);
+        return ultimo != null ? ultimo.toInstant() : Instant.EPOCH;
+    }
+}
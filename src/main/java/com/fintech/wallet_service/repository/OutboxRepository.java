@@ -0,0 +1,120 @@
+package com.fintech.wallet_service.repository;
+
+import com.fintech.wallet_service.entity.EventoOutbox;
+import com.fintech.wallet_service.entity.TipoEventoConta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERIR = """
+            INSERT INTO outbox_eventos (conta_id, particao, tipo, payload) VALUES (?, ?, ?, ?::jsonb)
+            """;
+
+    private static final String CONTAS_MODO_QUENTE = """
+            SELECT id FROM contas WHERE id = ANY(?) AND slots_saldo > 0
+            """;
+
+    /**
+     * A partição com eventos pendentes drenada há mais tempo, ainda não tomada por outro consumidor.
+     * O bloqueio dura até o fim da transação, e com ele a exclusividade sobre os eventos da partição.
+     */
+    private static final String RESERVAR_PARTICAO = """
+            SELECT p.particao
+              FROM outbox_particoes p
+             WHERE EXISTS (SELECT 1 FROM outbox_eventos e WHERE e.particao = p.particao)
+             ORDER BY p.ultima_drenagem NULLS FIRST
+             LIMIT 1
+               FOR UPDATE OF p SKIP LOCKED
+            """;
+
+    private static final String BUSCAR = """
+            SELECT id, conta_id, tipo, payload::text AS payload, data_criacao
+              FROM outbox_eventos
+             WHERE particao = ?
+             ORDER BY id
+             LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void inserir(List<Novo> eventos) {
+        if (eventos.size() == 1) {
+            Novo evento = eventos.get(0);
+            jdbcTemplate.update(INSERIR, evento.contaId(), evento.particao(), evento.tipo().name(), evento.payload());
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERIR, eventos, eventos.size(), (ps, evento) -> {
+            ps.setLong(1, evento.contaId());
+            ps.setInt(2, evento.particao());
+            ps.setString(3, evento.tipo().name());
+            ps.setString(4, evento.payload());
+        });
+    }
+
+    public Set<Long> buscarContasModoQuente(Collection<Long> contaIds) {
+        Long[] ids = contaIds.toArray(Long[]::new);
+        return new HashSet<>(jdbcTemplate.query(CONTAS_MODO_QUENTE,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                (rs, rowNum) -> rs.getLong("id")));
+    }
+
+    /**
+     * Garante uma linha em {@code outbox_particoes} para cada partição de 0 a {@code quantidade - 1}.
+     * Linhas de partições antigas não são removidas, então eventos gravados com outra quantidade
+     * continuam sendo drenados.
+     */
+    public void criarParticoes(int quantidade) {
+        jdbcTemplate.update("""
+                INSERT INTO outbox_particoes (particao)
+                SELECT generate_series(0, ? - 1)
+                ON CONFLICT (particao) DO NOTHING
+                """, quantidade);
+    }
+
+    public Optional<Integer> reservarParticao() {
+        return jdbcTemplate.queryForList(RESERVAR_PARTICAO, Integer.class).stream().findFirst();
+    }
+
+    public List<EventoOutbox> buscar(int particao, int limite) {
+        return jdbcTemplate.query(BUSCAR, (rs, rowNum) -> new EventoOutbox(
+                rs.getLong("id"),
+                rs.getLong("conta_id"),
+                TipoEventoConta.valueOf(rs.getString("tipo")),
+                rs.getString("payload"),
+                rs.getObject("data_criacao", OffsetDateTime.class)), particao, limite);
+    }
+
+    /**
+     * Remove os eventos publicados e registra a drenagem, que manda a partição para o fim da fila.
+     */
+    public void concluirDrenagem(int particao, List<EventoOutbox> publicados) {
+        Long[] ids = publicados.stream().map(EventoOutbox::id).toArray(Long[]::new);
+        jdbcTemplate.update("DELETE FROM outbox_eventos WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+        jdbcTemplate.update("UPDATE outbox_particoes SET ultima_drenagem = CURRENT_TIMESTAMP WHERE particao = ?", particao);
+    }
+
+    /**
+     * Data do evento pendente mais antigo, lida pelo índice da chave primária.
+     */
+    public Optional<OffsetDateTime> buscarMaisAntigo() {
+        return jdbcTemplate.query("SELECT data_criacao FROM outbox_eventos ORDER BY id LIMIT 1",
+                (rs, rowNum) -> rs.getObject("data_criacao", OffsetDateTime.class)).stream().findFirst();
+    }
+
+    public record Novo(Long contaId, int particao, TipoEventoConta tipo, String payload) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.fintech.wallet_service.repository;
+
+import com.fintech.wallet_service.dto.SaldoPorTipoContaDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class ResumoSaldoUsuarioRepository {
+
+    // O ORDER BY fixa a ordem em que as linhas do resumo são travadas
+    private static final String APLICAR = """
+            INSERT INTO resumo_saldo_usuarios AS r (usuario_id, tipo, slot, saldo, quantidade_contas)
+            SELECT c.usuario_id, c.tipo, ?, SUM(d.centavos) * 0.01, SUM(d.novas)
+              FROM unnest(?::bigint[], ?::bigint[], ?::int[]) AS d(conta_id, centavos, novas)
+              JOIN contas c ON c.id = d.conta_id
+             GROUP BY c.usuario_id, c.tipo
+             ORDER BY c.usuario_id, c.tipo
+            ON CONFLICT (usuario_id, tipo, slot) DO UPDATE
+               SET saldo = r.saldo + EXCLUDED.saldo,
+                   quantidade_contas = r.quantidade_contas + EXCLUDED.quantidade_contas,
+                   data_atualizacao = CURRENT_TIMESTAMP
+            """;
+
+    private static final String BUSCAR_POR_USUARIO = """
+            SELECT tipo, SUM(saldo) AS saldo, SUM(quantidade_contas) AS quantidade_contas
+              FROM resumo_saldo_usuarios
+             WHERE usuario_id = ?
+             GROUP BY tipo
+            HAVING SUM(quantidade_contas) > 0
+             ORDER BY tipo
+            """;
+
+    private static final String CRIAR_FALTANTES = """
+            INSERT INTO resumo_saldo_usuarios (usuario_id, tipo, slot)
+            SELECT DISTINCT usuario_id, tipo, 0 FROM contas WHERE usuario_id >= ? AND usuario_id < ?
+            ON CONFLICT (usuario_id, tipo, slot) DO NOTHING
+            """;
+
+    private static final String BLOQUEAR = """
+            SELECT usuario_id FROM resumo_saldo_usuarios
+             WHERE usuario_id >= ? AND usuario_id < ?
+             ORDER BY usuario_id, tipo, slot
+               FOR UPDATE
+            """;
+
+    // Só os usuários e tipos divergentes: o slot 0 recebe o valor apurado e os demais são zerados
+    private static final String RECALCULAR = """
+            WITH apurado AS (
+                SELECT r.usuario_id, r.tipo, COUNT(c.id) AS quantidade,
+                       COALESCE(SUM(c.saldo + COALESCE(
+                           (SELECT SUM(s.saldo) FROM conta_saldo_slots s WHERE s.conta_id = c.id), 0)), 0) AS saldo
+                  FROM (SELECT DISTINCT usuario_id, tipo FROM resumo_saldo_usuarios
+                         WHERE usuario_id >= ? AND usuario_id < ?) r
+                  LEFT JOIN contas c ON c.usuario_id = r.usuario_id AND c.tipo = r.tipo
+                 GROUP BY r.usuario_id, r.tipo
+            ), atual AS (
+                SELECT usuario_id, tipo, SUM(saldo) AS saldo, SUM(quantidade_contas) AS quantidade
+                  FROM resumo_saldo_usuarios
+                 WHERE usuario_id >= ? AND usuario_id < ?
+                 GROUP BY usuario_id, tipo
+            )
+            UPDATE resumo_saldo_usuarios r
+               SET saldo = CASE WHEN r.slot = 0 THEN a.saldo ELSE 0 END,
+                   quantidade_contas = CASE WHEN r.slot = 0 THEN a.quantidade ELSE 0 END,
+                   data_atualizacao = CURRENT_TIMESTAMP
+              FROM apurado a
+              JOIN atual t ON t.usuario_id = a.usuario_id AND t.tipo = a.tipo
+             WHERE r.usuario_id = a.usuario_id AND r.tipo = a.tipo
+               AND (t.saldo <> a.saldo OR t.quantidade <> a.quantidade)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResumoSaldoUsuarioRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void aplicar(int slot, Long[] contaIds, Long[] centavos, Integer[] contasNovas) {
+        jdbcTemplate.update(APLICAR, ps -> {
+            ps.setShort(1, (short) slot);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", contaIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", centavos));
+            ps.setArray(4, ps.getConnection().createArrayOf("integer", contasNovas));
+        });
+    }
+
+    public List<SaldoPorTipoContaDTO> buscarPorUsuario(Long usuarioId) {
+        return jdbcTemplate.query(BUSCAR_POR_USUARIO,
+                (rs, rowNum) -> new SaldoPorTipoContaDTO(rs.getString("tipo"), Dinheiro.de(rs.getBigDecimal("saldo")),
+                        rs.getInt("quantidade_contas")),
+                usuarioId);
+    }
+
+    /**
+     * Ids de usuário que dividem as contas em até {@code faixas} faixas de tamanho parecido, em ordem.
+     */
+    public List<Long> buscarLimitesFaixas(int faixas) {
+        Double[] percentis = new Double[faixas];
+        for (int i = 0; i < faixas; i++) {
+            percentis[i] = (double) i / faixas;
+        }
+        List<Long> limites = jdbcTemplate.query("""
+                        SELECT DISTINCT limite
+                          FROM unnest((SELECT percentile_disc(?::float8[]) WITHIN GROUP (ORDER BY usuario_id) FROM contas)) AS limite
+                         WHERE limite IS NOT NULL
+                         ORDER BY limite
+                        """,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("float8", percentis)),
+                (rs, rowNum) -> rs.getLong("limite"));
+        return new ArrayList<>(limites);
+    }
+
+    /**
+     * Cria o slot 0 que falta aos usuários da faixa. Roda numa transação própria, antes de
+     * {@link #recalcular}.
+     */
+    public void criarFaltantes(long inicio, long fim) {
+        jdbcTemplate.update(CRIAR_FALTANTES, inicio, fim);
+    }
+
+    /**
+     * Recalcula a faixa {@code [inicio, fim)} a partir de {@code contas}. O resumo é travado antes da
+     * leitura das contas, então os deltas ainda não aplicados entram depois, sobre o valor recalculado.
+     */
+    public int recalcular(long inicio, long fim) {
+        jdbcTemplate.query(BLOQUEAR, rs -> {
+        }, inicio, fim);
+        return jdbcTemplate.update(RECALCULAR, inicio, fim, inicio, fim);
+    }
+}
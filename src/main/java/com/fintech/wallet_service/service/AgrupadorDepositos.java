@@ -0,0 +1,295 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.EventoContaDTO;
+import com.fintech.wallet_service.dto.SaldoResponseDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.Movimentacao;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.repository.ContaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Group commit dos depósitos: os depósitos que chegam dentro de {@code janela} são aplicados por uma
+ * única thread em uma só transação, e cada requisição é respondida depois do commit. O que não cabe no
+ * grupo é devolvido vazio para o caminho normal.
+ */
+@Component
+public class AgrupadorDepositos {
+
+    private static final Logger logger = Logger.getLogger(AgrupadorDepositos.class.getName());
+
+    private final ContaRepository contaRepository;
+    private final SaldoService saldoService;
+    private final MovimentacaoService movimentacaoService;
+    private final IdempotenciaService idempotenciaService;
+    private final CacheSaldo cacheSaldo;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricasCarteira metricas;
+    private final OutboxService outboxService;
+    private final ResumoSaldoUsuarioService resumoSaldoUsuarioService;
+    private final boolean habilitado;
+    private final long janelaNanos;
+    private final int tamanhoMaximo;
+    private final BlockingQueue<Deposito> fila;
+    private volatile boolean ativo;
+    private Thread consumidor;
+
+    public AgrupadorDepositos(ContaRepository contaRepository, SaldoService saldoService,
+                              MovimentacaoService movimentacaoService, IdempotenciaService idempotenciaService,
+                              CacheSaldo cacheSaldo, TransactionTemplate transactionTemplate, MetricasCarteira metricas,
+                              OutboxService outboxService, ResumoSaldoUsuarioService resumoSaldoUsuarioService,
+                              @Value("${carteira.deposito.agrupamento.habilitado:false}") boolean habilitado,
+                              @Value("${carteira.deposito.agrupamento.janela:PT0.002S}") Duration janela,
+                              @Value("${carteira.deposito.agrupamento.tamanho-maximo:256}") int tamanhoMaximo,
+                              @Value("${carteira.deposito.agrupamento.capacidade-fila:10000}") int capacidadeFila) {
+        if (tamanhoMaximo < 1 || capacidadeFila < 1 || janela.isNegative()) {
+            throw new IllegalArgumentException("carteira.deposito.agrupamento: tamanho e fila devem ser positivos "
+                    + "e a janela não pode ser negativa");
+        }
+        this.contaRepository = contaRepository;
+        this.saldoService = saldoService;
+        this.movimentacaoService = movimentacaoService;
+        this.idempotenciaService = idempotenciaService;
+        this.cacheSaldo = cacheSaldo;
+        this.transactionTemplate = transactionTemplate;
+        this.metricas = metricas;
+        this.outboxService = outboxService;
+        this.resumoSaldoUsuarioService = resumoSaldoUsuarioService;
+        this.habilitado = habilitado;
+        this.janelaNanos = janela.toNanos();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (habilitado) {
+            ativo = true;
+            consumidor = Thread.ofPlatform().daemon().name("agrupador-depositos").start(this::consumir);
+        }
+    }
+
+    /**
+     * Para de aceitar depósitos; os que ainda estavam na fila voltam para o caminho normal.
+     */
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ativo = false;
+        if (consumidor != null) {
+            consumidor.interrupt();
+            consumidor.join();
+        }
+        List<Deposito> pendentes = new ArrayList<>();
+        fila.drainTo(pendentes);
+        pendentes.forEach(Deposito::refazer);
+    }
+
+    /**
+     * Enfileira o depósito e espera o commit do grupo. Vazio quando o agrupamento está desligado ou o
+     * depósito precisa ser aplicado sozinho; conta inexistente é lançada como no caminho normal.
+     */
+    public Optional<SaldoResponseDTO> depositar(Long contaId, Dinheiro valor, String chave, String requisicao) {
+        if (!ativo) {
+            return Optional.empty();
+        }
+        if (chave == null) {
+            return agrupar(new Deposito(contaId, valor, null, null, requisicao));
+        }
+        idempotenciaService.validarChave(chave);
+        // O grupo esperaria pela transação que usa a chave
+        String principal = idempotenciaService.principalAtual();
+        if (!idempotenciaService.iniciarSemConcorrencia(principal, chave)) {
+            return Optional.empty();
+        }
+        try {
+            return agrupar(new Deposito(contaId, valor, principal, chave, requisicao));
+        } finally {
+            idempotenciaService.encerrar(principal, chave);
+        }
+    }
+
+    private Optional<SaldoResponseDTO> agrupar(Deposito deposito) {
+        if (!fila.offer(deposito)) {
+            return Optional.empty();
+        }
+        if (!ativo && fila.remove(deposito)) {
+            return Optional.empty();
+        }
+        try {
+            return deposito.resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void consumir() {
+        List<Deposito> grupo = new ArrayList<>(tamanhoMaximo);
+        while (ativo) {
+            try {
+                juntar(grupo);
+            } catch (InterruptedException e) {
+                grupo.forEach(Deposito::refazer);
+                return;
+            }
+            processar(grupo);
+            grupo.clear();
+        }
+    }
+
+    /**
+     * Espera o primeiro depósito e junta os que chegarem até fechar a janela ou encher o grupo.
+     */
+    private void juntar(List<Deposito> grupo) throws InterruptedException {
+        grupo.add(fila.take());
+        long prazo = System.nanoTime() + janelaNanos;
+        while (grupo.size() < tamanhoMaximo) {
+            fila.drainTo(grupo, tamanhoMaximo - grupo.size());
+            long restante = prazo - System.nanoTime();
+            if (grupo.size() >= tamanhoMaximo || restante <= 0) {
+                return;
+            }
+            Deposito proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                return;
+            }
+            grupo.add(proximo);
+        }
+    }
+
+    private void processar(List<Deposito> grupo) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> aplicar(grupo));
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Grupo de " + grupo.size() + " depósitos desfeito; cada um será refeito sozinho", e);
+            grupo.forEach(Deposito::refazer);
+            return;
+        }
+        metricas.registrarGrupoDepositos(grupo.size());
+        grupo.forEach(Deposito::concluir);
+    }
+
+    private void aplicar(List<Deposito> grupo) {
+        SortedMap<Long, List<Deposito>> porConta = new TreeMap<>();
+        for (Deposito deposito : grupo) {
+            // Chave já gravada fora do cache, como por outra instância, fica para o caminho normal
+            if (deposito.chave == null
+                    || idempotenciaService.reservar(deposito.principal, deposito.chave, deposito.requisicao)) {
+                porConta.computeIfAbsent(deposito.contaId, id -> new ArrayList<>()).add(deposito);
+            }
+        }
+        if (porConta.isEmpty()) {
+            return;
+        }
+
+        SortedMap<Long, Dinheiro> somas = new TreeMap<>();
+        porConta.forEach((contaId, depositos) -> {
+            long centavos = 0;
+            for (Deposito deposito : depositos) {
+                centavos = Math.addExact(centavos, deposito.valor.centavos());
+            }
+            somas.put(contaId, Dinheiro.deCentavos(centavos));
+        });
+        Map<Long, SaldoResponseDTO> saldos = new HashMap<>();
+        for (SaldoResponseDTO saldo : contaRepository.aplicarSomas(somas)) {
+            saldos.put(saldo.id(), saldo);
+            resumoSaldoUsuarioService.registrarDelta(saldo.id(), somas.get(saldo.id()));
+        }
+        cacheSaldo.invalidarAposCommit(saldos.keySet());
+
+        List<Movimentacao> movimentacoes = new ArrayList<>(grupo.size());
+        List<EventoContaDTO> eventos = new ArrayList<>(grupo.size());
+        for (Map.Entry<Long, List<Deposito>> entrada : porConta.entrySet()) {
+            Long contaId = entrada.getKey();
+            List<Deposito> depositos = entrada.getValue();
+
+            SaldoResponseDTO saldo;
+            try {
+                saldo = saldos.containsKey(contaId) ? saldos.get(contaId) : saldoService.aplicar(contaId, somas.get(contaId));
+            } catch (ContaNaoEncontradaException e) {
+                for (Deposito deposito : depositos) {
+                    deposito.falha = e;
+                    if (deposito.chave != null) {
+                        idempotenciaService.liberar(deposito.principal, deposito.chave);
+                    }
+                }
+                continue;
+            }
+
+            // Saldo logo após cada depósito: o final menos os que vieram depois
+            Dinheiro saldoApos = saldo.saldo();
+            for (int i = depositos.size() - 1; i >= 0; i--) {
+                Deposito deposito = depositos.get(i);
+                deposito.resposta = new SaldoResponseDTO(saldo.id(), saldo.numeroConta(), saldoApos, saldo.tipo(),
+                        saldo.dataConsulta());
+                saldoApos = saldoApos.subtrair(deposito.valor);
+            }
+            for (Deposito deposito : depositos) {
+                movimentacoes.add(new Movimentacao(contaId, TipoMovimentacao.DEPOSITO, deposito.valor));
+                metricas.registrarMovimentacao(TipoMovimentacao.DEPOSITO, saldo.tipo(), deposito.valor);
+                eventos.add(EventoContaDTO.saldoAlterado(deposito.resposta, TipoMovimentacao.DEPOSITO, deposito.valor));
+                if (deposito.chave != null) {
+                    idempotenciaService.gravar(deposito.principal, deposito.chave, deposito.requisicao,
+                            deposito.resposta);
+                }
+            }
+        }
+        movimentacaoService.registrar(movimentacoes);
+        outboxService.registrar(eventos);
+    }
+
+    private static final class Deposito {
+
+        private final Long contaId;
+        private final Dinheiro valor;
+        private final String principal;
+        private final String chave;
+        private final String requisicao;
+        private final CompletableFuture<Optional<SaldoResponseDTO>> resultado = new CompletableFuture<>();
+        private SaldoResponseDTO resposta;
+        private RuntimeException falha;
+
+        private Deposito(Long contaId, Dinheiro valor, String principal, String chave, String requisicao) {
+            this.contaId = contaId;
+            this.valor = valor;
+            this.principal = principal;
+            this.chave = chave;
+            this.requisicao = requisicao;
+        }
+
+        private void concluir() {
+            if (falha != null) {
+                resultado.completeExceptionally(falha);
+            } else {
+                resultado.complete(Optional.ofNullable(resposta));
+            }
+        }
+
+        private void refazer() {
+            resultado.complete(Optional.empty());
+        }
+    }
+}
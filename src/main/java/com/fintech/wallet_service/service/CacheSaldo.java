@@ -0,0 +1,171 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.config.datasource.RoteamentoLeitura;
+import com.fintech.wallet_service.config.mapper.ContaMapper;
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.repository.ContaRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cache read-through das contas com o saldo total já apurado, usado pelas consultas de conta e de
+ * saldo. Quem altera saldos chama {@link #invalidarAposCommit} dentro da transação; as entradas só
+ * são descartadas depois do commit, de modo que um leitor nunca coloca em cache um saldo ainda não
+ * confirmado por mais tempo do que a própria transação. As entradas são invalidadas em vez de
+ * atualizadas porque dois commits podem executar seus callbacks fora de ordem. Como uma entrada
+ * serve a todos os usuários, as cargas leem do primário, e não de uma réplica atrasada.
+ */
+@Component
+public class CacheSaldo implements CanalInvalidacaoSaldo.Ouvinte {
+
+    private static final String NOME = "saldos";
+
+    private final ContaRepository contaRepository;
+    private final ContaMapper contaMapper;
+    private final CanalInvalidacaoSaldo canal;
+    private final RoteamentoLeitura roteamentoLeitura;
+    private final TransactionTemplate leitura;
+    private final AsyncCache<Long, ContaResponseDTO> contas;
+
+    public CacheSaldo(ContaRepository contaRepository, ContaMapper contaMapper, CanalInvalidacaoSaldo canal,
+                      RoteamentoLeitura roteamentoLeitura, PlatformTransactionManager transactionManager,
+                      @Value("${carteira.cache-saldo.tamanho-maximo:100000}") long tamanhoMaximo,
+                      @Value("${carteira.cache-saldo.ttl:PT5M}") Duration ttl,
+                      MeterRegistry meterRegistry) {
+        this.contaRepository = contaRepository;
+        this.contaMapper = contaMapper;
+        this.canal = canal;
+        this.roteamentoLeitura = roteamentoLeitura;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        // O TTL só limita o tempo de vida de uma entrada caso alguma invalidação se perca
+        this.contas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, contas, NOME);
+        Gauge.builder("cache.hit.ratio", contas, cache -> cache.synchronous().stats().hitRate())
+                .tag("cache", NOME)
+                .description("Fração das consultas atendidas pelo cache")
+                .register(meterRegistry);
+
+        canal.assinar(this);
+    }
+
+    /**
+     * Retorna a conta do cache ou a carrega em uma transação somente leitura. O carregamento roda na
+     * thread chamadora; leitores simultâneos da mesma conta aguardam a mesma carga.
+     */
+    public ContaResponseDTO buscar(Long contaId) {
+        CompletableFuture<ContaResponseDTO> carga = new CompletableFuture<>();
+        CompletableFuture<ContaResponseDTO> conta = contas.get(contaId, (id, executor) -> carga);
+        if (conta == carga) {
+            try {
+                carga.complete(roteamentoLeitura.executarNoPrimario(() -> leitura.execute(status -> carregar(contaId))));
+            } catch (RuntimeException e) {
+                // Conta inexistente ou falha no banco não ficam em cache
+                contas.asMap().remove(contaId, carga);
+                carga.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return conta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Agenda a invalidação das contas para depois do commit da transação atual e o aviso às demais
+     * instâncias para antes dele. Fora de transação a invalidação é imediata.
+     */
+    public void invalidarAposCommit(Collection<Long> contaIds) {
+        if (contaIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidar(contaIds);
+            canal.publicar(contaIds);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pendentes = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Set<Long> novas = new HashSet<>();
+            pendentes = novas;
+            TransactionSynchronizationManager.bindResource(this, novas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    canal.publicar(novas);
+                }
+
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(CacheSaldo.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(CacheSaldo.this, novas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheSaldo.this);
+                    if (status == STATUS_COMMITTED) {
+                        invalidar(novas);
+                    }
+                }
+            });
+        }
+        pendentes.addAll(contaIds);
+    }
+
+    public void invalidarAposCommit(Long contaId) {
+        invalidarAposCommit(List.of(contaId));
+    }
+
+    @Override
+    public void invalidar(Collection<Long> contaIds) {
+        contas.synchronous().invalidateAll(contaIds);
+    }
+
+    @Override
+    public void invalidarTodas() {
+        contas.synchronous().invalidateAll();
+    }
+
+    private ContaResponseDTO carregar(Long contaId) {
+        Conta conta = contaRepository.findById(contaId).orElseThrow(() -> new ContaNaoEncontradaException(contaId));
+        Dinheiro saldoTotal = conta.isModoQuente() ? contaRepository.somarSaldoTotal(contaId) : conta.getSaldo();
+        return contaMapper.toResponseDTO(conta, saldoTotal);
+    }
+}
@@ -0,0 +1,31 @@
+package com.fintech.wallet_service.service;
+
+import java.util.Collection;
+
+/**
+ * Propaga as invalidações do {@link CacheSaldo} entre instâncias do serviço. A implementação é
+ * escolhida por {@code carteira.cache-saldo.canal}.
+ */
+public interface CanalInvalidacaoSaldo {
+
+    /**
+     * Avisa as demais instâncias que o saldo destas contas mudou. É chamado antes do commit, dentro
+     * da transação que alterou os saldos, ou diretamente quando não há transação.
+     */
+    void publicar(Collection<Long> contaIds);
+
+    /**
+     * Registra quem recebe as invalidações vindas de outras instâncias.
+     */
+    void assinar(Ouvinte ouvinte);
+
+    interface Ouvinte {
+
+        void invalidar(Collection<Long> contaIds);
+
+        /**
+         * Chamado quando avisos podem ter sido perdidos, por exemplo após uma reconexão.
+         */
+        void invalidarTodas();
+    }
+}
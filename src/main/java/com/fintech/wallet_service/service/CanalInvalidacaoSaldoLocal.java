@@ -0,0 +1,22 @@
+package com.fintech.wallet_service.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Canal para uma única instância: a invalidação local feita pelo {@link CacheSaldo} já basta.
+ */
+@Component
+@ConditionalOnProperty(name = "carteira.cache-saldo.canal", havingValue = "local", matchIfMissing = true)
+public class CanalInvalidacaoSaldoLocal implements CanalInvalidacaoSaldo {
+
+    @Override
+    public void publicar(Collection<Long> contaIds) {
+    }
+
+    @Override
+    public void assinar(Ouvinte ouvinte) {
+    }
+}
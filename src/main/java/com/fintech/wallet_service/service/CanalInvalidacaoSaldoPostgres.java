@@ -0,0 +1,131 @@
+package com.fintech.wallet_service.service;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Canal entre instâncias sobre LISTEN/NOTIFY do Postgres. O NOTIFY é emitido na transação que
+ * alterou os saldos, então só é entregue se ela confirmar. Cada instância escuta em uma conexão
+ * própria, fora do pool; a própria instância também recebe seus avisos, o que custa apenas uma
+ * invalidação repetida.
+ */
+@Component
+@ConditionalOnProperty(name = "carteira.cache-saldo.canal", havingValue = "postgres")
+public class CanalInvalidacaoSaldoPostgres implements CanalInvalidacaoSaldo {
+
+    private static final Logger logger = Logger.getLogger(CanalInvalidacaoSaldoPostgres.class.getName());
+
+    static final String CANAL = "saldo_alterado";
+
+    /**
+     * O payload do NOTIFY é limitado a 8000 bytes; 300 ids de até 19 dígitos cabem com folga.
+     */
+    private static final int IDS_POR_AVISO = 300;
+
+    private static final int ESPERA_AVISOS_MS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration esperaReconexao;
+    private volatile boolean ativo = true;
+    private volatile Connection conexao;
+
+    public CanalInvalidacaoSaldoPostgres(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                         @Value("${carteira.cache-saldo.espera-reconexao:PT5S}") Duration esperaReconexao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.esperaReconexao = esperaReconexao;
+    }
+
+    @Override
+    public void publicar(Collection<Long> contaIds) {
+        List<Long> ids = new ArrayList<>(contaIds);
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_AVISO) {
+            String payload = ids.subList(inicio, Math.min(inicio + IDS_POR_AVISO, ids.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CANAL, payload);
+        }
+    }
+
+    @Override
+    public void assinar(Ouvinte ouvinte) {
+        Thread.ofPlatform().daemon().name("canal-invalidacao-saldo").start(() -> escutar(ouvinte));
+    }
+
+    @PreDestroy
+    public void parar() {
+        ativo = false;
+        fecharConexao();
+    }
+
+    private void escutar(Ouvinte ouvinte) {
+        while (ativo) {
+            try (Connection listener = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                conexao = listener;
+                try (Statement statement = listener.createStatement()) {
+                    statement.execute("LISTEN " + CANAL);
+                }
+                // Avisos emitidos antes do LISTEN (ou durante uma queda) não chegam mais
+                ouvinte.invalidarTodas();
+
+                PGConnection pgConnection = listener.unwrap(PGConnection.class);
+                while (ativo) {
+                    PGNotification[] avisos = pgConnection.getNotifications(ESPERA_AVISOS_MS);
+                    if (avisos != null) {
+                        for (PGNotification aviso : avisos) {
+                            ouvinte.invalidar(Arrays.stream(aviso.getParameter().split(","))
+                                    .map(Long::valueOf)
+                                    .toList());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (ativo) {
+                    logger.log(Level.WARNING, "Conexão do canal de invalidação de saldos perdida; reconectando", e);
+                    aguardarReconexao();
+                }
+            }
+        }
+    }
+
+    private void aguardarReconexao() {
+        try {
+            Thread.sleep(esperaReconexao);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ativo = false;
+        }
+    }
+
+    private void fecharConexao() {
+        Connection atual = conexao;
+        if (atual != null) {
+            try {
+                atual.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Falha ao fechar a conexão do canal de invalidação de saldos", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.repository.MovimentacaoRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Consolida periodicamente o livro de movimentações em checkpoints de saldo, de forma que o saldo
+ * apurado pelo livro seja sempre o checkpoint somado a uma cauda curta de lançamentos. Cada conta
+ * tem um único checkpoint, substituído a cada rodada.
+ * O corte é o início da transação de escrita mais antiga ainda aberta, de modo que um lançamento
+ * confirmado depois da rodada nunca fique atrás de uma posição já consolidada. Entre instâncias,
+ * só uma consolida por vez.
+ */
+@Component
+public class CheckpointSaldoJob {
+
+    private static final Logger logger = Logger.getLogger(CheckpointSaldoJob.class.getName());
+
+    private final MovimentacaoRepository movimentacaoRepository;
+    private Instant consolidadoAte;
+
+    public CheckpointSaldoJob(MovimentacaoRepository movimentacaoRepository) {
+        this.movimentacaoRepository = movimentacaoRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${carteira.checkpoint.intervalo:PT1M}",
+            initialDelayString = "${carteira.checkpoint.intervalo:PT1M}")
+    @Transactional
+    public void consolidar() {
+        if (!movimentacaoRepository.bloquearConsolidacao()) {
+            return;
+        }
+        if (consolidadoAte == null) {
+            consolidadoAte = movimentacaoRepository.buscarUltimoCheckpoint();
+        }
+        Instant ate = movimentacaoRepository.buscarLimiteConsolidacao();
+        if (!ate.isAfter(consolidadoAte)) {
+            return;
+        }
+
+        List<Long> contas = movimentacaoRepository.consolidar(consolidadoAte, ate);
+        if (!contas.isEmpty()) {
+            logger.info("Checkpoints de saldo gravados para " + contas.size() + " conta(s)");
+            List<Long> divergentes = movimentacaoRepository.buscarDivergencias(contas);
+            if (!divergentes.isEmpty()) {
+                logger.warning("Saldo diverge do livro de movimentações nas contas: " + divergentes);
+            }
+        }
+        consolidadoAte = ate;
+    }
+}
@@ -4,91 +4,172 @@ import com.fintech.wallet_service.config.mapper.ContaMapper;
 import com.fintech.wallet_service.config.service.UsuarioServiceCliente;
 import com.fintech.wallet_service.dto.*;
 import com.fintech.wallet_service.entity.Conta;
-import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
 import com.fintech.wallet_service.exception.UsuarioNaoEncontradoException;
 import com.fintech.wallet_service.repository.ContaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
-import java.util.Random;
+import java.util.Optional;
 
 @Service
+@Timed("carteira.servico")
 public class ContaService {
 
     private final ContaRepository contaRepository;
     private final ContaMapper contaMapper;
     private final UsuarioServiceCliente usuarioServiceCliente;
-
-    public ContaService(ContaRepository contaRepository, ContaMapper contaMapper, UsuarioServiceCliente usuarioServiceCliente) {
+    private final SaldoService saldoService;
+    private final SaldoFracionadoService saldoFracionadoService;
+    private final IdempotenciaService idempotenciaService;
+    private final GeradorNumeroConta geradorNumeroConta;
+    private final CacheSaldo cacheSaldo;
+    private final RetentativaOtimista retentativaOtimista;
+    private final AgrupadorDepositos agrupadorDepositos;
+    private final OutboxService outboxService;
+    private final ResumoSaldoUsuarioService resumoSaldoUsuarioService;
+    private final int tamanhoPaginaPadrao;
+    private final int tamanhoMaximoPagina;
+
+    public ContaService(ContaRepository contaRepository, ContaMapper contaMapper, UsuarioServiceCliente usuarioServiceCliente,
+                        SaldoService saldoService, SaldoFracionadoService saldoFracionadoService,
+                        IdempotenciaService idempotenciaService, GeradorNumeroConta geradorNumeroConta,
+                        CacheSaldo cacheSaldo, RetentativaOtimista retentativaOtimista,
+                        AgrupadorDepositos agrupadorDepositos, OutboxService outboxService,
+                        ResumoSaldoUsuarioService resumoSaldoUsuarioService,
+                        @Value("${carteira.listagem.tamanho-padrao:50}") int tamanhoPaginaPadrao,
+                        @Value("${carteira.listagem.tamanho-maximo:200}") int tamanhoMaximoPagina) {
         this.contaRepository = contaRepository;
         this.contaMapper = contaMapper;
         this.usuarioServiceCliente = usuarioServiceCliente;
+        this.saldoService = saldoService;
+        this.saldoFracionadoService = saldoFracionadoService;
+        this.idempotenciaService = idempotenciaService;
+        this.geradorNumeroConta = geradorNumeroConta;
+        this.cacheSaldo = cacheSaldo;
+        this.retentativaOtimista = retentativaOtimista;
+        this.agrupadorDepositos = agrupadorDepositos;
+        this.outboxService = outboxService;
+        this.resumoSaldoUsuarioService = resumoSaldoUsuarioService;
+        this.tamanhoPaginaPadrao = tamanhoPaginaPadrao;
+        this.tamanhoMaximoPagina = tamanhoMaximoPagina;
     }
 
-    @Transactional
-    public ContaResponseDTO criarConta(ContaRequestDTO contaRequestDTO) {
+    public ContaResponseDTO criarConta(ContaRequestDTO contaRequestDTO, String chaveIdempotencia) {
+        // A consulta ao user-service fica fora da transação para não segurar uma conexão do pool
         if (!usuarioServiceCliente.usuarioExiste(contaRequestDTO.usuarioId())) {
             throw new UsuarioNaoEncontradoException(contaRequestDTO.usuarioId());
         }
+
+        String requisicao = "CRIAR_CONTA:" + contaRequestDTO.usuarioId() + ":" + contaRequestDTO.tipo();
+        return idempotenciaService.executar(chaveIdempotencia, requisicao, ContaResponseDTO.class,
+                () -> criarConta(contaRequestDTO));
+    }
+
+    private ContaResponseDTO criarConta(ContaRequestDTO contaRequestDTO) {
         Conta conta = contaMapper.toEntity(contaRequestDTO);
-        conta.setNumeroConta(gerarNumeroConta());
-        conta.setSaldo(BigDecimal.ZERO);
+        conta.setNumeroConta(geradorNumeroConta.gerar());
+        conta.setSaldo(Dinheiro.ZERO);
         conta.setAtiva(true);
         Conta contaSalvar = contaRepository.save(conta);
-        return contaMapper.toResponseDTO(contaSalvar);
+        ContaResponseDTO resposta = contaMapper.toResponseDTO(contaSalvar);
+        resumoSaldoUsuarioService.registrarContaNova(resposta.id());
+        outboxService.registrar(EventoContaDTO.contaCriada(resposta.id(), resposta.usuarioId(), resposta.tipo()));
+        return resposta;
+    }
+
+    /**
+     * Saldo total e por tipo de conta do usuário, lido do resumo mantido a cada alteração de saldo.
+     */
+    public ResumoSaldoUsuarioResponseDTO buscarResumoUsuario(Long usuarioId) {
+        return resumoSaldoUsuarioService.buscar(usuarioId);
     }
 
-    @Transactional
     public ContaResponseDTO buscarCarteiraPorId(Long id) {
-        Conta conta = buscaCarteira(id);
-        return contaMapper.toResponseDTO(conta);
+        return cacheSaldo.buscar(id);
     }
 
-    @Transactional
-    public List<ContaResumoResponseDTO> listarCarteirasUsuario(Long usuarioId) {
+    /**
+     * Lista as contas do usuário em ordem de id, a partir do cursor (id da última conta da página
+     * anterior). O tamanho da página é limitado a {@code tamanhoMaximoPagina}.
+     */
+    public PaginaCursor<ContaResumoResponseDTO> listarCarteirasUsuario(Long usuarioId, Long cursor, Integer tamanho) {
+        int tamanhoPagina = tamanho == null ? tamanhoPaginaPadrao : Math.min(tamanho, tamanhoMaximoPagina);
+        if (tamanhoPagina < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+
         if (!usuarioServiceCliente.usuarioExiste(usuarioId)) {
             throw new RuntimeException("Usuario não foi contrado");
         }
 
-        List<Conta> contasUsuario = contaRepository.findAllContaByUsuarioId(usuarioId);
-        return contaMapper.toResponseDTO(contasUsuario);
+        // Um item a mais indica se existe próxima página sem precisar de COUNT
+        List<ContaResumoResponseDTO> contas = contaRepository.listarResumoPorUsuario(
+                usuarioId, cursor == null ? 0L : cursor, Limit.of(tamanhoPagina + 1));
+
+        if (contas.size() <= tamanhoPagina) {
+            return new PaginaCursor<>(contas, null);
+        }
+        List<ContaResumoResponseDTO> pagina = contas.subList(0, tamanhoPagina);
+        return new PaginaCursor<>(pagina, pagina.get(tamanhoPagina - 1).id());
     }
 
-    @Transactional
     public SaldoResponseDTO consultarSaldo(Long id) {
-        Conta conta = buscaCarteira(id);
-        return contaMapper.toSaldoResponseDTO(conta);
-
+        return contaMapper.toSaldoResponseDTO(cacheSaldo.buscar(id));
     }
 
-    @Transactional
-    public SaldoResponseDTO depositar(Long id, TransicaoRequestDTO transicaoRequestDTO) {
-        Conta conta = buscaCarteira(id);
-        conta.setSaldo(conta.getSaldo().add(transicaoRequestDTO.valor()));
-        return contaMapper.toSaldoResponseDTO(conta);
+    /**
+     * A transação é aberta pelo {@link IdempotenciaService}, depois da consulta ao cache de respostas, e
+     * refeita inteira pelo {@link RetentativaOtimista} quando perde a conferência de versão. Com o
+     * agrupamento ligado, o depósito é confirmado junto com outros pelo {@link AgrupadorDepositos}.
+     */
+    public SaldoResponseDTO depositar(Long id, TransicaoRequestDTO transicaoRequestDTO, String chaveIdempotencia) {
+        String requisicao = "DEPOSITO:" + id + ":" + transicaoRequestDTO.valor();
+        Optional<SaldoResponseDTO> agrupado = agrupadorDepositos.depositar(id, transicaoRequestDTO.valor(),
+                chaveIdempotencia, requisicao);
+        if (agrupado.isPresent()) {
+            return agrupado.get();
+        }
+        return retentativaOtimista.executar("deposito", () -> idempotenciaService.executar(chaveIdempotencia, requisicao,
+                SaldoResponseDTO.class, () -> saldoService.movimentar(id, TipoMovimentacao.DEPOSITO, transicaoRequestDTO.valor())));
     }
 
-    @Transactional
-    public SaldoResponseDTO sacar(Long id, TransicaoRequestDTO transicaoRequestDTO) {
-        Conta conta = buscaCarteira(id);
-        conta.setSaldo(conta.getSaldo().subtract(transicaoRequestDTO.valor()));
-        return contaMapper.toSaldoResponseDTO(conta);
+    public SaldoResponseDTO sacar(Long id, TransicaoRequestDTO transicaoRequestDTO, String chaveIdempotencia) {
+        String requisicao = "SAQUE:" + id + ":" + transicaoRequestDTO.valor();
+        return retentativaOtimista.executar("saque", () -> idempotenciaService.executar(chaveIdempotencia, requisicao,
+                SaldoResponseDTO.class, () -> saldoService.movimentar(id, TipoMovimentacao.SAQUE, transicaoRequestDTO.valor().negar())));
     }
 
-    private Conta buscaCarteira(Long id) {
-       return contaRepository.findById(id).orElseThrow(() -> new ContaNaoEncontradaException(id));
-    }
+    /**
+     * Débito e crédito acontecem na mesma transação, aberta pelo {@link IdempotenciaService}.
+     */
+    public TransferenciaResponseDTO transferir(TransferenciaRequestDTO transferenciaRequestDTO, String chaveIdempotencia) {
+        Long origemId = transferenciaRequestDTO.contaOrigemId();
+        Long destinoId = transferenciaRequestDTO.contaDestinoId();
+        if (origemId.equals(destinoId)) {
+            throw new IllegalArgumentException("A conta de origem e a de destino devem ser diferentes");
+        }
 
-    private String gerarNumeroConta() {
-        Random random = new Random();
-        StringBuilder numero = new StringBuilder("ACC-");
+        String requisicao = "TRANSFERENCIA:" + origemId + ":" + destinoId + ":" + transferenciaRequestDTO.valor();
+        return retentativaOtimista.executar("transferencia", () -> idempotenciaService.executar(chaveIdempotencia,
+                requisicao, TransferenciaResponseDTO.class,
+                () -> saldoService.transferir(origemId, destinoId, transferenciaRequestDTO.valor())));
+    }
 
-        for (int i = 0; i < 10; i++) {
-            numero.append(random.nextInt(10));
-        }
+    @Transactional
+    public ContaResponseDTO ativarModoQuente(Long id, ModoQuenteRequestDTO modoQuenteRequestDTO) {
+        SaldoFracionadoService.SaldoFracionado resultado = saldoFracionadoService.ativar(id, modoQuenteRequestDTO.slots());
+        return contaMapper.toResponseDTO(resultado.conta(), resultado.saldoTotal());
+    }
 
-        return numero.toString();
+    @Transactional
+    public ContaResponseDTO desativarModoQuente(Long id) {
+        SaldoFracionadoService.SaldoFracionado resultado = saldoFracionadoService.desativar(id);
+        return contaMapper.toResponseDTO(resultado.conta(), resultado.saldoTotal());
     }
 }
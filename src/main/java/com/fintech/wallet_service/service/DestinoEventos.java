@@ -0,0 +1,20 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.entity.EventoOutbox;
+
+import java.util.List;
+
+/**
+ * Para onde o {@link RelayOutbox} publica os eventos do outbox. A implementação é escolhida por
+ * {@code carteira.outbox.destino}.
+ */
+public interface DestinoEventos {
+
+    /**
+     * Publica os eventos de uma partição, em ordem de id. Só deve retornar depois que o destino os
+     * aceitou: o relay espera, e com isso um destino lento segura a drenagem em vez de acumular eventos
+     * em memória. Uma exceção faz o lote inteiro ser publicado de novo mais tarde, então o mesmo evento
+     * pode chegar mais de uma vez; o id permite descartar os repetidos.
+     */
+    void publicar(List<EventoOutbox> eventos);
+}
@@ -0,0 +1,61 @@
+package com.fintech.wallet_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet_service.entity.EventoOutbox;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Acrescenta os eventos a um arquivo, um JSON por linha, no lugar de um broker. Cada lote é forçado
+ * para o disco antes de ser dado como publicado.
+ */
+@Component
+@ConditionalOnProperty(name = "carteira.outbox.destino", havingValue = "arquivo")
+public class DestinoEventosArquivo implements DestinoEventos {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel arquivo;
+
+    public DestinoEventosArquivo(ObjectMapper objectMapper,
+                                 @Value("${carteira.outbox.arquivo:outbox-eventos.ndjson}") Path caminho) throws IOException {
+        this.objectMapper = objectMapper;
+        this.arquivo = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoOutbox> eventos) {
+        StringBuilder linhas = new StringBuilder();
+        try {
+            for (EventoOutbox evento : eventos) {
+                linhas.append(objectMapper.writeValueAsString(evento)).append('\n');
+            }
+            ByteBuffer conteudo = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+            while (conteudo.hasRemaining()) {
+                arquivo.write(conteudo);
+            }
+            arquivo.force(false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento do outbox não pôde ser serializado", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        arquivo.close();
+    }
+}
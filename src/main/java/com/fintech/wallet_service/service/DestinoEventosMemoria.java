@@ -0,0 +1,41 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.entity.EventoOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Guarda em memória os últimos {@code capacidade} eventos publicados. Serve a testes e a uma instância
+ * sem broker; os mais antigos são descartados.
+ */
+@Component
+@ConditionalOnProperty(name = "carteira.outbox.destino", havingValue = "memoria", matchIfMissing = true)
+public class DestinoEventosMemoria implements DestinoEventos {
+
+    private final int capacidade;
+    private final Deque<EventoOutbox> eventos = new ArrayDeque<>();
+
+    public DestinoEventosMemoria(@Value("${carteira.outbox.memoria.capacidade:10000}") int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoOutbox> publicados) {
+        for (EventoOutbox evento : publicados) {
+            if (eventos.size() == capacidade) {
+                eventos.removeFirst();
+            }
+            eventos.addLast(evento);
+        }
+    }
+
+    public synchronized List<EventoOutbox> eventos() {
+        return new ArrayList<>(eventos);
+    }
+}
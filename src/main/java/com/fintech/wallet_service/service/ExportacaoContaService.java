@@ -0,0 +1,90 @@
+package com.fintech.wallet_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.FiltroExportacaoContas;
+import com.fintech.wallet_service.dto.FormatoExportacao;
+import com.fintech.wallet_service.repository.ContaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Exporta as contas direto para a saída, linha a linha, à medida que o cursor as entrega: a memória
+ * usada depende do tamanho do lote de leitura, não da quantidade de contas. A leitura roda em uma
+ * transação somente leitura, que mantém o cursor aberto e pode ser atendida por uma réplica.
+ */
+@Service
+@Timed("carteira.servico")
+public class ExportacaoContaService {
+
+    private static final String CABECALHO_CSV =
+            "id,usuario_id,numero_conta,saldo,tipo,data_criacao,data_atualizacao,ativa,slots_saldo\n";
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final ContaRepository contaRepository;
+    private final ObjectWriter escritorJson;
+    private final TransactionTemplate leitura;
+    private final int tamanhoLote;
+
+    public ExportacaoContaService(ContaRepository contaRepository, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${carteira.exportacao.tamanho-lote:1000}") int tamanhoLote) {
+        this.contaRepository = contaRepository;
+        this.escritorJson = objectMapper.writerFor(ContaResponseDTO.class);
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public void exportar(FiltroExportacaoContas filtro, FormatoExportacao formato, OutputStream saida) {
+        BufferedOutputStream buffer = new BufferedOutputStream(saida, TAMANHO_BUFFER);
+        try {
+            Consumer<ContaResponseDTO> escrever = switch (formato) {
+                case NDJSON -> conta -> escreverJson(buffer, conta);
+                case CSV -> {
+                    buffer.write(CABECALHO_CSV.getBytes(StandardCharsets.UTF_8));
+                    yield conta -> escreverCsv(buffer, conta);
+                }
+            };
+            leitura.executeWithoutResult(status -> contaRepository.percorrer(filtro, tamanhoLote, escrever));
+            buffer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escreverJson(OutputStream saida, ContaResponseDTO conta) {
+        try {
+            saida.write(escritorJson.writeValueAsBytes(conta));
+            saida.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Nenhum campo exportado contém vírgula, aspas ou quebra de linha, então não há escape.
+     */
+    private static void escreverCsv(OutputStream saida, ContaResponseDTO conta) {
+        String linha = conta.id() + "," + conta.usuarioId() + "," + conta.numeroConta() + "," + conta.saldo()
+                + "," + conta.tipo() + "," + conta.dataCriacao() + "," + conta.dataAtualizacao() + "," + conta.ativa()
+                + "," + conta.slotsSaldo() + "\n";
+        try {
+            saida.write(linha.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.CursorExtrato;
+import com.fintech.wallet_service.dto.ItemExtratoDTO;
+import com.fintech.wallet_service.dto.PaginaExtrato;
+import com.fintech.wallet_service.repository.MovimentacaoRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Extrato da conta paginado por cursor sobre (data, id). O saldo após cada lançamento é calculado
+ * na própria consulta a partir do checkpoint da conta, então o custo de uma página depende só dos
+ * lançamentos entre ela e o checkpoint, e não de todo o histórico da conta.
+ */
+@Service
+@Timed("carteira.servico")
+public class ExtratoService {
+
+    private final MovimentacaoRepository movimentacaoRepository;
+    private final CacheSaldo cacheSaldo;
+    private final TransactionTemplate leitura;
+    private final int tamanhoPaginaPadrao;
+    private final int tamanhoMaximoPagina;
+
+    public ExtratoService(MovimentacaoRepository movimentacaoRepository, CacheSaldo cacheSaldo,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${carteira.extrato.tamanho-padrao:100}") int tamanhoPaginaPadrao,
+                          @Value("${carteira.extrato.tamanho-maximo:500}") int tamanhoMaximoPagina) {
+        this.movimentacaoRepository = movimentacaoRepository;
+        this.cacheSaldo = cacheSaldo;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.tamanhoPaginaPadrao = tamanhoPaginaPadrao;
+        this.tamanhoMaximoPagina = tamanhoMaximoPagina;
+    }
+
+    /**
+     * Lançamentos em [{@code de}, {@code ate}); {@code cursor} é o devolvido pela página anterior ou
+     * {@code null} na primeira.
+     */
+    public PaginaExtrato extrato(Long contaId, OffsetDateTime de, OffsetDateTime ate, String cursor, Integer tamanho) {
+        if (!de.isBefore(ate)) {
+            throw new IllegalArgumentException("O início do período deve ser anterior ao fim");
+        }
+        int tamanhoPagina = tamanho == null ? tamanhoPaginaPadrao : Math.min(tamanho, tamanhoMaximoPagina);
+        if (tamanhoPagina < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+        CursorExtrato posicao = cursor == null ? new CursorExtrato(de.toInstant(), 0L) : CursorExtrato.ler(cursor);
+
+        // Só confirma que a conta existe; fica fora da transação para que a leitura possa ir à réplica
+        cacheSaldo.buscar(contaId);
+
+        List<ItemExtratoDTO> itens = leitura.execute(status ->
+                movimentacaoRepository.buscarExtrato(contaId, de, ate, posicao, tamanhoPagina + 1));
+
+        if (itens.size() <= tamanhoPagina) {
+            return new PaginaExtrato(itens, null);
+        }
+        List<ItemExtratoDTO> pagina = itens.subList(0, tamanhoPagina);
+        ItemExtratoDTO ultimo = pagina.get(tamanhoPagina - 1);
+        return new PaginaExtrato(pagina, new CursorExtrato(ultimo.dataMovimentacao().toInstant(), ultimo.id()));
+    }
+}
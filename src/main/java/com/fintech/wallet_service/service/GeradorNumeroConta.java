@@ -0,0 +1,183 @@
+package com.fintech.wallet_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gera números de conta no formato {@code ACC-XXXXXXXXXD}: nove dígitos de um índice sequencial
+ * embaralhado por uma permutação de [0, 10^9) e um dígito verificador de Luhn. Os índices são
+ * reservados em blocos na {@code numero_conta_seq}.
+ */
+@Component
+public class GeradorNumeroConta {
+
+    private static final String PREFIXO = "ACC-";
+    static final long LIMITE = 1_000_000_000L;
+
+    private static final String RESERVAR_BLOCO = """
+            SELECT nextval('numero_conta_seq') AS inicio,
+                   (SELECT increment_by FROM pg_sequences
+                     WHERE schemaname = current_schema() AND sequencename = 'numero_conta_seq') AS tamanho
+            """;
+
+    private static final String BUSCAR_EXISTENTES = "SELECT numero_conta FROM contas WHERE numero_conta = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PermutacaoFeistel permutacao;
+    private final AtomicReference<Bloco> blocoAtual = new AtomicReference<>(new Bloco(0, 0, Set.of()));
+
+    public GeradorNumeroConta(JdbcTemplate jdbcTemplate,
+                              @Value("${carteira.numero-conta.chave:7046029254386353131}") long chave) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.permutacao = new PermutacaoFeistel(chave);
+    }
+
+    public String gerar() {
+        while (true) {
+            Bloco bloco = blocoAtual.get();
+            long indice = bloco.proximo.getAndIncrement();
+
+            if (indice < bloco.fim) {
+                String numero = formatar(indice);
+                if (!bloco.ocupados.contains(numero)) {
+                    return numero;
+                }
+                continue;
+            }
+
+            substituir(bloco);
+        }
+    }
+
+    /**
+     * Só a thread que ganhar o CAS em {@code sucessor} vai ao banco; as demais aguardam o mesmo future.
+     */
+    private void substituir(Bloco esgotado) {
+        CompletableFuture<Bloco> reserva = new CompletableFuture<>();
+
+        if (!esgotado.sucessor.compareAndSet(null, reserva)) {
+            esgotado.sucessor.get().exceptionally(e -> null).join();
+            return;
+        }
+
+        try {
+            Bloco novo = reservarBloco();
+            blocoAtual.compareAndSet(esgotado, novo);
+            reserva.complete(novo);
+        } catch (RuntimeException e) {
+            esgotado.sucessor.set(null);
+            reserva.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    String formatar(long indice) {
+        long embaralhado = permutacao.aplicar(indice);
+        String digitos = String.format("%09d", embaralhado);
+        return PREFIXO + digitos + digitoVerificador(digitos);
+    }
+
+    private Bloco reservarBloco() {
+        Bloco bloco = jdbcTemplate.queryForObject(RESERVAR_BLOCO,
+                (rs, i) -> new Bloco(rs.getLong("inicio"), rs.getLong("inicio") + rs.getLong("tamanho"), Set.of()));
+
+        // Contas anteriores a este gerador têm números aleatórios que podem coincidir com os do bloco
+        String[] candidatos = new String[(int) (bloco.fim - bloco.inicio)];
+        for (int i = 0; i < candidatos.length; i++) {
+            candidatos[i] = formatar(bloco.inicio + i);
+        }
+        List<String> ocupados = jdbcTemplate.queryForList(BUSCAR_EXISTENTES, String.class, (Object) candidatos);
+
+        return ocupados.isEmpty() ? bloco : new Bloco(bloco.inicio, bloco.fim, new HashSet<>(ocupados));
+    }
+
+    static int digitoVerificador(String digitos) {
+        int soma = 0;
+        boolean dobrar = true;
+
+        for (int i = digitos.length() - 1; i >= 0; i--) {
+            int digito = digitos.charAt(i) - '0';
+            if (dobrar) {
+                digito *= 2;
+                if (digito > 9) {
+                    digito -= 9;
+                }
+            }
+            soma += digito;
+            dobrar = !dobrar;
+        }
+
+        return (10 - soma % 10) % 10;
+    }
+
+    private static final class Bloco {
+
+        final long inicio;
+        final long fim;
+        final AtomicLong proximo;
+        final Set<String> ocupados;
+        final AtomicReference<CompletableFuture<Bloco>> sucessor = new AtomicReference<>();
+
+        Bloco(long inicio, long fim, Set<String> ocupados) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.proximo = new AtomicLong(inicio);
+            this.ocupados = ocupados;
+        }
+    }
+
+    /**
+     * Rede de Feistel de 4 rodadas sobre 30 bits, com cycle walking para ficar em [0, 10^9).
+     */
+    static final class PermutacaoFeistel {
+
+        private static final int RODADAS = 4;
+        private static final int BITS_METADE = 15;
+        private static final long MASCARA = (1L << BITS_METADE) - 1;
+
+        private final long[] chaves = new long[RODADAS];
+
+        PermutacaoFeistel(long chave) {
+            long estado = chave;
+            for (int i = 0; i < RODADAS; i++) {
+                estado += 0x9E3779B97F4A7C15L;
+                chaves[i] = misturar(estado);
+            }
+        }
+
+        long aplicar(long valor) {
+            long resultado = valor;
+            do {
+                resultado = rodadas(resultado);
+            } while (resultado >= LIMITE);
+            return resultado;
+        }
+
+        private long rodadas(long valor) {
+            long esquerda = valor >>> BITS_METADE;
+            long direita = valor & MASCARA;
+
+            for (long chave : chaves) {
+                long proxima = esquerda ^ (misturar(direita ^ chave) & MASCARA);
+                esquerda = direita;
+                direita = proxima;
+            }
+
+            return (esquerda << BITS_METADE) | direita;
+        }
+
+        private static long misturar(long x) {
+            x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+            x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+            return x ^ (x >>> 31);
+        }
+    }
+}
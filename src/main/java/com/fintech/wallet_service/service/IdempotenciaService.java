@@ -0,0 +1,225 @@
+package com.fintech.wallet_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet_service.exception.RequisicaoIdempotenteConflitanteException;
+import com.fintech.wallet_service.repository.ChaveIdempotenciaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Garante que uma requisição repetida com o mesmo {@code Idempotency-Key} seja aplicada uma única vez.
+ * As respostas ficam em um cache em memória limitado, consultado antes de abrir a transação, e na tabela
+ * {@code chaves_idempotencia}, que é a fonte da verdade entre instâncias e reinícios. A chave é reservada
+ * na mesma transação da operação, então se a operação falhar a chave fica livre para uma nova tentativa.
+ * Cada chave vale só para o usuário autenticado que a enviou, para que um usuário não receba a resposta
+ * gravada para outro nem tenha a requisição recusada por uma chave que outro já usou.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger logger = Logger.getLogger(IdempotenciaService.class.getName());
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+    private static final int LIMITE_REMOCAO = 1000;
+    private static final String SEM_PRINCIPAL = "";
+
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration validade;
+    private final Cache<ChaveUsuario, RespostaArmazenada> cache;
+    // Chaves com operação em andamento nesta instância, com quantas requisições as usam
+    private final ConcurrentMap<ChaveUsuario, Integer> emAndamento = new ConcurrentHashMap<>();
+    private final MetricasCarteira metricas;
+
+    public IdempotenciaService(ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               MetricasCarteira metricas,
+                               @Value("${carteira.idempotencia.validade:PT24H}") Duration validade,
+                               @Value("${carteira.idempotencia.cache.tamanho-maximo:100000}") long tamanhoMaximoCache) {
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validade = validade;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfterWrite(validade)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotencia");
+        this.metricas = metricas;
+    }
+
+    /**
+     * Executa a operação em uma transação. Com chave informada, devolve a resposta já gravada para ela
+     * sem executar a operação de novo; {@code requisicao} identifica a operação e seus parâmetros e
+     * precisa coincidir com a da primeira execução.
+     */
+    public <T> T executar(String chave, String requisicao, Class<T> tipoResposta, Supplier<T> operacao) {
+        if (chave == null) {
+            return transactionTemplate.execute(status -> operacao.get());
+        }
+        validarChave(chave);
+        String principal = principalAtual();
+
+        RespostaArmazenada armazenada = cache.getIfPresent(new ChaveUsuario(principal, chave));
+        if (armazenada != null) {
+            return repetir(chave, requisicao, armazenada.requisicao(), tipoResposta.cast(armazenada.resposta()));
+        }
+
+        ChaveUsuario chaveUsuario = new ChaveUsuario(principal, chave);
+        emAndamento.merge(chaveUsuario, 1, Integer::sum);
+        try {
+            T resposta = transactionTemplate.execute(status -> {
+                if (chaveIdempotenciaRepository.reservar(principal, chave, requisicao, Instant.now().plus(validade))) {
+                    T novaResposta = operacao.get();
+                    chaveIdempotenciaRepository.gravarResposta(principal, chave, escrever(novaResposta));
+                    return novaResposta;
+                }
+
+                ChaveIdempotenciaRepository.Registro registro = chaveIdempotenciaRepository.buscar(principal, chave)
+                        .filter(encontrado -> encontrado.resposta() != null)
+                        .orElseThrow(() -> conflito(chave));
+                return repetir(chave, requisicao, registro.requisicao(), ler(registro.resposta(), tipoResposta));
+            });
+
+            cache.put(chaveUsuario, new RespostaArmazenada(requisicao, resposta));
+            return resposta;
+        } finally {
+            encerrar(principal, chave);
+        }
+    }
+
+    /**
+     * Marca a chave como em andamento para uma operação que será aplicada em grupo, desde que ela ainda não
+     * tenha resposta em cache nem outra operação em andamento nesta instância; assim o grupo não espera, no
+     * INSERT da reserva, por uma transação que está usando a mesma chave. Quem recebe verdadeiro chama
+     * {@link #encerrar} quando a operação termina.
+     */
+    public boolean iniciarSemConcorrencia(String principal, String chave) {
+        ChaveUsuario chaveUsuario = new ChaveUsuario(principal, chave);
+        return cache.getIfPresent(chaveUsuario) == null && emAndamento.putIfAbsent(chaveUsuario, 1) == null;
+    }
+
+    public void encerrar(String principal, String chave) {
+        emAndamento.computeIfPresent(new ChaveUsuario(principal, chave),
+                (chaveUsuario, usos) -> usos == 1 ? null : usos - 1);
+    }
+
+    /**
+     * Usuário a quem as chaves da thread atual pertencem. Quem aplica a operação em outra thread, como o
+     * {@link AgrupadorDepositos}, precisa capturá-lo ainda na thread da requisição.
+     */
+    public String principalAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return SEM_PRINCIPAL;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Reserva a chave na transação atual, para quem aplica várias operações em uma transação só, como o
+     * {@link AgrupadorDepositos}. Devolve falso se a chave já existe; a operação deve então ser refeita
+     * por {@link #executar}, que devolve a resposta gravada ou recusa a requisição conflitante.
+     */
+    public boolean reservar(String principal, String chave, String requisicao) {
+        return chaveIdempotenciaRepository.reservar(principal, chave, requisicao, Instant.now().plus(validade));
+    }
+
+    /**
+     * Desfaz, na transação atual, uma reserva feita por {@link #reservar} cuja operação falhou.
+     */
+    public void liberar(String principal, String chave) {
+        chaveIdempotenciaRepository.liberar(principal, chave);
+    }
+
+    /**
+     * Grava a resposta de uma chave reservada por {@link #reservar}; ela entra no cache após o commit.
+     */
+    public void gravar(String principal, String chave, String requisicao, Object resposta) {
+        chaveIdempotenciaRepository.gravarResposta(principal, chave, escrever(resposta));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(new ChaveUsuario(principal, chave), new RespostaArmazenada(requisicao, resposta));
+            }
+        });
+    }
+
+    public void validarChave(String chave) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException("O cabeçalho Idempotency-Key deve ter entre 1 e "
+                    + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${carteira.idempotencia.limpeza.intervalo:PT10M}")
+    public void removerExpiradas() {
+        int removidas;
+        int total = 0;
+        do {
+            removidas = chaveIdempotenciaRepository.removerExpiradas(LIMITE_REMOCAO);
+            total += removidas;
+        } while (removidas == LIMITE_REMOCAO);
+
+        if (total > 0) {
+            logger.info("Chaves de idempotência expiradas removidas: " + total);
+        }
+    }
+
+    private <T> T repetir(String chave, String requisicao, String requisicaoOriginal, T resposta) {
+        if (!requisicaoOriginal.equals(requisicao)) {
+            throw conflito(chave);
+        }
+        return resposta;
+    }
+
+    private RequisicaoIdempotenteConflitanteException conflito(String chave) {
+        metricas.registrarConflito("idempotencia");
+        return new RequisicaoIdempotenteConflitanteException(chave);
+    }
+
+    private String escrever(Object resposta) {
+        try {
+            return objectMapper.writeValueAsString(resposta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a resposta idempotente", e);
+        }
+    }
+
+    private <T> T ler(String resposta, Class<T> tipoResposta) {
+        try {
+            return objectMapper.readValue(resposta, tipoResposta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível ler a resposta idempotente", e);
+        }
+    }
+
+    private record ChaveUsuario(String principal, String chave) {
+    }
+
+    private record RespostaArmazenada(String requisicao, Object resposta) {
+    }
+}
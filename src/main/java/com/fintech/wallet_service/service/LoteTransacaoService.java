@@ -0,0 +1,158 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ContaResumoResponseDTO;
+import com.fintech.wallet_service.dto.EventoContaDTO;
+import com.fintech.wallet_service.dto.ItemLoteRequestDTO;
+import com.fintech.wallet_service.dto.ItemLoteResponseDTO;
+import com.fintech.wallet_service.dto.StatusItemLote;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.Movimentacao;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.exception.SaldoInsuficienteException;
+import com.fintech.wallet_service.repository.ContaRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Processa lotes de depósitos e saques em blocos, cada bloco em sua própria transação. Dentro do bloco
+ * os itens são aplicados com um único lote JDBC; os que não puderam ser aplicados assim (conta em modo
+ * quente, inexistente ou sem saldo naquele momento) são refeitos individualmente ao final do bloco.
+ * Os itens do bloco são aplicados em ordem de conta, preservando a ordem original entre itens da mesma
+ * conta, para que blocos concorrentes bloqueiem as linhas sempre na mesma sequência e não entrem em deadlock.
+ * No modo otimista, um bloco que perde a conferência de versão é refeito inteiro.
+ */
+@Service
+@Timed("carteira.servico")
+public class LoteTransacaoService {
+
+    private final ContaRepository contaRepository;
+    private final SaldoService saldoService;
+    private final MovimentacaoService movimentacaoService;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheSaldo cacheSaldo;
+    private final MetricasCarteira metricas;
+    private final RetentativaOtimista retentativaOtimista;
+    private final OutboxService outboxService;
+    private final ResumoSaldoUsuarioService resumoSaldoUsuarioService;
+    private final int tamanhoBloco;
+
+    public LoteTransacaoService(ContaRepository contaRepository, SaldoService saldoService,
+                                MovimentacaoService movimentacaoService, TransactionTemplate transactionTemplate,
+                                CacheSaldo cacheSaldo, MetricasCarteira metricas, RetentativaOtimista retentativaOtimista,
+                                OutboxService outboxService, ResumoSaldoUsuarioService resumoSaldoUsuarioService,
+                                @Value("${carteira.lote.tamanho-bloco:500}") int tamanhoBloco) {
+        this.contaRepository = contaRepository;
+        this.saldoService = saldoService;
+        this.movimentacaoService = movimentacaoService;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheSaldo = cacheSaldo;
+        this.metricas = metricas;
+        this.retentativaOtimista = retentativaOtimista;
+        this.outboxService = outboxService;
+        this.resumoSaldoUsuarioService = resumoSaldoUsuarioService;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Processa os itens e entrega os resultados bloco a bloco, somente depois que o bloco foi confirmado.
+     */
+    public void processar(List<ItemLoteRequestDTO> itens, Consumer<List<ItemLoteResponseDTO>> resultados) {
+        for (int inicio = 0; inicio < itens.size(); inicio += tamanhoBloco) {
+            int fim = Math.min(inicio + tamanhoBloco, itens.size());
+            int deslocamento = inicio;
+            List<ItemLoteResponseDTO> bloco = retentativaOtimista.executar("lote", () -> transactionTemplate.execute(status ->
+                    processarBloco(itens.subList(deslocamento, fim), deslocamento)));
+            resultados.accept(bloco);
+        }
+    }
+
+    private List<ItemLoteResponseDTO> processarBloco(List<ItemLoteRequestDTO> itens, int deslocamento) {
+        List<Integer> ordem = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            ordem.add(i);
+        }
+        ordem.sort(Comparator.comparing(i -> itens.get(i).contaId()));
+
+        List<Movimentacao> movimentacoes = new ArrayList<>(itens.size());
+        for (int i : ordem) {
+            ItemLoteRequestDTO item = itens.get(i);
+            movimentacoes.add(new Movimentacao(item.contaId(), item.tipo(), delta(item)));
+        }
+
+        int[] atualizadas = contaRepository.aplicarMovimentacoesEmLote(movimentacoes);
+
+        StatusItemLote[] status = new StatusItemLote[itens.size()];
+        List<Movimentacao> aplicadas = new ArrayList<>(itens.size());
+        for (int i = 0; i < movimentacoes.size(); i++) {
+            Movimentacao movimentacao = movimentacoes.get(i);
+            StatusItemLote statusItem;
+            if (atualizadas[i] > 0) {
+                resumoSaldoUsuarioService.registrarDelta(movimentacao.contaId(), movimentacao.valor());
+                statusItem = StatusItemLote.PROCESSADO;
+            } else {
+                statusItem = reaplicar(movimentacao);
+            }
+            if (statusItem == StatusItemLote.PROCESSADO) {
+                aplicadas.add(movimentacao);
+            }
+            status[ordem.get(i)] = statusItem;
+        }
+        movimentacaoService.registrar(aplicadas);
+        cacheSaldo.invalidarAposCommit(aplicadas.stream().map(Movimentacao::contaId).toList());
+        registrarMetricasEEventos(aplicadas);
+
+        List<ItemLoteResponseDTO> resultados = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            ItemLoteRequestDTO item = itens.get(i);
+            resultados.add(new ItemLoteResponseDTO(deslocamento + i, item.contaId(), item.tipo(), status[i]));
+        }
+        return resultados;
+    }
+
+    /**
+     * O UPDATE em lote não devolve o tipo nem o saldo das contas; o tipo é lido de uma vez para o bloco
+     * e os eventos do outbox saem sem saldo.
+     */
+    private void registrarMetricasEEventos(List<Movimentacao> aplicadas) {
+        if (aplicadas.isEmpty()) {
+            return;
+        }
+        Map<Long, String> tipos = contaRepository.buscarResumos(aplicadas.stream().map(Movimentacao::contaId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(ContaResumoResponseDTO::id, ContaResumoResponseDTO::tipo));
+        List<EventoContaDTO> eventos = new ArrayList<>(aplicadas.size());
+        for (Movimentacao movimentacao : aplicadas) {
+            String tipoConta = tipos.get(movimentacao.contaId());
+            metricas.registrarMovimentacao(movimentacao.tipo(), tipoConta, movimentacao.valor());
+            eventos.add(EventoContaDTO.saldoAlterado(movimentacao.contaId(), tipoConta, movimentacao.tipo(),
+                    movimentacao.valor(), null));
+        }
+        outboxService.registrar(eventos);
+    }
+
+    private StatusItemLote reaplicar(Movimentacao movimentacao) {
+        metricas.registrarRetentativa("lote");
+        try {
+            saldoService.aplicar(movimentacao.contaId(), movimentacao.valor());
+            return StatusItemLote.PROCESSADO;
+        } catch (ContaNaoEncontradaException e) {
+            return StatusItemLote.CONTA_NAO_ENCONTRADA;
+        } catch (SaldoInsuficienteException e) {
+            return StatusItemLote.SALDO_INSUFICIENTE;
+        }
+    }
+
+    private Dinheiro delta(ItemLoteRequestDTO item) {
+        return item.tipo() == TipoMovimentacao.SAQUE ? item.valor().negar() : item.valor();
+    }
+}
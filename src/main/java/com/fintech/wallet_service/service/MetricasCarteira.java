@@ -0,0 +1,147 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.EventoOutbox;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas de negócio das movimentações: volume movimentado por tipo de movimentação e de conta,
+ * retentativas dentro das transações de saldo, conflitos entre requisições simultâneas e conflitos de
+ * versão do modo otimista, com as transações refeitas por causa deles, a publicação dos eventos do
+ * outbox e a manutenção das partições do livro. O volume só é contado depois do commit, para que
+ * transações desfeitas não apareçam nele.
+ */
+@Component
+public class MetricasCarteira {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger mesesParticionados = new AtomicInteger();
+
+    public MetricasCarteira(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("carteira.movimentacoes.particoes.meses_a_frente", mesesParticionados, AtomicInteger::get)
+                .description("Meses seguidos, além do corrente, com partição criada no livro; -1 sem a do mês corrente")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o valor movimentado, em módulo, após o commit da transação atual.
+     */
+    public void registrarMovimentacao(TipoMovimentacao tipo, String tipoConta, Dinheiro valor) {
+        DistributionSummary volume = DistributionSummary.builder("carteira.movimentacoes.valor")
+                .description("Valor das movimentações confirmadas")
+                .baseUnit("BRL")
+                .tag("tipo", tipo.name())
+                .tag("tipo_conta", tipoConta)
+                .register(meterRegistry);
+        double quantia = valor.abs().doubleValue();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            volume.record(quantia);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                volume.record(quantia);
+            }
+        });
+    }
+
+    /**
+     * Uma operação precisou ser refeita dentro da mesma transação, como quando a conta troca de modo
+     * entre o UPDATE e a leitura que decide o que fazer.
+     */
+    public void registrarRetentativa(String operacao) {
+        Counter.builder("carteira.transacao.retentativas")
+                .description("Operações de saldo refeitas dentro da transação")
+                .tag("operacao", operacao)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Uma transação do modo otimista encontrou a conta alterada por outra desde que a leu.
+     */
+    public void registrarConflitoVersao(String operacao) {
+        Counter.builder("carteira.otimista.conflitos")
+                .description("Transações de saldo que perderam a conferência de versão")
+                .tag("operacao", operacao)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void registrarRetentativaVersao(String operacao) {
+        Counter.builder("carteira.otimista.retentativas")
+                .description("Transações de saldo refeitas após um conflito de versão")
+                .tag("operacao", operacao)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Quantidade de depósitos confirmados juntos por um commit do {@link AgrupadorDepositos}.
+     */
+    public void registrarGrupoDepositos(int depositos) {
+        DistributionSummary.builder("carteira.deposito.agrupamento.tamanho")
+                .description("Depósitos aplicados em uma mesma transação")
+                .register(meterRegistry)
+                .record(depositos);
+    }
+
+    /**
+     * Eventos do outbox publicados e confirmados, com o tempo entre a gravação de cada um e a publicação.
+     */
+    public void registrarEventosPublicados(List<EventoOutbox> eventos) {
+        Counter.builder("carteira.outbox.publicados")
+                .description("Eventos do outbox publicados no destino")
+                .register(meterRegistry)
+                .increment(eventos.size());
+        Timer latencia = Timer.builder("carteira.outbox.latencia")
+                .description("Tempo entre a gravação do evento no outbox e a sua publicação")
+                .register(meterRegistry);
+        OffsetDateTime agora = OffsetDateTime.now();
+        for (EventoOutbox evento : eventos) {
+            latencia.record(Duration.between(evento.dataCriacao(), agora));
+        }
+    }
+
+    public void registrarFalhaOutbox() {
+        Counter.builder("carteira.outbox.falhas")
+                .description("Rodadas do relay do outbox interrompidas por falha ao publicar")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void registrarMesesParticionados(int meses) {
+        mesesParticionados.set(meses);
+    }
+
+    public void registrarFalhaParticionamento() {
+        Counter.builder("carteira.movimentacoes.particoes.falhas")
+                .description("Rodadas da manutenção das partições do livro interrompidas por falha")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void registrarConflito(String motivo) {
+        Counter.builder("carteira.transacao.conflitos")
+                .description("Requisições recusadas por conflito com outra simultânea ou anterior")
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,19 @@
+package com.fintech.wallet_service.service;
+
+/**
+ * Como depósitos, saques e transferências tratam escritas simultâneas na mesma conta.
+ */
+public enum ModoConcorrenciaSaldo {
+
+    /**
+     * UPDATE condicional direto no banco, que espera o lock da linha; transferências bloqueiam as
+     * duas contas antes de alterá-las.
+     */
+    ATOMICO,
+
+    /**
+     * Lê a conta, altera a entidade e grava conferindo a versão; um conflito desfaz a transação, que
+     * é refeita com espera aleatória crescente até o limite de tentativas.
+     */
+    OTIMISTA
+}
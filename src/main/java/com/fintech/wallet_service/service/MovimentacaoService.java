@@ -0,0 +1,36 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.Movimentacao;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.repository.MovimentacaoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Registra no livro as movimentações aplicadas ao saldo. Sempre roda dentro da transação
+ * que alterou o saldo, para que livro e saldo nunca divirjam.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class MovimentacaoService {
+
+    private final MovimentacaoRepository movimentacaoRepository;
+
+    public MovimentacaoService(MovimentacaoRepository movimentacaoRepository) {
+        this.movimentacaoRepository = movimentacaoRepository;
+    }
+
+    public void registrar(Long contaId, TipoMovimentacao tipo, Dinheiro valor) {
+        registrar(List.of(new Movimentacao(contaId, tipo, valor)));
+    }
+
+    public void registrar(List<Movimentacao> movimentacoes) {
+        if (!movimentacoes.isEmpty()) {
+            movimentacaoRepository.inserir(movimentacoes);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.fintech.wallet_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet_service.dto.EventoContaDTO;
+import com.fintech.wallet_service.entity.TipoEventoConta;
+import com.fintech.wallet_service.repository.OutboxRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Grava os eventos de conta no outbox logo antes do commit da transação que alterou a conta; o
+ * {@link RelayOutbox} os publica depois. A conta fica travada até o commit, então os ids seguem a ordem
+ * dos commits. Créditos em modo quente travam só um slot e saem sem saldo.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final boolean habilitado;
+    private final int particoes;
+
+    public OutboxService(OutboxRepository outboxRepository, ObjectMapper objectMapper, EntityManager entityManager,
+                         @Value("${carteira.outbox.habilitado:false}") boolean habilitado,
+                         @Value("${carteira.outbox.particoes:16}") int particoes) {
+        if (particoes < 1) {
+            throw new IllegalArgumentException("carteira.outbox.particoes deve ser positivo");
+        }
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.habilitado = habilitado;
+        this.particoes = particoes;
+    }
+
+    public void registrar(EventoContaDTO evento) {
+        registrar(List.of(evento));
+    }
+
+    public void registrar(List<EventoContaDTO> eventos) {
+        if (!habilitado || eventos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            gravar(eventos);
+            return;
+        }
+        pendentes().addAll(eventos);
+    }
+
+    private List<EventoContaDTO> pendentes() {
+        @SuppressWarnings("unchecked")
+        List<EventoContaDTO> pendentes = (List<EventoContaDTO>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes != null) {
+            return pendentes;
+        }
+
+        List<EventoContaDTO> novos = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, novos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                gravar(novos);
+            }
+
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(OutboxService.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(OutboxService.this, novos);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+            }
+        });
+        return novos;
+    }
+
+    private void gravar(List<EventoContaDTO> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        // No modo otimista o UPDATE da conta só sai no flush; ele precisa bloquear a linha antes do INSERT
+        try {
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            DataAccessException traduzida = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+            throw traduzida != null ? traduzida : e;
+        }
+
+        Set<Long> quentes = buscarContasModoQuente(eventos);
+        List<OutboxRepository.Novo> novos = new ArrayList<>(eventos.size());
+        for (EventoContaDTO evento : eventos) {
+            if (quentes.contains(evento.contaId()) && creditoComSaldo(evento)) {
+                evento = new EventoContaDTO(evento.contaId(), evento.tipo(), evento.usuarioId(), evento.tipoConta(),
+                        evento.movimentacao(), evento.valor(), null, evento.data());
+            }
+            novos.add(new OutboxRepository.Novo(evento.contaId(), particao(evento.contaId()), evento.tipo(),
+                    serializar(evento)));
+        }
+        outboxRepository.inserir(novos);
+    }
+
+    private Set<Long> buscarContasModoQuente(List<EventoContaDTO> eventos) {
+        Set<Long> creditadas = new HashSet<>();
+        for (EventoContaDTO evento : eventos) {
+            if (creditoComSaldo(evento)) {
+                creditadas.add(evento.contaId());
+            }
+        }
+        return creditadas.isEmpty() ? Set.of() : outboxRepository.buscarContasModoQuente(creditadas);
+    }
+
+    private static boolean creditoComSaldo(EventoContaDTO evento) {
+        return evento.tipo() == TipoEventoConta.SALDO_ALTERADO && evento.saldo() != null && evento.valor().signum() > 0;
+    }
+
+    private int particao(Long contaId) {
+        return (int) Math.floorMod(contaId, (long) particoes);
+    }
+
+    private String serializar(EventoContaDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento da conta " + evento.contaId() + " não pôde ser serializado", e);
+        }
+    }
+}
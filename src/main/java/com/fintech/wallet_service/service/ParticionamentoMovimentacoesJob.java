@@ -0,0 +1,144 @@
+package com.fintech.wallet_service.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Mantém as partições mensais do livro de movimentações: cria com antecedência as dos próximos
+ * meses e, se houver retenção configurada, desanexa as mais antigas. Desanexar não apaga nada: a
+ * partição vira uma tabela comum, que pode ser arquivada ou removida sem DELETE no livro. Os saldos
+ * continuam corretos porque partem de checkpoints bem mais recentes que a retenção.
+ * <p>
+ * O livro não tem partição padrão (ela impediria o DETACH CONCURRENTLY), então um mês sem partição
+ * recusa lançamentos. Por isso a aplicação não sobe sem a partição do mês corrente, e cada rodada
+ * publica quantos meses à frente estão cobertos e conta as falhas, para alertar bem antes disso.
+ */
+@Component
+public class ParticionamentoMovimentacoesJob {
+
+    private static final Logger logger = Logger.getLogger(ParticionamentoMovimentacoesJob.class.getName());
+
+    private static final String PREFIXO = "movimentacoes_";
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // Chave do advisory lock que impede duas instâncias de manterem as partições ao mesmo tempo
+    private static final int BLOQUEIO_MANUTENCAO = 17_001;
+
+    private static final String PARTICOES_MENSAIS = """
+            SELECT c.relname
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'movimentacoes'::regclass
+               AND NOT i.inhdetachpending
+               AND c.relname ~ '^movimentacoes_[0-9]{4}_[0-9]{2}$'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricasCarteira metricas;
+    private final int mesesAFrente;
+    private final int retencaoMeses;
+
+    public ParticionamentoMovimentacoesJob(JdbcTemplate jdbcTemplate,
+                                           MetricasCarteira metricas,
+                                           @Value("${carteira.movimentacoes.particoes-a-frente:3}") int mesesAFrente,
+                                           @Value("${carteira.movimentacoes.retencao-meses:0}") int retencaoMeses) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricas = metricas;
+        this.mesesAFrente = mesesAFrente;
+        this.retencaoMeses = retencaoMeses;
+    }
+
+    @PostConstruct
+    public void verificarNaInicializacao() {
+        if (manterEMedir() < 0) {
+            throw new IllegalStateException("Livro de movimentações sem partição para o mês corrente; "
+                    + "nenhum lançamento poderia ser gravado");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${carteira.movimentacoes.manutencao.intervalo:PT12H}")
+    public void manter() {
+        manterEMedir();
+    }
+
+    /**
+     * Cria e desanexa as partições, se nenhuma outra instância estiver fazendo o mesmo, e devolve
+     * quantos meses além do corrente estão particionados (-1 se nem o corrente estiver).
+     */
+    private int manterEMedir() {
+        try {
+            // O advisory lock é de sessão, então toda a manutenção roda na mesma conexão, fora de transação
+            jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+                manterComBloqueio(new JdbcTemplate(new SingleConnectionDataSource(conexao, true)));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            metricas.registrarFalhaParticionamento();
+            logger.log(Level.SEVERE, "Falha ao manter as partições do livro de movimentações", e);
+        }
+
+        int meses = mesesParticionadosAFrente();
+        metricas.registrarMesesParticionados(meses);
+        if (meses < mesesAFrente) {
+            logger.warning("Livro de movimentações particionado só até " + meses + " mês(es) à frente; esperado "
+                    + mesesAFrente);
+        }
+        return meses;
+    }
+
+    private void manterComBloqueio(JdbcTemplate conexao) {
+        if (!Boolean.TRUE.equals(conexao.queryForObject("SELECT pg_try_advisory_lock(?, 0)", Boolean.class,
+                BLOQUEIO_MANUTENCAO))) {
+            return;
+        }
+        try {
+            conexao.execute("SELECT criar_particoes_movimentacoes(" + mesesAFrente + ")");
+            if (retencaoMeses > 0) {
+                desanexarAnterioresA(conexao, YearMonth.now(ZoneOffset.UTC).minusMonths(retencaoMeses));
+            }
+        } finally {
+            conexao.queryForObject("SELECT pg_advisory_unlock(?, 0)", Boolean.class, BLOQUEIO_MANUTENCAO);
+        }
+    }
+
+    /**
+     * Desanexa as partições mensais anteriores a {@code limite}. Cada uma sai com DETACH CONCURRENTLY,
+     * que não bloqueia inserções nem leituras do livro; por isso roda fora de transação.
+     */
+    private void desanexarAnterioresA(JdbcTemplate conexao, YearMonth limite) {
+        List<String> particoes = conexao.queryForList(PARTICOES_MENSAIS, String.class);
+        for (String particao : particoes) {
+            YearMonth mes = YearMonth.parse(particao.substring(PREFIXO.length()), FORMATO_MES);
+            if (mes.isBefore(limite)) {
+                conexao.execute("ALTER TABLE movimentacoes DETACH PARTITION " + particao + " CONCURRENTLY");
+                logger.info("Partição " + particao + " desanexada do livro de movimentações");
+            }
+        }
+    }
+
+    private int mesesParticionadosAFrente() {
+        Set<String> particoes = new HashSet<>(jdbcTemplate.queryForList(PARTICOES_MENSAIS, String.class));
+        YearMonth mes = YearMonth.now(ZoneOffset.UTC);
+        int meses = -1;
+        while (particoes.contains(PREFIXO + mes.format(FORMATO_MES))) {
+            meses++;
+            mes = mes.plusMonths(1);
+        }
+        return meses;
+    }
+}
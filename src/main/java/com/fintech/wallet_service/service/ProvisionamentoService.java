@@ -0,0 +1,121 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.config.mapper.ContaMapper;
+import com.fintech.wallet_service.config.service.UsuarioServiceCliente;
+import com.fintech.wallet_service.dto.ContaRequestDTO;
+import com.fintech.wallet_service.dto.EventoContaDTO;
+import com.fintech.wallet_service.dto.ProvisionamentoResponseDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.repository.ContaRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Cria contas em massa. Os usuários são verificados todos antes de qualquer gravação, e as contas
+ * são gravadas em blocos, cada bloco em sua própria transação com INSERTs em lote JDBC (os ids vêm
+ * do pool da sequence, sem ida ao banco por linha). O provisionamento não é atômico: se um bloco
+ * falhar, os anteriores continuam gravados.
+ */
+@Service
+@Timed("carteira.servico")
+public class ProvisionamentoService {
+
+    private static final Logger logger = Logger.getLogger(ProvisionamentoService.class.getName());
+
+    private final ContaRepository contaRepository;
+    private final ContaMapper contaMapper;
+    private final UsuarioServiceCliente usuarioServiceCliente;
+    private final GeradorNumeroConta geradorNumeroConta;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final OutboxService outboxService;
+    private final ResumoSaldoUsuarioService resumoSaldoUsuarioService;
+    private final int tamanhoBloco;
+
+    public ProvisionamentoService(ContaRepository contaRepository, ContaMapper contaMapper,
+                                  UsuarioServiceCliente usuarioServiceCliente, GeradorNumeroConta geradorNumeroConta,
+                                  TransactionTemplate transactionTemplate, EntityManager entityManager,
+                                  OutboxService outboxService, ResumoSaldoUsuarioService resumoSaldoUsuarioService,
+                                  @Value("${carteira.provisionamento.tamanho-bloco:1000}") int tamanhoBloco) {
+        this.contaRepository = contaRepository;
+        this.contaMapper = contaMapper;
+        this.usuarioServiceCliente = usuarioServiceCliente;
+        this.geradorNumeroConta = geradorNumeroConta;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.outboxService = outboxService;
+        this.resumoSaldoUsuarioService = resumoSaldoUsuarioService;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    public ProvisionamentoResponseDTO provisionar(List<ContaRequestDTO> contas) {
+        long inicio = System.nanoTime();
+
+        Map<Long, Boolean> usuarios = usuarioServiceCliente.verificarUsuarios(
+                contas.stream().map(ContaRequestDTO::usuarioId).toList());
+
+        List<Conta> bloco = new ArrayList<>(tamanhoBloco);
+        int criadas = 0;
+        int tiposInvalidos = 0;
+
+        for (ContaRequestDTO contaRequestDTO : contas) {
+            if (!usuarios.get(contaRequestDTO.usuarioId())) {
+                continue;
+            }
+
+            Conta conta;
+            try {
+                conta = contaMapper.toEntity(contaRequestDTO);
+            } catch (IllegalArgumentException e) {
+                tiposInvalidos++;
+                continue;
+            }
+            conta.setNumeroConta(geradorNumeroConta.gerar());
+            conta.setSaldo(Dinheiro.ZERO);
+            conta.setAtiva(true);
+            bloco.add(conta);
+
+            if (bloco.size() == tamanhoBloco) {
+                criadas += gravar(bloco);
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            criadas += gravar(bloco);
+        }
+
+        List<Long> usuariosNaoEncontrados = usuarios.entrySet().stream()
+                .filter(usuario -> !usuario.getValue())
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        logger.info("Provisionamento: " + criadas + " de " + contas.size() + " contas criadas em " + duracaoMs + " ms");
+        return new ProvisionamentoResponseDTO(contas.size(), criadas, usuariosNaoEncontrados, tiposInvalidos, duracaoMs);
+    }
+
+    private int gravar(List<Conta> contas) {
+        transactionTemplate.executeWithoutResult(status -> {
+            contaRepository.saveAll(contas);
+            contas.forEach(conta -> resumoSaldoUsuarioService.registrarContaNova(conta.getId()));
+            outboxService.registrar(contas.stream()
+                    .map(conta -> EventoContaDTO.contaCriada(conta.getId(), conta.getUsuarioId(), conta.getTipo().name()))
+                    .toList());
+            // Com open-in-view o contexto de persistência dura a requisição inteira; sem o clear ele
+            // acumularia todas as contas provisionadas
+            entityManager.flush();
+            entityManager.clear();
+        });
+        return contas.size();
+    }
+}
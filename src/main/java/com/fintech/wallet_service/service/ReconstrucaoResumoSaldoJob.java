@@ -0,0 +1,79 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.repository.ResumoSaldoUsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Reconstrói periodicamente o resumo de saldo dos usuários a partir de {@code contas}, para reparar
+ * divergências deixadas por alterações feitas fora do serviço. Os usuários são divididos em faixas com
+ * quantidades parecidas de contas, recalculadas em paralelo, cada uma em sua própria transação; as
+ * alterações de saldo das contas da faixa esperam só pelo recálculo dela.
+ */
+@Component
+public class ReconstrucaoResumoSaldoJob {
+
+    private static final Logger logger = Logger.getLogger(ReconstrucaoResumoSaldoJob.class.getName());
+
+    private final ResumoSaldoUsuarioRepository resumoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int faixas;
+    private final int paralelismo;
+
+    public ReconstrucaoResumoSaldoJob(ResumoSaldoUsuarioRepository resumoRepository, TransactionTemplate transactionTemplate,
+                                      @Value("${carteira.resumo-usuario.reconstrucao.faixas:64}") int faixas,
+                                      @Value("${carteira.resumo-usuario.reconstrucao.paralelismo:4}") int paralelismo) {
+        if (faixas < 1 || paralelismo < 1) {
+            throw new IllegalArgumentException("carteira.resumo-usuario.reconstrucao: faixas e paralelismo devem ser positivos");
+        }
+        this.resumoRepository = resumoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.faixas = faixas;
+        this.paralelismo = paralelismo;
+    }
+
+    @Scheduled(fixedDelayString = "${carteira.resumo-usuario.reconstrucao.intervalo:PT24H}",
+            initialDelayString = "${carteira.resumo-usuario.reconstrucao.intervalo:PT24H}")
+    public void agendada() throws InterruptedException, ExecutionException {
+        reconstruir();
+    }
+
+    /**
+     * Recalcula o resumo de todos os usuários e devolve quantas linhas estavam divergentes.
+     */
+    public int reconstruir() throws InterruptedException, ExecutionException {
+        List<Long> limites = resumoRepository.buscarLimitesFaixas(faixas);
+        int corrigidas = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(paralelismo,
+                Thread.ofVirtual().name("reconstrucao-resumo-", 0).factory())) {
+            List<Future<Integer>> resultados = new ArrayList<>(limites.size());
+            for (int i = 0; i < limites.size(); i++) {
+                long inicio = limites.get(i);
+                long fim = i + 1 < limites.size() ? limites.get(i + 1) : Long.MAX_VALUE;
+                resultados.add(executor.submit(() -> recalcular(inicio, fim)));
+            }
+            for (Future<Integer> resultado : resultados) {
+                corrigidas += resultado.get();
+            }
+        }
+        if (corrigidas > 0) {
+            logger.warning("Resumo de saldo reconstruído: " + corrigidas + " linha(s) divergiam das contas");
+        }
+        return corrigidas;
+    }
+
+    private int recalcular(long inicio, long fim) {
+        transactionTemplate.executeWithoutResult(status -> resumoRepository.criarFaltantes(inicio, fim));
+        return transactionTemplate.execute(status -> resumoRepository.recalcular(inicio, fim));
+    }
+}
@@ -0,0 +1,149 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.entity.EventoOutbox;
+import com.fintech.wallet_service.repository.OutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publica os eventos do outbox no {@link DestinoEventos}. A cada rodada, {@code consumidores} threads
+ * virtuais disputam as partições com eventos pendentes: cada uma bloqueia uma partição com SKIP LOCKED,
+ * publica até {@code lote} eventos dela em ordem de id e os apaga na mesma transação, até não sobrar
+ * partição livre com eventos. Como uma partição só é drenada por um consumidor de cada vez, inclusive
+ * entre instâncias, e o {@link OutboxService} grava os eventos de uma conta na ordem dos commits, os
+ * eventos de cada conta são publicados nessa ordem. Só créditos simultâneos de uma conta em modo quente,
+ * que comutam entre si e vêm sem saldo, podem sair em qualquer ordem uns em relação aos outros.
+ * A entrega é pelo menos uma vez: se o commit falhar depois da publicação, o lote é publicado de novo.
+ * Quando o destino falha, o relay para de drenar por uma espera que dobra a cada falha seguida.
+ */
+@Component
+@ConditionalOnProperty(name = "carteira.outbox.habilitado", havingValue = "true")
+public class RelayOutbox {
+
+    private static final Logger logger = Logger.getLogger(RelayOutbox.class.getName());
+
+    private final OutboxRepository outboxRepository;
+    private final DestinoEventos destino;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricasCarteira metricas;
+    private final int particoes;
+    private final int lote;
+    private final int consumidores;
+    private final Duration esperaFalha;
+    private final Duration esperaFalhaMaxima;
+    private boolean particoesCriadas;
+    private int falhasSeguidas;
+    private volatile long pausadoAte;
+
+    public RelayOutbox(OutboxRepository outboxRepository, DestinoEventos destino, TransactionTemplate transactionTemplate,
+                       MetricasCarteira metricas, MeterRegistry meterRegistry,
+                       @Value("${carteira.outbox.particoes:16}") int particoes,
+                       @Value("${carteira.outbox.relay.lote:500}") int lote,
+                       @Value("${carteira.outbox.relay.consumidores:4}") int consumidores,
+                       @Value("${carteira.outbox.relay.espera-falha:PT1S}") Duration esperaFalha,
+                       @Value("${carteira.outbox.relay.espera-falha-maxima:PT30S}") Duration esperaFalhaMaxima) {
+        if (lote < 1 || consumidores < 1) {
+            throw new IllegalArgumentException("carteira.outbox.relay: lote e consumidores devem ser positivos");
+        }
+        this.outboxRepository = outboxRepository;
+        this.destino = destino;
+        this.transactionTemplate = transactionTemplate;
+        this.metricas = metricas;
+        this.particoes = particoes;
+        this.lote = lote;
+        this.consumidores = consumidores;
+        this.esperaFalha = esperaFalha;
+        this.esperaFalhaMaxima = esperaFalhaMaxima;
+        this.pausadoAte = System.nanoTime();
+
+        Gauge.builder("carteira.outbox.atraso", this, RelayOutbox::atrasoSegundos)
+                .description("Idade do evento mais antigo ainda não publicado")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${carteira.outbox.relay.intervalo:PT0.2S}")
+    public void drenar() {
+        if (System.nanoTime() - pausadoAte < 0) {
+            return;
+        }
+        if (!particoesCriadas) {
+            outboxRepository.criarParticoes(particoes);
+            particoesCriadas = true;
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (executor) {
+            for (int i = 0; i < consumidores; i++) {
+                executor.submit(this::consumir);
+            }
+        }
+    }
+
+    private void consumir() {
+        while (System.nanoTime() - pausadoAte >= 0) {
+            List<EventoOutbox> publicados;
+            try {
+                publicados = transactionTemplate.execute(status -> drenarParticao());
+            } catch (RuntimeException e) {
+                pausar(e);
+                return;
+            }
+            if (publicados.isEmpty()) {
+                return;
+            }
+            zerarFalhas();
+            metricas.registrarEventosPublicados(publicados);
+        }
+    }
+
+    private List<EventoOutbox> drenarParticao() {
+        Integer particao = outboxRepository.reservarParticao().orElse(null);
+        if (particao == null) {
+            return List.of();
+        }
+        List<EventoOutbox> eventos = outboxRepository.buscar(particao, lote);
+        if (!eventos.isEmpty()) {
+            destino.publicar(eventos);
+            outboxRepository.concluirDrenagem(particao, eventos);
+        }
+        return eventos;
+    }
+
+    private void pausar(RuntimeException e) {
+        metricas.registrarFalhaOutbox();
+        Duration espera;
+        synchronized (this) {
+            espera = esperaFalha.multipliedBy(1L << Math.min(falhasSeguidas, 20));
+            if (espera.compareTo(esperaFalhaMaxima) > 0) {
+                espera = esperaFalhaMaxima;
+            }
+            falhasSeguidas++;
+            pausadoAte = System.nanoTime() + espera.toNanos();
+        }
+        logger.log(Level.WARNING, "Falha ao publicar eventos do outbox; nova tentativa em " + espera, e);
+    }
+
+    private synchronized void zerarFalhas() {
+        falhasSeguidas = 0;
+    }
+
+    private double atrasoSegundos() {
+        return outboxRepository.buscarMaisAntigo()
+                .map(dataCriacao -> Math.max(0, Duration.between(dataCriacao, OffsetDateTime.now()).toMillis() / 1000.0))
+                .orElse(0.0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ResumoSaldoUsuarioResponseDTO;
+import com.fintech.wallet_service.dto.SaldoPorTipoContaDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.repository.ResumoSaldoUsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Resumo do saldo de cada usuário por tipo de conta. Os deltas da transação são acumulados e aplicados
+ * de uma vez antes do commit, depois do flush, então as linhas do resumo são sempre travadas depois
+ * das contas. Cada transação soma a um slot sorteado, como nas contas em modo quente.
+ */
+@Service
+public class ResumoSaldoUsuarioService {
+
+    private final ResumoSaldoUsuarioRepository resumoRepository;
+    private final EntityManager entityManager;
+    private final int slots;
+
+    public ResumoSaldoUsuarioService(ResumoSaldoUsuarioRepository resumoRepository, EntityManager entityManager,
+                                     @Value("${carteira.resumo-usuario.slots:8}") int slots) {
+        if (slots < 1 || slots > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("carteira.resumo-usuario.slots deve estar entre 1 e " + Short.MAX_VALUE);
+        }
+        this.resumoRepository = resumoRepository;
+        this.entityManager = entityManager;
+        this.slots = slots;
+    }
+
+    public ResumoSaldoUsuarioResponseDTO buscar(Long usuarioId) {
+        List<SaldoPorTipoContaDTO> porTipo = resumoRepository.buscarPorUsuario(usuarioId);
+        long centavos = 0;
+        int quantidade = 0;
+        for (SaldoPorTipoContaDTO tipo : porTipo) {
+            centavos = Math.addExact(centavos, tipo.saldo().centavos());
+            quantidade += tipo.quantidadeContas();
+        }
+        return new ResumoSaldoUsuarioResponseDTO(usuarioId, Dinheiro.deCentavos(centavos), quantidade, porTipo);
+    }
+
+    public void registrarDelta(Long contaId, Dinheiro delta) {
+        registrar(contaId, delta.centavos(), 0);
+    }
+
+    public void registrarContaNova(Long contaId) {
+        registrar(contaId, 0, 1);
+    }
+
+    private void registrar(Long contaId, long centavos, int contasNovas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            resumoRepository.aplicar(sortearSlot(), new Long[]{contaId}, new Long[]{centavos},
+                    new Integer[]{contasNovas});
+            return;
+        }
+        Delta delta = pendentes().computeIfAbsent(contaId, id -> new Delta());
+        delta.centavos = Math.addExact(delta.centavos, centavos);
+        delta.contasNovas += contasNovas;
+    }
+
+    private SortedMap<Long, Delta> pendentes() {
+        @SuppressWarnings("unchecked")
+        SortedMap<Long, Delta> pendentes = (SortedMap<Long, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes != null) {
+            return pendentes;
+        }
+
+        SortedMap<Long, Delta> novos = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, novos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Contas antes do resumo; o conflito de versão é traduzido como no commit
+                try {
+                    entityManager.flush();
+                } catch (RuntimeException e) {
+                    DataAccessException traduzida = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+                    throw traduzida != null ? traduzida : e;
+                }
+                aplicar(novos);
+            }
+
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(ResumoSaldoUsuarioService.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(ResumoSaldoUsuarioService.this, novos);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ResumoSaldoUsuarioService.this);
+            }
+        });
+        return novos;
+    }
+
+    private void aplicar(SortedMap<Long, Delta> pendentes) {
+        pendentes.values().removeIf(delta -> delta.centavos == 0 && delta.contasNovas == 0);
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        Long[] contaIds = new Long[pendentes.size()];
+        Long[] centavos = new Long[pendentes.size()];
+        Integer[] contasNovas = new Integer[pendentes.size()];
+        int i = 0;
+        for (Map.Entry<Long, Delta> entrada : pendentes.entrySet()) {
+            contaIds[i] = entrada.getKey();
+            centavos[i] = entrada.getValue().centavos;
+            contasNovas[i] = entrada.getValue().contasNovas;
+            i++;
+        }
+        resumoRepository.aplicar(sortearSlot(), contaIds, centavos, contasNovas);
+    }
+
+    private int sortearSlot() {
+        return ThreadLocalRandom.current().nextInt(slots);
+    }
+
+    private static final class Delta {
+
+        private long centavos;
+        private int contasNovas;
+    }
+}
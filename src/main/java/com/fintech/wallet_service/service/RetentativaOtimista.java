@@ -0,0 +1,74 @@
+package com.fintech.wallet_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Refaz uma transação inteira quando ela perde a conferência de versão no modo
+ * {@link ModoConcorrenciaSaldo#OTIMISTA}. Antes de cada nova tentativa espera um tempo sorteado entre
+ * zero e um teto que dobra a cada conflito, para que as requisições que colidiram não voltem juntas.
+ * Esgotadas as tentativas, o conflito é propagado e vira 409. No modo atômico a operação roda uma vez.
+ */
+@Component
+public class RetentativaOtimista {
+
+    private final ModoConcorrenciaSaldo modo;
+    private final int tentativas;
+    private final long esperaInicialNanos;
+    private final long esperaMaximaNanos;
+    private final MetricasCarteira metricas;
+
+    public RetentativaOtimista(MetricasCarteira metricas,
+                               @Value("${carteira.saldo.concorrencia:ATOMICO}") ModoConcorrenciaSaldo modo,
+                               @Value("${carteira.saldo.otimista.tentativas:5}") int tentativas,
+                               @Value("${carteira.saldo.otimista.espera-inicial:PT0.002S}") Duration esperaInicial,
+                               @Value("${carteira.saldo.otimista.espera-maxima:PT0.05S}") Duration esperaMaxima) {
+        if (tentativas < 1) {
+            throw new IllegalArgumentException("carteira.saldo.otimista.tentativas deve ser maior que zero");
+        }
+        this.metricas = metricas;
+        this.modo = modo;
+        this.tentativas = tentativas;
+        this.esperaInicialNanos = esperaInicial.toNanos();
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    /**
+     * Executa a operação, que deve abrir e confirmar a própria transação.
+     */
+    public <T> T executar(String operacao, Supplier<T> transacao) {
+        if (modo != ModoConcorrenciaSaldo.OTIMISTA) {
+            return transacao.get();
+        }
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transacao.get();
+            } catch (OptimisticLockingFailureException e) {
+                metricas.registrarConflitoVersao(operacao);
+                if (tentativa == tentativas) {
+                    throw e;
+                }
+                esperar(tentativa);
+                metricas.registrarRetentativaVersao(operacao);
+            }
+        }
+    }
+
+    private void esperar(int tentativa) {
+        long teto = Math.min(esperaMaximaNanos, esperaInicialNanos << Math.min(tentativa - 1, 20));
+        if (teto <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(teto + 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava nova tentativa", e);
+        }
+    }
+}
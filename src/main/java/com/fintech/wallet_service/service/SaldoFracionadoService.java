@@ -0,0 +1,136 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.ContaSaldoSlot;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.exception.SaldoInsuficienteException;
+import com.fintech.wallet_service.repository.ContaRepository;
+import com.fintech.wallet_service.repository.ContaSaldoSlotRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Operações sobre contas em modo quente, cujo saldo é dividido em N slots para que
+ * créditos concorrentes não disputem o lock da mesma linha de {@code contas}.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY,
+        noRollbackFor = {ContaNaoEncontradaException.class, SaldoInsuficienteException.class})
+public class SaldoFracionadoService {
+
+    private final ContaRepository contaRepository;
+    private final ContaSaldoSlotRepository slotRepository;
+    private final CacheSaldo cacheSaldo;
+
+    public SaldoFracionadoService(ContaRepository contaRepository, ContaSaldoSlotRepository slotRepository,
+                                  CacheSaldo cacheSaldo) {
+        this.contaRepository = contaRepository;
+        this.slotRepository = slotRepository;
+        this.cacheSaldo = cacheSaldo;
+    }
+
+    /**
+     * Credita o valor em um slot sorteado. Retorna {@code false} quando o slot não existe mais,
+     * ou seja, quando a conta saiu do modo quente depois de {@code slots} ter sido lido.
+     */
+    public boolean creditar(Long contaId, int slots, Dinheiro valor) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        return slotRepository.creditar(contaId, slot, valor) == 1;
+    }
+
+    /**
+     * Debita o valor consumindo primeiro {@code contas.saldo} e depois os slots em ordem crescente.
+     * Retorna vazio quando a conta não está mais em modo quente. O modo é conferido com a linha já
+     * bloqueada e antes de a entidade ser carregada, para não deixar uma {@link Conta} desatualizada
+     * no contexto de persistência quando o chamador volta ao caminho normal. As contas são feitas em
+     * centavos, sem criar um {@link Dinheiro} por soma; só os saldos alterados viram objetos novos.
+     */
+    public Optional<SaldoFracionado> debitar(Long contaId, Dinheiro valor) {
+        int quantidadeSlots = contaRepository.bloquearSlotsSaldo(contaId)
+                .orElseThrow(() -> new ContaNaoEncontradaException(contaId));
+        if (quantidadeSlots == 0) {
+            return Optional.empty();
+        }
+        Conta conta = contaRepository.findById(contaId)
+                .orElseThrow(() -> new ContaNaoEncontradaException(contaId));
+
+        List<ContaSaldoSlot> slots = slotRepository.buscarParaAtualizacao(contaId);
+        long disponivel = conta.getSaldo().centavos();
+        for (ContaSaldoSlot slot : slots) {
+            disponivel = Math.addExact(disponivel, slot.getSaldo().centavos());
+        }
+        long debito = valor.centavos();
+        if (disponivel < debito) {
+            throw new SaldoInsuficienteException(contaId);
+        }
+
+        long retiradoDaConta = Math.min(conta.getSaldo().centavos(), debito);
+        if (retiradoDaConta > 0) {
+            conta.setSaldo(Dinheiro.deCentavos(conta.getSaldo().centavos() - retiradoDaConta));
+        }
+        long restante = debito - retiradoDaConta;
+
+        for (ContaSaldoSlot slot : slots) {
+            if (restante == 0) {
+                break;
+            }
+            long retirado = Math.min(slot.getSaldo().centavos(), restante);
+            if (retirado > 0) {
+                slot.setSaldo(Dinheiro.deCentavos(slot.getSaldo().centavos() - retirado));
+                restante -= retirado;
+            }
+        }
+
+        return Optional.of(new SaldoFracionado(conta, Dinheiro.deCentavos(disponivel - debito)));
+    }
+
+    /**
+     * Coloca a conta em modo quente com a quantidade de slots informada. Se a conta já estiver
+     * em modo quente, os slots atuais são consolidados e o saldo redistribuído na nova quantidade.
+     */
+    public SaldoFracionado ativar(Long contaId, int quantidadeSlots) {
+        Conta conta = contaRepository.buscarParaAtualizacao(contaId)
+                .orElseThrow(() -> new ContaNaoEncontradaException(contaId));
+
+        Dinheiro saldoTotal = conta.getSaldo();
+        if (conta.isModoQuente()) {
+            saldoTotal = saldoTotal.somar(slotRepository.removerTodos(contaId));
+        }
+
+        List<ContaSaldoSlot> slots = new ArrayList<>(quantidadeSlots);
+        for (int slot = 0; slot < quantidadeSlots; slot++) {
+            slots.add(new ContaSaldoSlot(contaId, slot, slot == 0 ? saldoTotal : Dinheiro.ZERO));
+        }
+        slotRepository.saveAll(slots);
+
+        conta.setSaldo(Dinheiro.ZERO);
+        conta.setSlotsSaldo(quantidadeSlots);
+        cacheSaldo.invalidarAposCommit(contaId);
+        return new SaldoFracionado(conta, saldoTotal);
+    }
+
+    /**
+     * Consolida os slots de volta em {@code contas.saldo} e tira a conta do modo quente.
+     */
+    public SaldoFracionado desativar(Long contaId) {
+        Conta conta = contaRepository.buscarParaAtualizacao(contaId)
+                .orElseThrow(() -> new ContaNaoEncontradaException(contaId));
+
+        if (conta.isModoQuente()) {
+            conta.setSaldo(conta.getSaldo().somar(slotRepository.removerTodos(contaId)));
+            conta.setSlotsSaldo(0);
+            cacheSaldo.invalidarAposCommit(contaId);
+        }
+        return new SaldoFracionado(conta, conta.getSaldo());
+    }
+
+    public record SaldoFracionado(Conta conta, Dinheiro saldoTotal) {
+    }
+}
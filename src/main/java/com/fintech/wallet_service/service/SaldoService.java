@@ -0,0 +1,171 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.config.mapper.ContaMapper;
+import com.fintech.wallet_service.dto.EventoContaDTO;
+import com.fintech.wallet_service.dto.SaldoResponseDTO;
+import com.fintech.wallet_service.dto.TransferenciaResponseDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.Movimentacao;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.exception.SaldoInsuficienteException;
+import com.fintech.wallet_service.repository.ContaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Aplica deltas ao saldo das contas, tanto no modo normal quanto no modo quente. Roda sempre dentro
+ * da transação do chamador; conta inexistente e saldo insuficiente não marcam essa transação para
+ * rollback, já que nada foi alterado quando são lançadas, o que permite ao processamento em lote
+ * seguir com os demais itens. No modo {@link ModoConcorrenciaSaldo#OTIMISTA} as contas em modo normal
+ * são alteradas pela entidade e conferidas pela versão no flush; quem refaz a transação em caso de
+ * conflito é o chamador, via {@link RetentativaOtimista}.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY,
+        noRollbackFor = {ContaNaoEncontradaException.class, SaldoInsuficienteException.class})
+public class SaldoService {
+
+    private final ContaRepository contaRepository;
+    private final ContaMapper contaMapper;
+    private final SaldoFracionadoService saldoFracionadoService;
+    private final MovimentacaoService movimentacaoService;
+    private final CacheSaldo cacheSaldo;
+    private final MetricasCarteira metricas;
+    private final OutboxService outboxService;
+    private final ResumoSaldoUsuarioService resumoSaldoUsuarioService;
+    private final ModoConcorrenciaSaldo modo;
+
+    public SaldoService(ContaRepository contaRepository, ContaMapper contaMapper,
+                        SaldoFracionadoService saldoFracionadoService, MovimentacaoService movimentacaoService,
+                        CacheSaldo cacheSaldo, MetricasCarteira metricas, OutboxService outboxService,
+                        ResumoSaldoUsuarioService resumoSaldoUsuarioService,
+                        @Value("${carteira.saldo.concorrencia:ATOMICO}") ModoConcorrenciaSaldo modo) {
+        this.contaRepository = contaRepository;
+        this.contaMapper = contaMapper;
+        this.saldoFracionadoService = saldoFracionadoService;
+        this.movimentacaoService = movimentacaoService;
+        this.cacheSaldo = cacheSaldo;
+        this.metricas = metricas;
+        this.outboxService = outboxService;
+        this.resumoSaldoUsuarioService = resumoSaldoUsuarioService;
+        this.modo = modo;
+    }
+
+    /**
+     * Aplica o delta e lança a movimentação no livro e o evento no outbox na mesma transação.
+     */
+    public SaldoResponseDTO movimentar(Long id, TipoMovimentacao tipo, Dinheiro delta) {
+        SaldoResponseDTO saldo = aplicar(id, delta);
+        movimentacaoService.registrar(id, tipo, delta);
+        metricas.registrarMovimentacao(tipo, saldo.tipo(), delta);
+        outboxService.registrar(EventoContaDTO.saldoAlterado(saldo, tipo, delta));
+        return saldo;
+    }
+
+    /**
+     * Debita a origem e credita o destino, lançando as duas pontas no livro. As linhas das duas contas
+     * são bloqueadas antes de qualquer alteração, sempre em ordem crescente de id, para que
+     * transferências em sentidos opostos entre as mesmas contas não entrem em deadlock. No modo otimista
+     * nada é bloqueado antes; os dois UPDATEs saem no flush em ordem de id ({@code hibernate.order_updates}).
+     */
+    public TransferenciaResponseDTO transferir(Long origemId, Long destinoId, Dinheiro valor) {
+        if (modo == ModoConcorrenciaSaldo.ATOMICO) {
+            bloquear(Math.min(origemId, destinoId));
+            bloquear(Math.max(origemId, destinoId));
+        }
+
+        Dinheiro debito = valor.negar();
+        SaldoResponseDTO origem = aplicar(origemId, debito);
+        SaldoResponseDTO destino = aplicar(destinoId, valor);
+        movimentacaoService.registrar(List.of(
+                new Movimentacao(origemId, TipoMovimentacao.TRANSFERENCIA_ENVIADA, debito),
+                new Movimentacao(destinoId, TipoMovimentacao.TRANSFERENCIA_RECEBIDA, valor)));
+        metricas.registrarMovimentacao(TipoMovimentacao.TRANSFERENCIA_ENVIADA, origem.tipo(), valor);
+        metricas.registrarMovimentacao(TipoMovimentacao.TRANSFERENCIA_RECEBIDA, destino.tipo(), valor);
+        outboxService.registrar(List.of(
+                EventoContaDTO.saldoAlterado(origem, TipoMovimentacao.TRANSFERENCIA_ENVIADA, debito),
+                EventoContaDTO.saldoAlterado(destino, TipoMovimentacao.TRANSFERENCIA_RECEBIDA, valor)));
+        return new TransferenciaResponseDTO(origemId, destinoId, valor, origem.saldo(), OffsetDateTime.now());
+    }
+
+    /**
+     * Tenta primeiro o UPDATE atômico em {@code contas}. Se nenhuma linha for afetada, descobre se a
+     * conta não existe, se está em modo quente (e então movimenta os slots) ou se falta saldo. A troca
+     * de modo pode acontecer entre as duas leituras, por isso a decisão é refeita uma vez.
+     * Não lança a movimentação no livro. O saldo da conta é invalidado no {@link CacheSaldo} após o commit
+     * e o delta entra no {@link ResumoSaldoUsuarioService}.
+     */
+    public SaldoResponseDTO aplicar(Long id, Dinheiro delta) {
+        SaldoResponseDTO saldo = modo == ModoConcorrenciaSaldo.OTIMISTA ? aplicarComVersao(id, delta) : aplicarDelta(id, delta);
+        cacheSaldo.invalidarAposCommit(id);
+        resumoSaldoUsuarioService.registrarDelta(id, delta);
+        return saldo;
+    }
+
+    private SaldoResponseDTO aplicarDelta(Long id, Dinheiro delta) {
+        for (int tentativa = 0; ; tentativa++) {
+            if (tentativa > 0) {
+                metricas.registrarRetentativa("saldo");
+            }
+            Optional<Conta> atualizada = contaRepository.aplicarMovimentacao(id, delta);
+            if (atualizada.isPresent()) {
+                return contaMapper.toSaldoResponseDTO(atualizada.get());
+            }
+
+            int slots = contaRepository.buscarSlotsSaldo(id).orElseThrow(() -> new ContaNaoEncontradaException(id));
+            if (slots > 0) {
+                Optional<SaldoResponseDTO> resultado = movimentarModoQuente(id, slots, delta);
+                if (resultado.isPresent()) {
+                    return resultado.get();
+                }
+            } else if (tentativa > 0) {
+                throw new SaldoInsuficienteException(id);
+            }
+        }
+    }
+
+    /**
+     * A entidade é alterada em memória e o UPDATE, com a versão lida no WHERE, sai no flush. Se a
+     * conta deixou o modo quente depois de lida, a entidade carregada está desatualizada e a transação
+     * é tratada como um conflito de versão.
+     */
+    private SaldoResponseDTO aplicarComVersao(Long id, Dinheiro delta) {
+        Conta conta = contaRepository.findById(id).orElseThrow(() -> new ContaNaoEncontradaException(id));
+        if (conta.isModoQuente()) {
+            return movimentarModoQuente(id, conta.getSlotsSaldo(), delta)
+                    .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Conta.class, id));
+        }
+
+        Dinheiro novoSaldo = conta.getSaldo().somar(delta);
+        if (novoSaldo.signum() < 0) {
+            throw new SaldoInsuficienteException(id);
+        }
+        conta.setSaldo(novoSaldo);
+        return contaMapper.toSaldoResponseDTO(conta);
+    }
+
+    private void bloquear(Long id) {
+        contaRepository.bloquearSlotsSaldo(id).orElseThrow(() -> new ContaNaoEncontradaException(id));
+    }
+
+    private Optional<SaldoResponseDTO> movimentarModoQuente(Long id, int slots, Dinheiro delta) {
+        if (delta.signum() < 0) {
+            return saldoFracionadoService.debitar(id, delta.negar())
+                    .map(resultado -> contaMapper.toSaldoResponseDTO(resultado.conta(), resultado.saldoTotal()));
+        }
+        if (!saldoFracionadoService.creditar(id, slots, delta)) {
+            return Optional.empty();
+        }
+        Conta conta = contaRepository.findById(id).orElseThrow(() -> new ContaNaoEncontradaException(id));
+        return Optional.of(contaMapper.toSaldoResponseDTO(conta, contaRepository.somarSaldoTotal(id)));
+    }
+}
@@ -0,0 +1,3 @@
+-- Versão da linha para o modo otimista de atualização de saldo. Com default constante o Postgres
+-- não reescreve a tabela, então a coluna entra sem bloquear as escritas por mais que um instante.
+ALTER TABLE contas ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- Eventos de conta gravados na mesma transação da alteração e publicados depois pelo relay. Cada evento
+-- guarda a sua partição (conta_id módulo carteira.outbox.particoes); uma partição é drenada por um
+-- consumidor de cada vez, o que preserva a ordem dos eventos de uma mesma conta.
+CREATE TABLE outbox_eventos (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    conta_id BIGINT NOT NULL,
+    particao INTEGER NOT NULL,
+    tipo VARCHAR(30) NOT NULL,
+    payload JSONB NOT NULL,
+    data_criacao TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_outbox_eventos_particao_id ON outbox_eventos (particao, id);
+
+-- Uma linha por partição, bloqueada com SKIP LOCKED pelo consumidor que a drena
+CREATE TABLE outbox_particoes (
+    particao INTEGER PRIMARY KEY,
+    ultima_drenagem TIMESTAMP WITH TIME ZONE
+);
@@ -0,0 +1,22 @@
+-- Saldo consolidado de cada usuário por tipo de conta, mantido a cada alteração de saldo na mesma
+-- transação. O saldo inclui os slots das contas em modo quente. Como em conta_saldo_slots, o resumo
+-- de cada usuário e tipo é espalhado em slots: cada transação soma o seu delta a um slot sorteado, e o
+-- resumo é a soma dos slots.
+CREATE TABLE resumo_saldo_usuarios (
+    usuario_id BIGINT NOT NULL,
+    tipo VARCHAR(10) NOT NULL,
+    slot SMALLINT NOT NULL,
+    saldo NUMERIC(18,2) NOT NULL DEFAULT 0.00,
+    quantidade_contas INTEGER NOT NULL DEFAULT 0,
+    data_atualizacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (usuario_id, tipo, slot)
+);
+
+INSERT INTO resumo_saldo_usuarios (usuario_id, tipo, slot, saldo, quantidade_contas)
+SELECT c.usuario_id,
+       c.tipo,
+       0,
+       SUM(c.saldo + COALESCE((SELECT SUM(s.saldo) FROM conta_saldo_slots s WHERE s.conta_id = c.id), 0)),
+       COUNT(*)
+  FROM contas c
+ GROUP BY c.usuario_id, c.tipo;
@@ -0,0 +1,8 @@
+ALTER TABLE contas ADD COLUMN slots_saldo INTEGER NOT NULL DEFAULT 0 CHECK (slots_saldo >= 0);
+
+CREATE TABLE conta_saldo_slots (
+    conta_id BIGINT NOT NULL REFERENCES contas (id),
+    slot INTEGER NOT NULL,
+    saldo NUMERIC(15,2) NOT NULL DEFAULT 0.00 CHECK (saldo >= 0),
+    PRIMARY KEY (conta_id, slot)
+);
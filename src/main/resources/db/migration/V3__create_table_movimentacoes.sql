@@ -0,0 +1,28 @@
+CREATE TABLE movimentacoes (
+    id BIGSERIAL PRIMARY KEY,
+    conta_id BIGINT NOT NULL REFERENCES contas (id),
+    tipo VARCHAR(20) NOT NULL CHECK (tipo IN ('DEPOSITO', 'SAQUE')),
+    valor NUMERIC(15,2) NOT NULL,
+    data_movimentacao TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX idx_movimentacoes_conta_data ON movimentacoes (conta_id, data_movimentacao, id);
+CREATE INDEX idx_movimentacoes_data ON movimentacoes (data_movimentacao);
+
+-- Um checkpoint por conta: o saldo até o lançamento (data_movimentacao, movimentacao_id), substituído
+-- a cada consolidação.
+CREATE TABLE saldo_checkpoints (
+    conta_id BIGINT PRIMARY KEY REFERENCES contas (id),
+    data_movimentacao TIMESTAMP WITH TIME ZONE NOT NULL,
+    movimentacao_id BIGINT NOT NULL,
+    saldo NUMERIC(15,2) NOT NULL,
+    data_atualizacao TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Contas existentes não têm histórico: o saldo atual vira o ponto de partida do extrato.
+INSERT INTO saldo_checkpoints (conta_id, data_movimentacao, movimentacao_id, saldo)
+SELECT c.id,
+       clock_timestamp(),
+       0,
+       c.saldo + COALESCE((SELECT SUM(s.saldo) FROM conta_saldo_slots s WHERE s.conta_id = c.id), 0)
+  FROM contas c;
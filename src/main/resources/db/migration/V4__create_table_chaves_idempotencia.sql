@@ -0,0 +1,13 @@
+-- A chave vale por usuário autenticado: o mesmo Idempotency-Key enviado por usuários diferentes
+-- identifica requisições diferentes.
+CREATE TABLE chaves_idempotencia (
+    principal VARCHAR(100) NOT NULL,
+    chave VARCHAR(100) NOT NULL,
+    requisicao VARCHAR(200) NOT NULL,
+    resposta TEXT,
+    data_criacao TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expira_em TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (principal, chave)
+);
+
+CREATE INDEX idx_chaves_idempotencia_expira_em ON chaves_idempotencia (expira_em);
@@ -0,0 +1,8 @@
+-- Cada nextval reserva um bloco de números de conta para uma instância da aplicação; o
+-- incremento é o tamanho do bloco. O limite é a quantidade de números de 9 dígitos.
+CREATE SEQUENCE numero_conta_seq
+    START WITH 0
+    MINVALUE 0
+    MAXVALUE 999999999
+    INCREMENT BY 1000
+    NO CYCLE;
@@ -0,0 +1,3 @@
+-- O Hibernate passa a reservar ids de 50 em 50 (otimizador pooled), o que permite agrupar os
+-- INSERTs de contas em lotes JDBC; com IDENTITY cada linha precisava de um INSERT próprio.
+ALTER SEQUENCE contas_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Listagem das contas de um usuário paginada por id: o índice cobre o filtro, a ordenação e as
+-- colunas do resumo, permitindo index-only scan. CONCURRENTLY não bloqueia escritas durante a
+-- criação (o Flyway executa esta migration fora de transação; ver
+-- spring.flyway.postgresql.transactional-lock).
+CREATE INDEX CONCURRENTLY idx_contas_usuario_id_id
+    ON contas (usuario_id, id)
+    INCLUDE (numero_conta, tipo);
@@ -0,0 +1,5 @@
+-- Transferências lançam uma ponta em cada conta.
+ALTER TABLE movimentacoes DROP CONSTRAINT movimentacoes_tipo_check;
+ALTER TABLE movimentacoes ALTER COLUMN tipo TYPE VARCHAR(30);
+ALTER TABLE movimentacoes ADD CONSTRAINT movimentacoes_tipo_check
+    CHECK (tipo IN ('DEPOSITO', 'SAQUE', 'TRANSFERENCIA_ENVIADA', 'TRANSFERENCIA_RECEBIDA'));
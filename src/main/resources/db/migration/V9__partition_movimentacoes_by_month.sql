@@ -0,0 +1,61 @@
+-- Livro de movimentações particionado por mês (UTC) de data_movimentacao, para que extratos e
+-- checkpoints leiam só os meses do intervalo e meses antigos possam ser desanexados sem DELETE.
+-- A tabela atual vira a partição movimentacoes_legado, com tudo o que é anterior ao mês corrente;
+-- os lançamentos do mês corrente vão para a partição do mês.
+
+ALTER TABLE movimentacoes RENAME TO movimentacoes_legado;
+ALTER TABLE movimentacoes_legado RENAME CONSTRAINT movimentacoes_pkey TO movimentacoes_legado_pkey;
+ALTER INDEX idx_movimentacoes_conta_data RENAME TO movimentacoes_legado_conta_data_idx;
+ALTER INDEX idx_movimentacoes_data RENAME TO movimentacoes_legado_data_idx;
+ALTER TABLE movimentacoes_legado ALTER COLUMN id DROP DEFAULT;
+
+-- A chave primária de uma tabela particionada precisa conter a chave de partição
+ALTER TABLE movimentacoes_legado DROP CONSTRAINT movimentacoes_legado_pkey;
+ALTER TABLE movimentacoes_legado ADD CONSTRAINT movimentacoes_legado_pkey PRIMARY KEY (id, data_movimentacao);
+
+CREATE TABLE movimentacoes (
+    id BIGINT NOT NULL DEFAULT nextval('movimentacoes_id_seq'),
+    conta_id BIGINT NOT NULL REFERENCES contas (id),
+    tipo VARCHAR(30) NOT NULL CONSTRAINT movimentacoes_tipo_check
+        CHECK (tipo IN ('DEPOSITO', 'SAQUE', 'TRANSFERENCIA_ENVIADA', 'TRANSFERENCIA_RECEBIDA')),
+    valor NUMERIC(15,2) NOT NULL,
+    data_movimentacao TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp(),
+    CONSTRAINT movimentacoes_pkey PRIMARY KEY (id, data_movimentacao)
+) PARTITION BY RANGE (data_movimentacao);
+
+ALTER SEQUENCE movimentacoes_id_seq OWNED BY movimentacoes.id;
+
+-- Os índices da partição legada têm a mesma definição e são reaproveitados no ATTACH
+CREATE INDEX idx_movimentacoes_conta_data ON movimentacoes (conta_id, data_movimentacao, id);
+CREATE INDEX idx_movimentacoes_data ON movimentacoes (data_movimentacao);
+
+-- Cria as partições do mês corrente e dos próximos meses_a_frente meses que ainda não existem.
+-- Chamada na inicialização e periodicamente pelo ParticionamentoMovimentacoesJob.
+CREATE FUNCTION criar_particoes_movimentacoes(meses_a_frente INTEGER) RETURNS VOID AS $$
+DECLARE
+    mes TIMESTAMP;
+BEGIN
+    FOR i IN 0..meses_a_frente LOOP
+        mes := date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => i);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF movimentacoes FOR VALUES FROM (%L) TO (%L)',
+                       'movimentacoes_' || to_char(mes, 'YYYY_MM'),
+                       mes AT TIME ZONE 'UTC',
+                       (mes + INTERVAL '1 month') AT TIME ZONE 'UTC');
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    mes_corrente TIMESTAMP WITH TIME ZONE := date_trunc('month', now() AT TIME ZONE 'UTC') AT TIME ZONE 'UTC';
+BEGIN
+    PERFORM criar_particoes_movimentacoes(3);
+
+    INSERT INTO movimentacoes
+    SELECT * FROM movimentacoes_legado WHERE data_movimentacao >= mes_corrente;
+    DELETE FROM movimentacoes_legado WHERE data_movimentacao >= mes_corrente;
+
+    EXECUTE format('ALTER TABLE movimentacoes ATTACH PARTITION movimentacoes_legado FOR VALUES FROM (MINVALUE) TO (%L)',
+                   mes_corrente);
+END;
+$$;
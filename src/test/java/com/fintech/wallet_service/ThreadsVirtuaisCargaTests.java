@@ -0,0 +1,117 @@
+package com.fintech.wallet_service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fintech.wallet_service.support.UsuarioServiceStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sobe a aplicação duas vezes, com e sem threads virtuais, e dispara a mesma carga contra um
+ * user-service lento. Com threads de plataforma a concorrência fica limitada ao pool do Tomcat.
+ */
+class ThreadsVirtuaisCargaTests {
+
+	private static final Logger logger = Logger.getLogger(ThreadsVirtuaisCargaTests.class.getName());
+
+	private static final int THREADS_TOMCAT = 8;
+	private static final int REQUISICOES = 64;
+	private static final Duration LATENCIA_USER_SERVICE = Duration.ofSeconds(1);
+
+	@Test
+	void threadsVirtuaisNaoFicamPresasNaChamadaAoUserService() throws Exception {
+		try (UsuarioServiceStub stub = new UsuarioServiceStub()) {
+			stub.definirLatencia(LATENCIA_USER_SERVICE);
+
+			Resultado plataforma = executarCarga(stub, false);
+			Resultado virtuais = executarCarga(stub, true);
+
+			assertTrue(plataforma.concorrenciaMaxima() <= THREADS_TOMCAT);
+			assertTrue(virtuais.concorrenciaMaxima() > THREADS_TOMCAT);
+			assertTrue(virtuais.duracao().compareTo(plataforma.duracao()) < 0);
+		}
+	}
+
+	private Resultado executarCarga(UsuarioServiceStub stub, boolean threadsVirtuais) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WalletServiceApplication.class)
+				.run("--server.port=0",
+						"--server.tomcat.threads.max=" + THREADS_TOMCAT,
+						"--spring.threads.virtual.enabled=" + threadsVirtuais,
+						"--usuario-service.url=" + stub.url(),
+						"--usuario-service.bulkhead.chamadas-simultaneas=" + REQUISICOES,
+						"--usuario-service.timeout=PT30S");
+			 ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			int porta = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient http = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.executor(executor)
+					.build();
+			String token = "Bearer " + JWT.create()
+					.withClaim("userId", 1L)
+					.withExpiresAt(Instant.now().plusSeconds(3600))
+					.sign(Algorithm.HMAC256("secret"));
+
+			// A primeira rodada aquece o servlet, o Hibernate e o JIT e fica fora da medição
+			disparar(http, porta, token, 800_000);
+
+			stub.zerarContadores();
+			long inicio = System.nanoTime();
+			List<Long> latenciasMs = disparar(http, porta, token, 900_000);
+			Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+
+			latenciasMs.sort(null);
+			Resultado resultado = new Resultado(duracao, stub.maximoEmAndamento(),
+					latenciasMs.get(latenciasMs.size() / 2), latenciasMs.get(latenciasMs.size() * 99 / 100));
+
+			// Registrado antes de fechar o contexto, que desfaz a ponte do JUL para o log da aplicação
+			logger.info((threadsVirtuais ? "Threads virtuais: " : "Threads de plataforma: ") + resultado);
+			return resultado;
+		}
+	}
+
+	private List<Long> disparar(HttpClient http, int porta, String token, long primeiroUsuarioId) {
+		List<CompletableFuture<Long>> latencias = new ArrayList<>();
+		for (int i = 0; i < REQUISICOES; i++) {
+			// Um usuário diferente por requisição, para nenhuma ser atendida pelo cache
+			HttpRequest requisicao = HttpRequest.newBuilder(
+							URI.create("http://localhost:" + porta + "/api/v1/carteiras/usuario/" + (primeiroUsuarioId + i)))
+					.header("Authorization", token)
+					.build();
+
+			long enviada = System.nanoTime();
+			latencias.add(http.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+					.thenApply(resposta -> {
+						assertEquals(200, resposta.statusCode());
+						return (System.nanoTime() - enviada) / 1_000_000;
+					}));
+		}
+
+		List<Long> latenciasMs = new ArrayList<>();
+		for (CompletableFuture<Long> latencia : latencias) {
+			latenciasMs.add(latencia.join());
+		}
+		return latenciasMs;
+	}
+
+	private record Resultado(Duration duracao, int concorrenciaMaxima, long p50Ms, long p99Ms) {
+	}
+}
@@ -0,0 +1,86 @@
+package com.fintech.wallet_service.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A "réplica" é o próprio banco de testes acessado com outro {@code ApplicationName}, o que permite
+ * identificar por qual pool cada transação passou. A segunda réplica está inacessível.
+ */
+@SpringBootTest(properties = {
+		"carteira.replicas.urls=" + RoteamentoLeituraTests.REPLICA + ",jdbc:postgresql://localhost:1/wallet_service",
+		"carteira.replicas.espera-conexao=PT0.25S"
+})
+class RoteamentoLeituraTests {
+
+	static final String REPLICA = "jdbc:postgresql://localhost:5434/wallet_service?ApplicationName=replica-teste";
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private RoteamentoLeitura roteamentoLeitura;
+
+	@Autowired
+	@Qualifier("dataSourceLeitura")
+	private DataSourceLeitura dataSourceLeitura;
+
+	@BeforeEach
+	void verificarReplicas() {
+		dataSourceLeitura.verificarReplicas();
+	}
+
+	@AfterEach
+	void limparAutenticacao() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void leiturasVaoParaAReplicaEmDiaEEscritasParaOPrimario() {
+		for (int i = 0; i < 4; i++) {
+			assertThat(origem(true)).isEqualTo("replica-teste");
+		}
+		assertThat(origem(false)).isNotEqualTo("replica-teste");
+		assertThat(roteamentoLeitura.executarNoPrimario(() -> origem(true))).isNotEqualTo("replica-teste");
+	}
+
+	@Test
+	void quemAcabouDeEscreverLeDoPrimario() {
+		autenticar("escritor-" + System.nanoTime());
+		assertThat(origem(true)).isEqualTo("replica-teste");
+
+		origem(false);
+		assertThat(origem(true)).isNotEqualTo("replica-teste");
+
+		autenticar("leitor-" + System.nanoTime());
+		assertThat(origem(true)).isEqualTo("replica-teste");
+	}
+
+	private String origem(boolean somenteLeitura) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(somenteLeitura);
+		return transactionTemplate.execute(status ->
+				jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class));
+	}
+
+	private void autenticar(String usuario) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(usuario, "token", List.of()));
+	}
+}
@@ -0,0 +1,64 @@
+package com.fintech.wallet_service.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenProviderTests {
+
+	private static final Algorithm ALGORITMO = Algorithm.HMAC256("secret");
+
+	private SimpleMeterRegistry meterRegistry;
+	private JwtTokenProvider provider;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		provider = new JwtTokenProvider("secret", 1000, Duration.ofMinutes(15), meterRegistry);
+	}
+
+	@Test
+	void tokenValidoDevolveUsuarioEFicaEmCache() {
+		String token = token(42L, Instant.now().plusSeconds(3600));
+
+		assertEquals("42", provider.verificar(token).orElseThrow().usuarioId());
+		assertEquals("42", provider.verificar(token).orElseThrow().usuarioId());
+
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tokens-jwt").tag("result", "hit")
+				.functionCounter().count());
+	}
+
+	@Test
+	void tokenEmCacheDeixaDeValerNoExp() throws Exception {
+		String token = token(42L, Instant.now().plusMillis(1500));
+
+		assertTrue(provider.verificar(token).isPresent());
+		Thread.sleep(1600);
+
+		assertTrue(provider.verificar(token).isEmpty());
+	}
+
+	@Test
+	void tokensInvalidosSaoRecusados() {
+		String outroSegredo = JWT.create().withClaim("userId", 42L).sign(Algorithm.HMAC256("outro"));
+		String expirado = token(42L, Instant.now().minusSeconds(60));
+		String semUsuario = JWT.create().withExpiresAt(Instant.now().plusSeconds(3600)).sign(ALGORITMO);
+
+		assertTrue(provider.verificar(outroSegredo).isEmpty());
+		assertTrue(provider.verificar(expirado).isEmpty());
+		assertTrue(provider.verificar(semUsuario).isEmpty());
+		assertTrue(provider.verificar("nao.e.jwt").isEmpty());
+	}
+
+	private static String token(Long usuarioId, Instant expiraEm) {
+		return JWT.create().withClaim("userId", usuarioId).withExpiresAt(expiraEm).sign(ALGORITMO);
+	}
+}
@@ -0,0 +1,166 @@
+package com.fintech.wallet_service.config.service;
+
+import com.fintech.wallet_service.exception.UsuarioServiceIndisponivelException;
+import com.fintech.wallet_service.support.UsuarioServiceStub;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsuarioServiceClienteResilienciaTests {
+
+	private static final String USUARIO_AUTENTICADO = "1";
+
+	private UsuarioServiceStub stub;
+	private SimpleMeterRegistry meterRegistry;
+	private CircuitBreaker circuitBreaker;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stub = new UsuarioServiceStub();
+		meterRegistry = new SimpleMeterRegistry();
+		autenticar();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		stub.close();
+	}
+
+	@Test
+	void circuitoAbreAposFalhasEDeixaDeChamarOUserService() {
+		UsuarioServiceCliente cliente = criarCliente(PoliticaFallbackUsuario.FALHAR_RAPIDO, Duration.ofSeconds(2), 10);
+		stub.definirStatusErro(503);
+
+		for (long id = 100; id < 104; id++) {
+			long usuarioId = id;
+			assertThrows(UsuarioServiceIndisponivelException.class, () -> cliente.usuarioExiste(usuarioId));
+		}
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+		long inicio = System.nanoTime();
+		for (long id = 200; id < 210; id++) {
+			long usuarioId = id;
+			assertThrows(UsuarioServiceIndisponivelException.class, () -> cliente.usuarioExiste(usuarioId));
+		}
+		Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+
+		assertEquals(4, stub.requisicoes());
+		assertTrue(duracao.compareTo(Duration.ofMillis(500)) < 0);
+		assertEquals(10.0, meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls")
+				.tag("name", UsuarioServiceResilienciaConfig.NOME).counter().count());
+		assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+				.tag("name", UsuarioServiceResilienciaConfig.NOME).tag("state", "open").gauge().value());
+	}
+
+	@Test
+	void timeoutLimitaAEsperaPeloUserServiceLento() {
+		UsuarioServiceCliente cliente = criarCliente(PoliticaFallbackUsuario.FALHAR_RAPIDO, Duration.ofMillis(100), 10);
+		stub.definirLatencia(Duration.ofSeconds(2));
+
+		long inicio = System.nanoTime();
+		assertThrows(UsuarioServiceIndisponivelException.class, () -> cliente.usuarioExiste(5L));
+		Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+
+		assertTrue(duracao.compareTo(Duration.ofSeconds(1)) < 0);
+		assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+	}
+
+	@Test
+	void bulkheadRecusaChamadasAlemDoLimite() throws Exception {
+		UsuarioServiceCliente cliente = criarCliente(PoliticaFallbackUsuario.FALHAR_RAPIDO, Duration.ofSeconds(2), 2);
+		stub.definirLatencia(Duration.ofMillis(500));
+
+		int threads = 10;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Boolean>> resultados = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				long usuarioId = 300 + i;
+				resultados.add(executor.submit(() -> {
+					autenticar();
+					largada.await();
+					try {
+						return cliente.usuarioExiste(usuarioId);
+					} catch (UsuarioServiceIndisponivelException e) {
+						return false;
+					}
+				}));
+			}
+			largada.countDown();
+
+			int atendidas = 0;
+			for (Future<Boolean> resultado : resultados) {
+				atendidas += resultado.get() ? 1 : 0;
+			}
+			assertEquals(2, atendidas);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertTrue(stub.maximoEmAndamento() <= 2);
+		assertEquals(8.0, meterRegistry.get("resilience4j.bulkhead.rejected.calls").counter().count());
+		// Rejeições do bulkhead não contam como falha do user-service
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	}
+
+	@Test
+	void confiarJwtAceitaApenasOProprioTitularDoToken() {
+		UsuarioServiceCliente cliente = criarCliente(PoliticaFallbackUsuario.CONFIAR_JWT, Duration.ofSeconds(2), 10);
+		stub.definirStatusErro(500);
+
+		assertTrue(cliente.usuarioExiste(Long.valueOf(USUARIO_AUTENTICADO)));
+		assertThrows(UsuarioServiceIndisponivelException.class, () -> cliente.usuarioExiste(2L));
+
+		// O fallback não fica em cache: com o serviço de volta, a consulta é refeita
+		stub.definirStatusErro(0);
+		assertTrue(cliente.usuarioExiste(Long.valueOf(USUARIO_AUTENTICADO)));
+		assertEquals(3, stub.requisicoes());
+	}
+
+	@Test
+	void usuarioInexistenteNaoContaComoFalha() {
+		UsuarioServiceCliente cliente = criarCliente(PoliticaFallbackUsuario.FALHAR_RAPIDO, Duration.ofSeconds(2), 10);
+		for (long id = 400; id < 410; id++) {
+			stub.marcarInexistente(id);
+			cliente.usuarioExiste(id);
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+	}
+
+	private UsuarioServiceCliente criarCliente(PoliticaFallbackUsuario politica, Duration timeout, int vagasBulkhead) {
+		UsuarioServiceResilienciaConfig resiliencia = new UsuarioServiceResilienciaConfig();
+		circuitBreaker = resiliencia.usuarioServiceCircuitBreaker(50, 4, 4, Duration.ofMinutes(1), 1, meterRegistry);
+
+		return new UsuarioServiceCliente(WebClient.builder(), stub.url(),
+				Duration.ofMinutes(10), Duration.ofSeconds(30), 1000, 50, Duration.ofSeconds(5),
+				timeout, politica, 32, circuitBreaker,
+				resiliencia.usuarioServiceBulkhead(vagasBulkhead, Duration.ZERO, meterRegistry),
+				meterRegistry);
+	}
+
+	private static void autenticar() {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(USUARIO_AUTENTICADO, "token", List.of()));
+	}
+}
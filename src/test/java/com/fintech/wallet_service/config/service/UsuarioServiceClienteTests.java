@@ -0,0 +1,177 @@
+package com.fintech.wallet_service.config.service;
+
+import com.fintech.wallet_service.support.UsuarioServiceStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsuarioServiceClienteTests {
+
+	private static final Logger logger = Logger.getLogger(UsuarioServiceClienteTests.class.getName());
+
+	private UsuarioServiceStub stub;
+	private UsuarioServiceCliente cliente;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stub = new UsuarioServiceStub();
+		stub.definirLatencia(Duration.ofMillis(50));
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		UsuarioServiceResilienciaConfig resiliencia = new UsuarioServiceResilienciaConfig();
+		cliente = new UsuarioServiceCliente(WebClient.builder(), stub.url(),
+				Duration.ofMinutes(10), Duration.ofMillis(300), 1000, 50, Duration.ofSeconds(5),
+				Duration.ofSeconds(2), PoliticaFallbackUsuario.FALHAR_RAPIDO, 32,
+				resiliencia.usuarioServiceCircuitBreaker(50, 20, 10, Duration.ofSeconds(30), 5, meterRegistry),
+				resiliencia.usuarioServiceBulkhead(50, Duration.ZERO, meterRegistry),
+				meterRegistry);
+		autenticar();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		stub.close();
+	}
+
+	@Test
+	void consultasRepetidasUsamOCacheEmVezDoUserService() {
+		long inicio = System.nanoTime();
+		assertTrue(cliente.usuarioExiste(1L));
+		long primeiraNanos = System.nanoTime() - inicio;
+
+		inicio = System.nanoTime();
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(cliente.usuarioExiste(1L));
+		}
+		long mediaCacheNanos = (System.nanoTime() - inicio) / 1000;
+
+		logger.info("Primeira consulta: " + primeiraNanos / 1000 + " us; consulta em cache: "
+				+ mediaCacheNanos / 1000 + " us; chamadas ao user-service: " + stub.requisicoes());
+
+		assertEquals(1, stub.requisicoes());
+		assertTrue(mediaCacheNanos * 100 < primeiraNanos);
+	}
+
+	@Test
+	void consultasSimultaneasCompartilhamUmaRequisicao() throws Exception {
+		int threads = 64;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Boolean>> resultados = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < threads; i++) {
+				resultados.add(executor.submit(() -> {
+					autenticar();
+					largada.await();
+					return cliente.usuarioExiste(7L);
+				}));
+			}
+			largada.countDown();
+
+			for (Future<Boolean> resultado : resultados) {
+				assertTrue(resultado.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, stub.requisicoes());
+	}
+
+	@Test
+	void tokenRecusadoNaoEhCompartilhadoComQuemAguardavaAMesmaConsulta() throws Exception {
+		stub.definirLatencia(Duration.ofMillis(300));
+		stub.recusarToken("expirado");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			Future<Boolean> recusada = executor.submit(() -> {
+				autenticar("expirado");
+				return cliente.usuarioExiste(8L);
+			});
+			long prazo = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (stub.requisicoes() == 0 && System.nanoTime() < prazo) {
+				Thread.sleep(5);
+			}
+
+			// Chega durante a requisição com o token recusado e aguarda o mesmo future
+			assertTrue(cliente.usuarioExiste(8L));
+			ExecutionException erro = assertThrows(ExecutionException.class, recusada::get);
+			assertEquals("Token inválido ou expirado", erro.getCause().getMessage());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(2, stub.requisicoes());
+		assertTrue(cliente.usuarioExiste(8L));
+		assertEquals(2, stub.requisicoes());
+	}
+
+	@Test
+	void resultadoNegativoExpiraAntesDoPositivo() throws Exception {
+		stub.marcarInexistente(2L);
+
+		assertFalse(cliente.usuarioExiste(2L));
+		assertTrue(cliente.usuarioExiste(3L));
+		assertFalse(cliente.usuarioExiste(2L));
+		assertEquals(2, stub.requisicoes());
+
+		Thread.sleep(400);
+
+		assertFalse(cliente.usuarioExiste(2L));
+		assertTrue(cliente.usuarioExiste(3L));
+		assertEquals(3, stub.requisicoes());
+	}
+
+	@Test
+	void invalidarForcaNovaConsulta() {
+		assertTrue(cliente.usuarioExiste(4L));
+		cliente.invalidar(4L);
+		assertTrue(cliente.usuarioExiste(4L));
+
+		cliente.invalidarTodos();
+		assertTrue(cliente.usuarioExiste(4L));
+
+		assertEquals(3, stub.requisicoes());
+	}
+
+	@Test
+	void errosNaoFicamEmCache() {
+		stub.definirStatusErro(500);
+		assertThrows(RuntimeException.class, () -> cliente.usuarioExiste(5L));
+
+		stub.definirStatusErro(0);
+		assertTrue(cliente.usuarioExiste(5L));
+		assertEquals(2, stub.requisicoes());
+	}
+
+	private static void autenticar() {
+		autenticar("token");
+	}
+
+	private static void autenticar(String token) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("1", token, List.of()));
+	}
+}
@@ -0,0 +1,46 @@
+package com.fintech.wallet_service.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DinheiroTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void leEEscreveComDuasCasas() {
+		assertThat(Dinheiro.parse("12").centavos()).isEqualTo(1200);
+		assertThat(Dinheiro.parse("12.3").centavos()).isEqualTo(1230);
+		assertThat(Dinheiro.parse("-0.05").centavos()).isEqualTo(-5);
+		assertThat(Dinheiro.parse("1.50E2").centavos()).isEqualTo(15000);
+		assertThat(Dinheiro.parse("-0.05")).hasToString("-0.05");
+		assertThat(Dinheiro.deCentavos(100_000_007)).hasToString("1000000.07");
+		assertThat(Dinheiro.parse("7.10").toBigDecimal()).isEqualByComparingTo(new BigDecimal("7.1"));
+	}
+
+	@Test
+	void recusaCasasDemaisEmVezDeArredondar() {
+		assertThatThrownBy(() -> Dinheiro.parse("1.005")).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Dinheiro.parse("-")).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> Dinheiro.parse("1,00")).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> Dinheiro.deCentavos(Long.MAX_VALUE).somar(Dinheiro.deCentavos(1)))
+				.isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void jsonMantemONumeroDecimal() throws Exception {
+		TransicaoRequestDTO dto = objectMapper.readValue("{\"valor\": 25.5}", TransicaoRequestDTO.class);
+
+		assertThat(dto.valor()).isEqualTo(Dinheiro.parse("25.50"));
+		assertThat(objectMapper.writeValueAsString(dto.valor())).isEqualTo("25.50");
+		assertThatThrownBy(() -> objectMapper.readValue("{\"valor\": 0.001}", TransicaoRequestDTO.class))
+				.isInstanceOf(InvalidFormatException.class);
+	}
+}
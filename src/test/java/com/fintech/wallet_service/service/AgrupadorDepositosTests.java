@@ -0,0 +1,164 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.repository.ContaRepository;
+import com.fintech.wallet_service.repository.MovimentacaoRepository;
+import com.fintech.wallet_service.support.ContasDeTeste;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"carteira.deposito.agrupamento.habilitado=true",
+		"carteira.deposito.agrupamento.janela=PT0.02S",
+		"carteira.deposito.agrupamento.tamanho-maximo=64"
+})
+class AgrupadorDepositosTests {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private ContasDeTeste contasDeTeste;
+
+	@Autowired
+	private MovimentacaoRepository movimentacaoRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private AgrupadorDepositos agrupadorDepositos;
+
+	@Autowired
+	private IdempotenciaService idempotenciaService;
+
+	@Test
+	void depositosSimultaneosSaoConfirmadosJuntosComSaldoDeCadaUm() throws Exception {
+		Conta a = contasDeTeste.nova();
+		Conta b = contasDeTeste.nova();
+		int depositosPorThread = 20;
+		Set<Dinheiro> saldosDevolvidosA = ConcurrentHashMap.newKeySet();
+
+		executarEmParalelo(thread -> {
+			for (int i = 0; i < depositosPorThread; i++) {
+				if (thread % 2 == 0) {
+					saldosDevolvidosA.add(contaService.depositar(a.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null).saldo());
+				} else {
+					contaService.depositar(b.getId(), new TransicaoRequestDTO(Dinheiro.parse("2.50")), null);
+				}
+			}
+		});
+
+		int depositosPorConta = THREADS / 2 * depositosPorThread;
+		assertThat(saldo(a)).isEqualTo(Dinheiro.deCentavos(100L * depositosPorConta));
+		assertThat(saldo(b)).isEqualTo(Dinheiro.deCentavos(250L * depositosPorConta));
+		assertThat(movimentacaoRepository.saldoApurado(a.getId())).isEqualByComparingTo(saldo(a).toBigDecimal());
+		assertThat(movimentacaoRepository.saldoApurado(b.getId())).isEqualByComparingTo(saldo(b).toBigDecimal());
+		// Cada depósito devolve o saldo logo após ele, então nenhum saldo se repete
+		assertThat(saldosDevolvidosA).hasSize(depositosPorConta);
+		assertThat(meterRegistry.get("carteira.deposito.agrupamento.tamanho").summary().max()).isGreaterThan(1);
+	}
+
+	@Test
+	void chaveRepetidaAplicaUmaVezEContaInexistenteNaoAfetaOGrupo() throws Exception {
+		Conta conta = contasDeTeste.nova();
+		String chave = UUID.randomUUID().toString();
+		Set<Dinheiro> saldosDevolvidos = ConcurrentHashMap.newKeySet();
+
+		executarEmParalelo(thread -> {
+			saldosDevolvidos.add(contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), chave).saldo());
+			assertThatThrownBy(() -> contaService.depositar(Long.MAX_VALUE - thread, new TransicaoRequestDTO(Dinheiro.parse("1.00")), null))
+					.isInstanceOf(ContaNaoEncontradaException.class);
+		});
+
+		assertThat(saldo(conta)).isEqualTo(Dinheiro.parse("10.00"));
+		assertThat(saldosDevolvidos).containsExactly(Dinheiro.parse("10.00"));
+		assertThat(movimentacaoRepository.saldoApurado(conta.getId())).isEqualByComparingTo("10.00");
+	}
+
+	@Test
+	void chaveJaRespondidaOuEmUsoNaoEntraNoGrupo() throws Exception {
+		Conta conta = contasDeTeste.nova();
+		String chave = UUID.randomUUID().toString();
+		String requisicao = "DEPOSITO:" + conta.getId() + ":10.00";
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> outra = executor.submit(() -> idempotenciaService.executar(chave, requisicao, String.class, () -> {
+				emAndamento.countDown();
+				try {
+					liberar.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "primeira";
+			}));
+			assertThat(emAndamento.await(10, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(agrupadorDepositos.depositar(conta.getId(), Dinheiro.parse("10.00"), chave, requisicao)).isEmpty();
+			liberar.countDown();
+			assertThat(outra.get()).isEqualTo("primeira");
+		} finally {
+			liberar.countDown();
+			executor.shutdown();
+		}
+
+		// Com a resposta em cache a chave também fica fora do grupo
+		assertThat(agrupadorDepositos.depositar(conta.getId(), Dinheiro.parse("10.00"), chave, requisicao)).isEmpty();
+		assertThat(saldo(conta)).isEqualTo(Dinheiro.ZERO);
+	}
+
+	private interface Tarefa {
+		void executar(int thread) throws Exception;
+	}
+
+	private void executarEmParalelo(Tarefa tarefa) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Void>> futuros = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				futuros.add(executor.submit((Callable<Void>) () -> {
+					tarefa.executar(thread);
+					return null;
+				}));
+			}
+			for (Future<Void> futuro : futuros) {
+				futuro.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Dinheiro saldo(Conta conta) {
+		return contaRepository.findById(conta.getId()).orElseThrow().getSaldo();
+	}
+}
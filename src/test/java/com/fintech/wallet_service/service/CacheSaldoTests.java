@@ -0,0 +1,118 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.support.ContasDeTeste;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CacheSaldoTests {
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private SaldoService saldoService;
+
+	@Autowired
+	private ContasDeTeste contasDeTeste;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private DataSourceProperties dataSourceProperties;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void consultasRepetidasVemDoCacheAteOSaldoMudar() {
+		Conta conta = contasDeTeste.nova(Dinheiro.parse("100.00"));
+		assertThat(contaService.consultarSaldo(conta.getId()).saldo()).isEqualTo(Dinheiro.parse("100.00"));
+
+		// Alteração fora do serviço não invalida o cache: a leitura seguinte não vai ao banco. O checkpoint
+		// inicial acompanha a alteração, para a consolidação não acusar divergência no livro.
+		jdbcTemplate.update("UPDATE contas SET saldo = 999 WHERE id = ?", conta.getId());
+		jdbcTemplate.update("UPDATE saldo_checkpoints SET saldo = 999 WHERE conta_id = ?", conta.getId());
+		assertThat(contaService.consultarSaldo(conta.getId()).saldo()).isEqualTo(Dinheiro.parse("100.00"));
+		assertThat(contaService.buscarCarteiraPorId(conta.getId()).saldo()).isEqualTo(Dinheiro.parse("100.00"));
+
+		contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null);
+
+		assertThat(contaService.consultarSaldo(conta.getId()).saldo()).isEqualTo(Dinheiro.parse("1000.00"));
+		assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "saldos").gauge().value()).isPositive();
+	}
+
+	@Test
+	void saldoNaoConfirmadoNaoFicaEmCache() {
+		Conta conta = contasDeTeste.nova(Dinheiro.parse("100.00"));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			saldoService.movimentar(conta.getId(), TipoMovimentacao.DEPOSITO, Dinheiro.parse("50.00"));
+			// Outra thread lê o valor confirmado e o coloca em cache antes do commit
+			assertThat(CompletableFuture.supplyAsync(() -> contaService.consultarSaldo(conta.getId())).join().saldo())
+					.isEqualTo(Dinheiro.parse("100.00"));
+		});
+		assertThat(contaService.consultarSaldo(conta.getId()).saldo()).isEqualTo(Dinheiro.parse("150.00"));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			saldoService.movimentar(conta.getId(), TipoMovimentacao.DEPOSITO, Dinheiro.parse("50.00"));
+			status.setRollbackOnly();
+		});
+		assertThat(contaService.consultarSaldo(conta.getId()).saldo()).isEqualTo(Dinheiro.parse("150.00"));
+	}
+
+	@Test
+	void canalPostgresEntregaSomenteAvisosConfirmados() throws Exception {
+		BlockingQueue<Object> recebidos = new LinkedBlockingQueue<>();
+		CanalInvalidacaoSaldoPostgres canal = new CanalInvalidacaoSaldoPostgres(
+				jdbcTemplate, dataSourceProperties, Duration.ofSeconds(1));
+		canal.assinar(new CanalInvalidacaoSaldo.Ouvinte() {
+			@Override
+			public void invalidar(Collection<Long> contaIds) {
+				recebidos.add(List.copyOf(contaIds));
+			}
+
+			@Override
+			public void invalidarTodas() {
+				recebidos.add("todas");
+			}
+		});
+		try {
+			assertThat(recebidos.poll(10, TimeUnit.SECONDS)).isEqualTo("todas");
+
+			transactionTemplate.executeWithoutResult(status -> {
+				canal.publicar(List.of(3L));
+				status.setRollbackOnly();
+			});
+			transactionTemplate.executeWithoutResult(status -> canal.publicar(List.of(1L, 2L)));
+
+			assertThat(recebidos.poll(10, TimeUnit.SECONDS)).isEqualTo(List.of(1L, 2L));
+			assertThat(recebidos.poll(1, TimeUnit.SECONDS)).isNull();
+		} finally {
+			canal.parar();
+		}
+	}
+}
@@ -0,0 +1,319 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ModoQuenteRequestDTO;
+import com.fintech.wallet_service.dto.TransferenciaRequestDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.exception.ContaNaoEncontradaException;
+import com.fintech.wallet_service.exception.RequisicaoIdempotenteConflitanteException;
+import com.fintech.wallet_service.exception.SaldoInsuficienteException;
+import com.fintech.wallet_service.repository.MovimentacaoRepository;
+import com.fintech.wallet_service.support.ContasDeTeste;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ContaServiceConcorrenciaTests {
+
+	private static final Logger logger = Logger.getLogger(ContaServiceConcorrenciaTests.class.getName());
+
+	private static final int THREADS = 32;
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ContasDeTeste contasDeTeste;
+
+	@Autowired
+	private MovimentacaoRepository movimentacaoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void depositosConcorrentesNaoPerdemAtualizacoes() throws Exception {
+		Conta conta = contasDeTeste.nova(Dinheiro.ZERO);
+		int operacoesPorThread = 100;
+
+		executarEmParalelo(THREADS, () -> {
+			for (int i = 0; i < operacoesPorThread; i++) {
+				contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.25")), null);
+			}
+			return null;
+		});
+
+		Dinheiro esperado = Dinheiro.deCentavos(125L * THREADS * operacoesPorThread);
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(esperado);
+	}
+
+	@Test
+	void depositosESaquesConcorrentesMantemSaldoExato() throws Exception {
+		Conta conta = contasDeTeste.nova(Dinheiro.parse("10000.00"));
+		int operacoesPorThread = 100;
+
+		executarEmParalelo(THREADS, () -> {
+			for (int i = 0; i < operacoesPorThread; i++) {
+				contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("3.00")), null);
+				contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("2.00")), null);
+			}
+			return null;
+		});
+
+		Dinheiro esperado = Dinheiro.parse("10000.00").somar(Dinheiro.deCentavos(100L * THREADS * operacoesPorThread));
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(esperado);
+	}
+
+	@Test
+	void saquesConcorrentesNuncaDeixamSaldoNegativo() throws Exception {
+		Conta conta = contasDeTeste.nova(Dinheiro.parse("100.00"));
+		AtomicInteger sucessos = new AtomicInteger();
+		AtomicInteger recusados = new AtomicInteger();
+
+		executarEmParalelo(THREADS, () -> {
+			for (int i = 0; i < 10; i++) {
+				try {
+					contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null);
+					sucessos.incrementAndGet();
+				} catch (SaldoInsuficienteException e) {
+					recusados.incrementAndGet();
+				}
+			}
+			return null;
+		});
+
+		assertThat(sucessos.get()).isEqualTo(100);
+		assertThat(recusados.get()).isEqualTo(THREADS * 10 - 100);
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(Dinheiro.ZERO);
+	}
+
+	@Test
+	void modoQuentePodeSerAlternadoDuranteMovimentacoesConcorrentes() throws Exception {
+		Conta conta = contasDeTeste.nova(Dinheiro.parse("500.00"));
+		int operacoesPorThread = 50;
+		AtomicBoolean emExecucao = new AtomicBoolean(true);
+
+		Thread alternador = new Thread(() -> {
+			int slots = 2;
+			while (emExecucao.get()) {
+				contaService.ativarModoQuente(conta.getId(), new ModoQuenteRequestDTO(slots));
+				contaService.desativarModoQuente(conta.getId());
+				slots = slots == 2 ? 8 : 2;
+			}
+		});
+		alternador.start();
+
+		try {
+			executarEmParalelo(THREADS, () -> {
+				for (int i = 0; i < operacoesPorThread; i++) {
+					contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("2.00")), null);
+					contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null);
+				}
+				return null;
+			});
+		} finally {
+			emExecucao.set(false);
+			alternador.join();
+		}
+
+		Dinheiro esperado = Dinheiro.parse("500.00").somar(Dinheiro.deCentavos(100L * THREADS * operacoesPorThread));
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(esperado);
+
+		contaService.ativarModoQuente(conta.getId(), new ModoQuenteRequestDTO(4));
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(esperado);
+		assertThatThrownBy(() -> contaService.sacar(conta.getId(), new TransicaoRequestDTO(esperado.somar(Dinheiro.parse("1.00"))), null))
+				.isInstanceOf(SaldoInsuficienteException.class);
+		contaService.sacar(conta.getId(), new TransicaoRequestDTO(esperado), null);
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(Dinheiro.ZERO);
+	}
+
+	@Test
+	void livroDeMovimentacoesAcompanhaOSaldoAntesEDepoisDoCheckpoint() throws Exception {
+		Conta conta = contasDeTeste.nova(Dinheiro.ZERO);
+
+		executarEmParalelo(THREADS, () -> {
+			for (int i = 0; i < 20; i++) {
+				contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("5.00")), null);
+				contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.50")), null);
+			}
+			return null;
+		});
+
+		Dinheiro saldo = saldoAtual(conta.getId());
+		assertThat(movimentacaoRepository.saldoApurado(conta.getId())).isEqualByComparingTo(saldo.toBigDecimal());
+
+		assertThat(movimentacaoRepository.consolidar(Instant.EPOCH, Instant.now().plusSeconds(1))).contains(conta.getId());
+		contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), null);
+
+		assertThat(movimentacaoRepository.saldoApurado(conta.getId())).isEqualByComparingTo(saldo.somar(Dinheiro.parse("10.00")).toBigDecimal());
+		assertThat(movimentacaoRepository.buscarDivergencias(List.of(conta.getId()))).isEmpty();
+
+		// Cada consolidação substitui o checkpoint da conta em vez de acumular um novo
+		assertThat(movimentacaoRepository.consolidar(Instant.EPOCH, Instant.now().plusSeconds(1))).contains(conta.getId());
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM saldo_checkpoints WHERE conta_id = ?",
+				Integer.class, conta.getId())).isEqualTo(1);
+		assertThat(movimentacaoRepository.saldoApurado(conta.getId())).isEqualByComparingTo(saldo.somar(Dinheiro.parse("10.00")).toBigDecimal());
+	}
+
+	@Test
+	void repeticoesConcorrentesComAMesmaChaveSaoAplicadasUmaVez() throws Exception {
+		Conta conta = contasDeTeste.nova(Dinheiro.ZERO);
+		String chave = UUID.randomUUID().toString();
+		Set<Dinheiro> saldosDevolvidos = ConcurrentHashMap.newKeySet();
+
+		executarEmParalelo(THREADS, () -> {
+			for (int i = 0; i < 5; i++) {
+				saldosDevolvidos.add(contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), chave).saldo());
+			}
+			return null;
+		});
+
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(Dinheiro.parse("10.00"));
+		assertThat(saldosDevolvidos).hasSize(1);
+		assertThatThrownBy(() -> contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), chave))
+				.isInstanceOf(RequisicaoIdempotenteConflitanteException.class);
+	}
+
+	@Test
+	void chaveDeOperacaoQueFalhouPodeSerReutilizada() {
+		Conta conta = contasDeTeste.nova(Dinheiro.ZERO);
+		String chave = UUID.randomUUID().toString();
+
+		assertThatThrownBy(() -> contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), chave))
+				.isInstanceOf(SaldoInsuficienteException.class);
+
+		contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null);
+		contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), chave);
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(Dinheiro.ZERO);
+	}
+
+	@Test
+	void mesmaChaveDeUsuariosDiferentesEhAplicadaParaCadaUm() {
+		Conta conta = contasDeTeste.nova(Dinheiro.ZERO);
+		String chave = UUID.randomUUID().toString();
+
+		try {
+			for (String usuario : List.of("101", "102")) {
+				SecurityContextHolder.getContext().setAuthentication(
+						new UsernamePasswordAuthenticationToken(usuario, "token", List.of()));
+				contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), chave);
+				contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), chave);
+			}
+			assertThatThrownBy(() -> contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), chave))
+					.isInstanceOf(RequisicaoIdempotenteConflitanteException.class);
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+
+		assertThat(saldoAtual(conta.getId())).isEqualByComparingTo(Dinheiro.parse("20.00"));
+	}
+
+	@Test
+	void transferenciasCruzadasEntreContasQuentesNaoEntramEmDeadlock() throws Exception {
+		List<Conta> contas = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			contas.add(contasDeTeste.nova(Dinheiro.parse("1000.00")));
+		}
+		contaService.ativarModoQuente(contas.get(3).getId(), new ModoQuenteRequestDTO(4));
+		int transferenciasPorThread = 20;
+		AtomicInteger recusadas = new AtomicInteger();
+
+		long inicio = System.nanoTime();
+		executarEmParalelo(THREADS, () -> {
+			ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+			for (int i = 0; i < transferenciasPorThread; i++) {
+				int origem = aleatorio.nextInt(contas.size());
+				int destino = (origem + 1 + aleatorio.nextInt(contas.size() - 1)) % contas.size();
+				try {
+					contaService.transferir(new TransferenciaRequestDTO(contas.get(origem).getId(),
+							contas.get(destino).getId(), Dinheiro.deCentavos(100L * aleatorio.nextInt(1, 50))), null);
+				} catch (SaldoInsuficienteException e) {
+					recusadas.incrementAndGet();
+				}
+			}
+			return null;
+		});
+		double porSegundo = THREADS * transferenciasPorThread / ((System.nanoTime() - inicio) / 1e9);
+		logger.info(String.format("Transferências cruzadas entre %d contas: %.0f/s com %d threads (%d recusadas)",
+				contas.size(), porSegundo, THREADS, recusadas.get()));
+
+		Dinheiro total = Dinheiro.ZERO;
+		for (Conta conta : contas) {
+			Dinheiro saldo = saldoAtual(conta.getId());
+			assertThat(movimentacaoRepository.saldoApurado(conta.getId())).isEqualByComparingTo(saldo.toBigDecimal());
+			total = total.somar(saldo);
+		}
+		assertThat(total).isEqualTo(Dinheiro.parse("4000.00"));
+	}
+
+	@Test
+	void transferenciaRecusadaNaoAlteraNenhumaDasContas() {
+		Conta origem = contasDeTeste.nova(Dinheiro.parse("10.00"));
+		Conta destino = contasDeTeste.nova(Dinheiro.ZERO);
+
+		assertThatThrownBy(() -> contaService.transferir(
+				new TransferenciaRequestDTO(origem.getId(), destino.getId(), Dinheiro.parse("10.01")), null))
+				.isInstanceOf(SaldoInsuficienteException.class);
+		assertThatThrownBy(() -> contaService.transferir(
+				new TransferenciaRequestDTO(origem.getId(), Long.MAX_VALUE, Dinheiro.parse("1.00")), null))
+				.isInstanceOf(ContaNaoEncontradaException.class);
+		assertThatThrownBy(() -> contaService.transferir(
+				new TransferenciaRequestDTO(origem.getId(), origem.getId(), Dinheiro.parse("1.00")), null))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(saldoAtual(origem.getId())).isEqualTo(Dinheiro.parse("10.00"));
+		assertThat(saldoAtual(destino.getId())).isEqualTo(Dinheiro.parse("0.00"));
+
+		contaService.transferir(new TransferenciaRequestDTO(origem.getId(), destino.getId(), Dinheiro.parse("10.00")), null);
+		assertThat(saldoAtual(origem.getId())).isEqualTo(Dinheiro.parse("0.00"));
+		assertThat(saldoAtual(destino.getId())).isEqualTo(Dinheiro.parse("10.00"));
+	}
+
+	@Test
+	void saqueEmContaInexistenteContinuaRetornandoNaoEncontrada() {
+		assertThatThrownBy(() -> contaService.sacar(Long.MAX_VALUE, new TransicaoRequestDTO(Dinheiro.parse("1.00")), null))
+				.isInstanceOf(ContaNaoEncontradaException.class);
+	}
+
+	private void executarEmParalelo(int threads, Callable<Void> tarefa) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Void>> futuros = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futuros.add(executor.submit(tarefa));
+			}
+			for (Future<Void> futuro : futuros) {
+				futuro.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Dinheiro saldoAtual(Long id) {
+		return contaService.consultarSaldo(id).saldo();
+	}
+}
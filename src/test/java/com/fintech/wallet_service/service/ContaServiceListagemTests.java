@@ -0,0 +1,83 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ContaRequestDTO;
+import com.fintech.wallet_service.dto.ContaResumoResponseDTO;
+import com.fintech.wallet_service.dto.PaginaCursor;
+import com.fintech.wallet_service.support.TesteIntegracaoComUsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContaServiceListagemTests extends TesteIntegracaoComUsuarioService {
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ProvisionamentoService provisionamentoService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void percorreTodasAsContasPeloCursorEmOrdemDeId() {
+		List<ContaRequestDTO> contas = new ArrayList<>();
+		for (int i = 0; i < 45; i++) {
+			contas.add(new ContaRequestDTO(usuarioBase, i % 2 == 0 ? "CORRENTE" : "POUPANCA"));
+		}
+		contas.add(new ContaRequestDTO(usuarioBase + 1, "CORRENTE"));
+		provisionamentoService.provisionar(contas);
+
+		List<ContaResumoResponseDTO> lidas = new ArrayList<>();
+		Long cursor = null;
+		int paginas = 0;
+		do {
+			PaginaCursor<ContaResumoResponseDTO> pagina = contaService.listarCarteirasUsuario(usuarioBase, cursor, 20);
+			assertThat(pagina.itens()).hasSizeLessThanOrEqualTo(20);
+			lidas.addAll(pagina.itens());
+			cursor = pagina.proximoCursor();
+			paginas++;
+		} while (cursor != null);
+
+		assertThat(paginas).isEqualTo(3);
+		assertThat(lidas).hasSize(45);
+		assertThat(lidas).extracting(ContaResumoResponseDTO::id).isSorted().doesNotHaveDuplicates();
+		assertThat(lidas).allSatisfy(conta -> {
+			assertThat(conta.usuarioId()).isEqualTo(usuarioBase);
+			assertThat(conta.tipo()).isIn("CORRENTE", "POUPANCA");
+			assertThat(conta.numeroConta()).matches("ACC-\\d{10}");
+		});
+	}
+
+	@Test
+	void tamanhoDaPaginaEhLimitado() {
+		List<ContaRequestDTO> contas = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			contas.add(new ContaRequestDTO(usuarioBase, "CORRENTE"));
+		}
+		provisionamentoService.provisionar(contas);
+
+		PaginaCursor<ContaResumoResponseDTO> pagina = contaService.listarCarteirasUsuario(usuarioBase, null, 10_000);
+
+		assertThat(pagina.itens()).hasSize(200);
+		assertThat(pagina.proximoCursor()).isEqualTo(pagina.itens().get(199).id());
+		assertThatThrownBy(() -> contaService.listarCarteirasUsuario(usuarioBase, null, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void consultaUsaOIndiceDeCobertura() {
+		List<String> plano = jdbcTemplate.queryForList("""
+				EXPLAIN SELECT id, usuario_id, numero_conta, tipo FROM contas
+				 WHERE usuario_id = 42 AND id > 0 ORDER BY id LIMIT 51
+				""", String.class);
+
+		assertThat(String.join("\n", plano)).contains("idx_contas_usuario_id_id");
+	}
+}
@@ -0,0 +1,117 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.TransferenciaRequestDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.exception.SaldoInsuficienteException;
+import com.fintech.wallet_service.repository.ContaRepository;
+import com.fintech.wallet_service.support.ContasDeTeste;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"carteira.saldo.concorrencia=OTIMISTA",
+		"carteira.saldo.otimista.tentativas=100"
+})
+class ContaServiceOtimistaTests {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private ContasDeTeste contasDeTeste;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void depositosConcorrentesSaoRefeitosSemPerderAtualizacoes() throws Exception {
+		Conta conta = contasDeTeste.nova(Dinheiro.ZERO);
+		int operacoesPorThread = 25;
+		double conflitosAntes = contador("carteira.otimista.conflitos", "deposito");
+
+		executarEmParalelo(() -> {
+			for (int i = 0; i < operacoesPorThread; i++) {
+				contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.25")), null);
+			}
+			return null;
+		});
+
+		assertThat(saldoAtual(conta.getId())).isEqualTo(Dinheiro.deCentavos(125L * THREADS * operacoesPorThread));
+		assertThat(contaRepository.findById(conta.getId()).orElseThrow().getVersao())
+				.isEqualTo((long) THREADS * operacoesPorThread);
+		assertThat(contador("carteira.otimista.conflitos", "deposito")).isGreaterThan(conflitosAntes);
+		assertThat(contador("carteira.otimista.retentativas", "deposito")).isPositive();
+	}
+
+	@Test
+	void transferenciasEmSentidosOpostosPreservamOTotal() throws Exception {
+		Conta a = contasDeTeste.nova(Dinheiro.parse("1000.00"));
+		Conta b = contasDeTeste.nova(Dinheiro.parse("1000.00"));
+
+		executarEmParalelo(() -> {
+			for (int i = 0; i < 10; i++) {
+				contaService.transferir(new TransferenciaRequestDTO(a.getId(), b.getId(), Dinheiro.parse("3.00")), null);
+				contaService.transferir(new TransferenciaRequestDTO(b.getId(), a.getId(), Dinheiro.parse("2.00")), null);
+			}
+			return null;
+		});
+
+		assertThat(saldoAtual(a.getId())).isEqualTo(Dinheiro.parse("840.00"));
+		assertThat(saldoAtual(b.getId())).isEqualTo(Dinheiro.parse("1160.00"));
+	}
+
+	@Test
+	void saqueSemSaldoNaoAlteraAConta() {
+		Conta conta = contasDeTeste.nova(Dinheiro.parse("5.00"));
+
+		assertThatThrownBy(() -> contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("5.01")), null))
+				.isInstanceOf(SaldoInsuficienteException.class);
+
+		Conta atual = contaRepository.findById(conta.getId()).orElseThrow();
+		assertThat(atual.getSaldo()).isEqualTo(Dinheiro.parse("5.00"));
+		assertThat(atual.getVersao()).isZero();
+	}
+
+	private double contador(String nome, String operacao) {
+		var contador = meterRegistry.find(nome).tag("operacao", operacao).counter();
+		return contador == null ? 0 : contador.count();
+	}
+
+	private void executarEmParalelo(Callable<Void> tarefa) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Void>> futuros = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futuros.add(executor.submit(tarefa));
+			}
+			for (Future<Void> futuro : futuros) {
+				futuro.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Dinheiro saldoAtual(Long id) {
+		return contaRepository.findById(id).orElseThrow().getSaldo();
+	}
+}
@@ -0,0 +1,88 @@
+package com.fintech.wallet_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet_service.dto.FiltroExportacaoContas;
+import com.fintech.wallet_service.dto.FormatoExportacao;
+import com.fintech.wallet_service.dto.ModoQuenteRequestDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoConta;
+import com.fintech.wallet_service.support.ContasDeTeste;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExportacaoContaServiceTests {
+
+	@Autowired
+	private ExportacaoContaService exportacaoContaService;
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ContasDeTeste contasDeTeste;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void ndjsonRespeitaOsFiltrosEExportaOSaldoTotal() throws Exception {
+		OffsetDateTime inicio = OffsetDateTime.now().minusSeconds(1);
+		Conta quente = contasDeTeste.nova(TipoConta.CORRENTE, true);
+		Conta poupanca = contasDeTeste.nova(TipoConta.POUPANCA, true);
+		Conta inativa = contasDeTeste.nova(TipoConta.CORRENTE, false);
+		contaService.ativarModoQuente(quente.getId(), new ModoQuenteRequestDTO(4));
+		contaService.depositar(quente.getId(), new TransicaoRequestDTO(Dinheiro.parse("7.50")), null);
+		contaService.depositar(quente.getId(), new TransicaoRequestDTO(Dinheiro.parse("2.50")), null);
+
+		List<JsonNode> exportadas = new ArrayList<>();
+		for (String linha : exportar(new FiltroExportacaoContas(TipoConta.CORRENTE, true, inicio), FormatoExportacao.NDJSON)) {
+			exportadas.add(objectMapper.readTree(linha));
+		}
+
+		Set<Long> nossas = Set.of(quente.getId(), poupanca.getId(), inativa.getId());
+		List<JsonNode> filtradas = exportadas.stream().filter(conta -> nossas.contains(conta.get("id").asLong())).toList();
+		assertThat(filtradas).hasSize(1);
+		assertThat(filtradas.get(0).get("id").asLong()).isEqualTo(quente.getId());
+		assertThat(filtradas.get(0).get("saldo").decimalValue()).isEqualByComparingTo("10.00");
+		assertThat(filtradas.get(0).get("slotsSaldo").asInt()).isEqualTo(4);
+		assertThat(exportadas).allSatisfy(conta -> {
+			assertThat(conta.get("tipo").asText()).isEqualTo("CORRENTE");
+			assertThat(conta.get("ativa").asBoolean()).isTrue();
+			assertThat(OffsetDateTime.parse(conta.get("dataAtualizacao").asText())).isAfter(inicio);
+		});
+	}
+
+	@Test
+	void csvTemCabecalhoEUmaLinhaPorConta() {
+		OffsetDateTime inicio = OffsetDateTime.now().minusSeconds(1);
+		Conta conta = contasDeTeste.nova(TipoConta.POUPANCA, false);
+
+		List<String> linhas = exportar(new FiltroExportacaoContas(null, false, inicio), FormatoExportacao.CSV);
+
+		assertThat(linhas.get(0)).isEqualTo("id,usuario_id,numero_conta,saldo,tipo,data_criacao,data_atualizacao,ativa,slots_saldo");
+		assertThat(linhas).anySatisfy(linha -> assertThat(linha)
+				.startsWith(conta.getId() + ",1," + conta.getNumeroConta() + ",0.00,POUPANCA,")
+				.endsWith(",false,0"));
+		assertThat(linhas.subList(1, linhas.size())).allSatisfy(linha -> assertThat(linha.split(",")).hasSize(9));
+	}
+
+	private List<String> exportar(FiltroExportacaoContas filtro, FormatoExportacao formato) {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		exportacaoContaService.exportar(filtro, formato, saida);
+		return saida.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+}
@@ -0,0 +1,101 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ItemExtratoDTO;
+import com.fintech.wallet_service.dto.PaginaExtrato;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.repository.MovimentacaoRepository;
+import com.fintech.wallet_service.support.ContasDeTeste;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExtratoServiceTests {
+
+	@Autowired
+	private ExtratoService extratoService;
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ContasDeTeste contasDeTeste;
+
+	@Autowired
+	private MovimentacaoRepository movimentacaoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void paginasTrazemOSaldoAposCadaLancamento() {
+		OffsetDateTime de = OffsetDateTime.now().minusSeconds(1);
+		OffsetDateTime ate = de.plusHours(1);
+		Conta conta = contasDeTeste.nova();
+		contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), null);
+		contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("20.00")), null);
+		contaService.sacar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("5.00")), null);
+		movimentacaoRepository.consolidar(de.toInstant(), Instant.now());
+		contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("100.00")), null);
+
+		List<ItemExtratoDTO> itens = new ArrayList<>();
+		String cursor = null;
+		int paginas = 0;
+		do {
+			PaginaExtrato pagina = extratoService.extrato(conta.getId(), de, ate, cursor, 2);
+			itens.addAll(pagina.itens());
+			cursor = pagina.proximoCursor() != null ? pagina.proximoCursor().toString() : null;
+			paginas++;
+		} while (cursor != null);
+
+		assertThat(paginas).isEqualTo(2);
+		assertThat(itens).extracting(ItemExtratoDTO::valor)
+				.usingElementComparator(BigDecimal::compareTo)
+				.containsExactly(new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("-5"), new BigDecimal("100"));
+		assertThat(itens).extracting(ItemExtratoDTO::saldoApos)
+				.usingElementComparator(BigDecimal::compareTo)
+				.containsExactly(new BigDecimal("10"), new BigDecimal("30"), new BigDecimal("25"), new BigDecimal("125"));
+
+		// Período começando depois do checkpoint: o saldo de abertura vem do checkpoint
+		PaginaExtrato ultimos = extratoService.extrato(conta.getId(), itens.get(3).dataMovimentacao(), ate, null, null);
+		assertThat(ultimos.itens()).hasSize(1);
+		assertThat(ultimos.itens().get(0).saldoApos()).isEqualByComparingTo("125.00");
+		assertThat(ultimos.proximoCursor()).isNull();
+	}
+
+	@Test
+	void lancamentosVaoParaAParticaoDoMesEConsultasDoMesNaoLeemAsDemais() {
+		Conta conta = contasDeTeste.nova();
+		contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null);
+
+		YearMonth mes = YearMonth.now(ZoneOffset.UTC);
+		String particao = "movimentacoes_" + mes.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT tableoid::regclass::text FROM movimentacoes WHERE conta_id = ?", String.class, conta.getId()))
+				.isEqualTo(particao);
+		assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+				"movimentacoes_" + mes.plusMonths(3).format(DateTimeFormatter.ofPattern("yyyy_MM")))).isTrue();
+
+		OffsetDateTime inicio = mes.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+		List<String> plano = jdbcTemplate.queryForList("""
+				EXPLAIN (COSTS OFF)
+				SELECT id FROM movimentacoes
+				 WHERE conta_id = ? AND data_movimentacao >= ? AND data_movimentacao < ?
+				""", String.class, conta.getId(), inicio, inicio.plusMonths(1));
+		assertThat(String.join("\n", plano)).contains(particao).doesNotContain("movimentacoes_legado");
+	}
+}
@@ -0,0 +1,107 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoConta;
+import com.fintech.wallet_service.repository.ContaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GeradorNumeroContaTests {
+
+	private static final long CHAVE = 7046029254386353131L;
+	private static final long TAMANHO_BLOCO = 1000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Test
+	void numerosSaoUnicosComDigitoVerificadorENaoParecemSequenciais() {
+		GeradorNumeroConta gerador = new GeradorNumeroConta(jdbcTemplate, CHAVE);
+		Set<String> numeros = new HashSet<>();
+		int consecutivos = 0;
+		long anterior = -1;
+
+		for (long indice = 0; indice < 300_000; indice++) {
+			String numero = gerador.formatar(indice);
+			assertThat(numero).matches("ACC-\\d{10}");
+			assertThat(numeros.add(numero)).isTrue();
+
+			String digitos = numero.substring(4, 13);
+			assertThat(numero.charAt(13) - '0').isEqualTo(GeradorNumeroConta.digitoVerificador(digitos));
+
+			long valor = Long.parseLong(digitos);
+			if (Math.abs(valor - anterior) == 1) {
+				consecutivos++;
+			}
+			anterior = valor;
+		}
+
+		assertThat(consecutivos).isLessThan(10);
+	}
+
+	@Test
+	void geracaoConcorrenteNaoRepeteNumerosEReservaUmBlocoPorVez() throws Exception {
+		GeradorNumeroConta gerador = new GeradorNumeroConta(jdbcTemplate, CHAVE);
+		int threads = 16;
+		int porThread = 2500;
+		Set<String> numeros = ConcurrentHashMap.newKeySet();
+
+		long antes = proximoBloco();
+		try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+			List<Future<?>> tarefas = IntStream.range(0, threads)
+					.<Future<?>>mapToObj(t -> executor.submit(() -> {
+						for (int i = 0; i < porThread; i++) {
+							numeros.add(gerador.gerar());
+						}
+					}))
+					.toList();
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		}
+		long depois = proximoBloco();
+
+		assertThat(numeros).hasSize(threads * porThread);
+		long blocosReservados = (depois - antes) / TAMANHO_BLOCO - 1;
+		assertThat(blocosReservados).isEqualTo(threads * porThread / TAMANHO_BLOCO);
+	}
+
+	@Test
+	void pulaNumerosJaUsadosPorContasAnteriores() {
+		GeradorNumeroConta gerador = new GeradorNumeroConta(jdbcTemplate, CHAVE);
+		long blocoSeguinte = proximoBloco() + TAMANHO_BLOCO;
+
+		String numeroLegado = gerador.formatar(blocoSeguinte);
+		Conta legada = new Conta();
+		legada.setUsuarioId(1L);
+		legada.setNumeroConta(numeroLegado);
+		legada.setSaldo(Dinheiro.ZERO);
+		legada.setTipo(TipoConta.CORRENTE);
+		legada.setAtiva(true);
+		contaRepository.save(legada);
+
+		assertThat(gerador.gerar()).isEqualTo(gerador.formatar(blocoSeguinte + 1));
+	}
+
+	private long proximoBloco() {
+		return jdbcTemplate.queryForObject("SELECT nextval('numero_conta_seq')", Long.class);
+	}
+}
@@ -0,0 +1,105 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ItemLoteRequestDTO;
+import com.fintech.wallet_service.dto.ItemLoteResponseDTO;
+import com.fintech.wallet_service.dto.ModoQuenteRequestDTO;
+import com.fintech.wallet_service.dto.StatusItemLote;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.repository.MovimentacaoRepository;
+import com.fintech.wallet_service.support.ContasDeTeste;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LoteTransacaoServiceTests {
+
+	private static final Logger logger = Logger.getLogger(LoteTransacaoServiceTests.class.getName());
+
+	@Autowired
+	private LoteTransacaoService loteTransacaoService;
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ContasDeTeste contasDeTeste;
+
+	@Autowired
+	private MovimentacaoRepository movimentacaoRepository;
+
+	@Test
+	void devolveResultadoPorItemNaOrdemDoLote() {
+		Conta comSaldo = contasDeTeste.nova(Dinheiro.parse("10.00"));
+		Conta quente = contasDeTeste.nova(Dinheiro.ZERO);
+		contaService.ativarModoQuente(quente.getId(), new ModoQuenteRequestDTO(4));
+
+		List<ItemLoteRequestDTO> itens = List.of(
+				new ItemLoteRequestDTO(comSaldo.getId(), TipoMovimentacao.SAQUE, Dinheiro.parse("15.00")),
+				new ItemLoteRequestDTO(comSaldo.getId(), TipoMovimentacao.DEPOSITO, Dinheiro.parse("5.00")),
+				new ItemLoteRequestDTO(Long.MAX_VALUE, TipoMovimentacao.DEPOSITO, Dinheiro.parse("1.00")),
+				new ItemLoteRequestDTO(quente.getId(), TipoMovimentacao.DEPOSITO, Dinheiro.parse("7.00")),
+				new ItemLoteRequestDTO(comSaldo.getId(), TipoMovimentacao.SAQUE, Dinheiro.parse("100.00")));
+
+		List<ItemLoteResponseDTO> resultados = new ArrayList<>();
+		loteTransacaoService.processar(itens, resultados::addAll);
+
+		assertThat(resultados).extracting(ItemLoteResponseDTO::indice).containsExactly(0, 1, 2, 3, 4);
+		assertThat(resultados).extracting(ItemLoteResponseDTO::status).containsExactly(
+				StatusItemLote.PROCESSADO,
+				StatusItemLote.PROCESSADO,
+				StatusItemLote.CONTA_NAO_ENCONTRADA,
+				StatusItemLote.PROCESSADO,
+				StatusItemLote.SALDO_INSUFICIENTE);
+		assertThat(contaService.consultarSaldo(comSaldo.getId()).saldo()).isEqualTo(Dinheiro.ZERO);
+		assertThat(contaService.consultarSaldo(quente.getId()).saldo()).isEqualTo(Dinheiro.parse("7.00"));
+		assertThat(movimentacaoRepository.saldoApurado(quente.getId())).isEqualByComparingTo("7.00");
+	}
+
+	@Test
+	void loteSuperaAsChamadasIndividuais() {
+		int quantidadeContas = 200;
+		int depositosPorConta = 10;
+		List<Conta> contas = new ArrayList<>();
+		for (int i = 0; i < quantidadeContas; i++) {
+			contas.add(contasDeTeste.nova(Dinheiro.ZERO));
+		}
+
+		long inicioIndividual = System.nanoTime();
+		for (int rodada = 0; rodada < depositosPorConta; rodada++) {
+			for (Conta conta : contas) {
+				contaService.depositar(conta.getId(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null);
+			}
+		}
+		long individualNanos = System.nanoTime() - inicioIndividual;
+
+		List<ItemLoteRequestDTO> itens = new ArrayList<>();
+		for (int rodada = 0; rodada < depositosPorConta; rodada++) {
+			for (Conta conta : contas) {
+				itens.add(new ItemLoteRequestDTO(conta.getId(), TipoMovimentacao.DEPOSITO, Dinheiro.parse("1.00")));
+			}
+		}
+		long inicioLote = System.nanoTime();
+		loteTransacaoService.processar(itens, bloco -> assertThat(bloco)
+				.allMatch(item -> item.status() == StatusItemLote.PROCESSADO));
+		long loteNanos = System.nanoTime() - inicioLote;
+
+		int operacoes = quantidadeContas * depositosPorConta;
+		logger.info(String.format("%d depósitos: individual %.0f ops/s, lote %.0f ops/s",
+				operacoes, operacoes / (individualNanos / 1e9), operacoes / (loteNanos / 1e9)));
+
+		for (Conta conta : contas) {
+			assertThat(contaService.consultarSaldo(conta.getId()).saldo())
+					.isEqualTo(Dinheiro.deCentavos(200L * depositosPorConta));
+		}
+	}
+}
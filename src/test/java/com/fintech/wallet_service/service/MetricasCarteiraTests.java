@@ -0,0 +1,108 @@
+package com.fintech.wallet_service.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fintech.wallet_service.dto.ContaRequestDTO;
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoConta;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.exception.UsuarioServiceIndisponivelException;
+import com.fintech.wallet_service.support.TesteIntegracaoComUsuarioService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureObservability
+@AutoConfigureMockMvc
+class MetricasCarteiraTests extends TesteIntegracaoComUsuarioService {
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private SaldoService saldoService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void volumeContaSoMovimentacoesConfirmadas() {
+		ContaResponseDTO conta = contaService.criarConta(new ContaRequestDTO(usuarioBase, "POUPANCA"), null);
+		long antes = volume(TipoMovimentacao.DEPOSITO, TipoConta.POUPANCA).count();
+		double totalAntes = volume(TipoMovimentacao.DEPOSITO, TipoConta.POUPANCA).totalAmount();
+
+		contaService.depositar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("12.50")), null);
+		transactionTemplate.executeWithoutResult(status -> {
+			saldoService.movimentar(conta.id(), TipoMovimentacao.DEPOSITO, Dinheiro.parse("99.00"));
+			status.setRollbackOnly();
+		});
+
+		assertThat(volume(TipoMovimentacao.DEPOSITO, TipoConta.POUPANCA).count()).isEqualTo(antes + 1);
+		assertThat(volume(TipoMovimentacao.DEPOSITO, TipoConta.POUPANCA).totalAmount()).isEqualTo(totalAntes + 12.5);
+		assertThat(meterRegistry.get("carteira.servico").tag("method", "depositar").timer().count()).isPositive();
+		assertThat(meterRegistry.get("hikaricp.connections.acquire").timers()).isNotEmpty();
+	}
+
+	@Test
+	void falhasDoUserServiceSaoContadasPorMotivo() {
+		USUARIO_SERVICE.definirStatusErro(503);
+		try {
+			assertThatThrownBy(() -> contaService.criarConta(new ContaRequestDTO(usuarioBase + 1, "CORRENTE"), null))
+					.isInstanceOf(UsuarioServiceIndisponivelException.class);
+		} finally {
+			USUARIO_SERVICE.definirStatusErro(0);
+		}
+
+		assertThat(meterRegistry.get("usuario.servico.erros").tag("motivo", "http_5xx").counter().count()).isPositive();
+		assertThat(meterRegistry.get("http.client.requests").tag("status", "503").timer().count()).isPositive();
+	}
+
+	@Test
+	void prometheusExigeAutenticacaoEExpoeOsHistogramas() throws Exception {
+		contaService.criarConta(new ContaRequestDTO(usuarioBase + 2, "CORRENTE"), null);
+
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+		String token = JWT.create()
+				.withClaim("userId", 1L)
+				.withExpiresAt(Instant.now().plusSeconds(3600))
+				.sign(Algorithm.HMAC256("secret"));
+		String corpo = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(corpo)
+				.contains("carteira_servico_seconds_bucket{")
+				.contains("http_client_requests_seconds_bucket{")
+				.contains("hikaricp_connections_acquire_seconds_bucket{");
+	}
+
+	private DistributionSummary volume(TipoMovimentacao tipo, TipoConta tipoConta) {
+		return DistributionSummary.builder("carteira.movimentacoes.valor")
+				.baseUnit("BRL")
+				.tag("tipo", tipo.name())
+				.tag("tipo_conta", tipoConta.name())
+				.register(meterRegistry);
+	}
+}
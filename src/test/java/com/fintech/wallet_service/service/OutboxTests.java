@@ -0,0 +1,201 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ContaRequestDTO;
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.EventoContaDTO;
+import com.fintech.wallet_service.dto.ModoQuenteRequestDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.EventoOutbox;
+import com.fintech.wallet_service.entity.TipoEventoConta;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.support.TesteIntegracaoComUsuarioService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@TestPropertySource(properties = {
+		"carteira.outbox.habilitado=true",
+		"carteira.outbox.particoes=4",
+		"carteira.outbox.relay.intervalo=PT0.05S",
+		"carteira.outbox.relay.lote=50",
+		"carteira.outbox.relay.espera-falha=PT0.1S"
+})
+class OutboxTests extends TesteIntegracaoComUsuarioService {
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@MockitoSpyBean
+	private DestinoEventosMemoria destino;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void criacaoDepositoESaqueSaoPublicadosEmOrdem() throws Exception {
+		ContaResponseDTO conta = contaService.criarConta(new ContaRequestDTO(usuarioBase + 1, "CORRENTE"), null);
+		contaService.depositar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("100.00")), null);
+		contaService.sacar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("30.00")), null);
+
+		List<JsonNode> eventos = aguardarEventos(conta.id(), 3);
+		assertThat(eventos).extracting(evento -> evento.get("tipo").asText())
+				.containsExactly("CONTA_CRIADA", "SALDO_ALTERADO", "SALDO_ALTERADO");
+		assertThat(eventos.get(0).get("usuarioId").asLong()).isEqualTo(usuarioBase + 1);
+		assertThat(eventos).extracting(evento -> dinheiro(evento.get("saldo")))
+				.containsExactly(Dinheiro.ZERO, Dinheiro.parse("100.00"), Dinheiro.parse("70.00"));
+		assertThat(eventos.get(2).get("movimentacao").asText()).isEqualTo("SAQUE");
+		assertThat(dinheiro(eventos.get(2).get("valor"))).isEqualTo(Dinheiro.parse("-30.00"));
+	}
+
+	@Test
+	void depositosSimultaneosNaMesmaContaSaoPublicadosNaOrdemDosCommits() throws Exception {
+		ContaResponseDTO conta = contaService.criarConta(new ContaRequestDTO(usuarioBase + 2, "CORRENTE"), null);
+		int depositos = 80;
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			List<Future<?>> futuros = new ArrayList<>();
+			for (int i = 0; i < depositos; i++) {
+				futuros.add(executor.submit(() ->
+						contaService.depositar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null)));
+			}
+			for (Future<?> futuro : futuros) {
+				futuro.get();
+			}
+		}
+
+		List<Dinheiro> saldos = aguardarEventos(conta.id(), depositos + 1).stream()
+				.skip(1)
+				.map(evento -> dinheiro(evento.get("saldo")))
+				.toList();
+		for (int i = 0; i < depositos; i++) {
+			assertThat(saldos.get(i)).isEqualTo(Dinheiro.deCentavos(100L * (i + 1)));
+		}
+	}
+
+	@Test
+	void creditosSimultaneosEmModoQuenteSaemSemSaldoEODebitoSeguinteTrazOSaldoExato() throws Exception {
+		ContaResponseDTO conta = contaService.criarConta(new ContaRequestDTO(usuarioBase + 4, "CORRENTE"), null);
+		contaService.ativarModoQuente(conta.id(), new ModoQuenteRequestDTO(8));
+		int depositos = 80;
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			List<Future<?>> futuros = new ArrayList<>();
+			for (int i = 0; i < depositos; i++) {
+				futuros.add(executor.submit(() ->
+						contaService.depositar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null)));
+			}
+			for (Future<?> futuro : futuros) {
+				futuro.get();
+			}
+		}
+		contaService.sacar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("0.50")), null);
+
+		List<JsonNode> eventos = aguardarEventos(conta.id(), depositos + 2);
+		List<JsonNode> creditos = eventos.subList(1, depositos + 1);
+		assertThat(creditos).allSatisfy(evento -> {
+			assertThat(evento.has("saldo")).isFalse();
+			assertThat(dinheiro(evento.get("valor"))).isEqualTo(Dinheiro.parse("1.00"));
+		});
+		assertThat(dinheiro(eventos.get(depositos + 1).get("saldo"))).isEqualTo(Dinheiro.parse("79.50"));
+	}
+
+	@Test
+	void creditoEmModoQuenteNaoEsperaOCommitDeOutraTransacaoDaMesmaConta() throws Exception {
+		ContaResponseDTO conta = contaService.criarConta(new ContaRequestDTO(usuarioBase + 5, "CORRENTE"), null);
+		contaService.ativarModoQuente(conta.id(), new ModoQuenteRequestDTO(8));
+		CountDownLatch emCommit = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			// Uma transação com evento da conta fica parada no commit, depois de o outbox gravar os seus
+			Future<?> parada = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+				outboxService.registrar(EventoContaDTO.saldoAlterado(conta.id(), "CORRENTE", TipoMovimentacao.DEPOSITO,
+						Dinheiro.parse("1.00"), Dinheiro.parse("1.00")));
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void beforeCommit(boolean readOnly) {
+						emCommit.countDown();
+						try {
+							liberar.await(10, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+			}));
+			assertThat(emCommit.await(5, TimeUnit.SECONDS)).isTrue();
+
+			long inicio = System.nanoTime();
+			contaService.depositar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null);
+			Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+			liberar.countDown();
+			parada.get();
+
+			assertThat(duracao).isLessThan(Duration.ofSeconds(5));
+		}
+	}
+
+	@Test
+	void falhaNoDestinoPausaORelayEOEventoEPublicadoDepois() throws Exception {
+		double falhasAntes = meterRegistry.counter("carteira.outbox.falhas").count();
+		doThrow(new IllegalStateException("destino indisponível")).doCallRealMethod().when(destino).publicar(any());
+
+		ContaResponseDTO conta = contaService.criarConta(new ContaRequestDTO(usuarioBase + 3, "CORRENTE"), null);
+
+		assertThat(aguardarEventos(conta.id(), 1)).hasSize(1);
+		assertThat(meterRegistry.counter("carteira.outbox.falhas").count()).isGreaterThan(falhasAntes);
+	}
+
+	private static Dinheiro dinheiro(JsonNode valor) {
+		return Dinheiro.de(valor.decimalValue());
+	}
+
+	/**
+	 * Espera o relay publicar os eventos da conta, na ordem em que chegaram ao destino.
+	 */
+	private List<JsonNode> aguardarEventos(Long contaId, int quantidade) throws Exception {
+		long prazo = System.nanoTime() + 10_000_000_000L;
+		while (true) {
+			List<JsonNode> eventos = new ArrayList<>();
+			for (EventoOutbox evento : destino.eventos()) {
+				if (evento.contaId().equals(contaId)) {
+					eventos.add(objectMapper.readTree(evento.payload()));
+				}
+			}
+			if (eventos.size() >= quantidade || System.nanoTime() > prazo) {
+				assertThat(eventos).hasSize(quantidade);
+				return eventos;
+			}
+			Thread.sleep(20);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ContaRequestDTO;
+import com.fintech.wallet_service.dto.ProvisionamentoResponseDTO;
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.repository.ContaRepository;
+import com.fintech.wallet_service.support.TesteIntegracaoComUsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProvisionamentoServiceTests extends TesteIntegracaoComUsuarioService {
+
+	private static final Logger logger = Logger.getLogger(ProvisionamentoServiceTests.class.getName());
+
+	@Autowired
+	private ProvisionamentoService provisionamentoService;
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Test
+	void ignoraUsuariosInexistentesETiposInvalidos() {
+		USUARIO_SERVICE.marcarInexistente(usuarioBase + 2);
+
+		List<ContaRequestDTO> contas = List.of(
+				new ContaRequestDTO(usuarioBase + 1, "CORRENTE"),
+				new ContaRequestDTO(usuarioBase + 1, "POUPANCA"),
+				new ContaRequestDTO(usuarioBase + 2, "CORRENTE"),
+				new ContaRequestDTO(usuarioBase + 3, "INVESTIMENTO"),
+				new ContaRequestDTO(usuarioBase + 3, "CORRENTE"));
+
+		ProvisionamentoResponseDTO resumo = provisionamentoService.provisionar(contas);
+
+		assertThat(resumo.solicitadas()).isEqualTo(5);
+		assertThat(resumo.criadas()).isEqualTo(3);
+		assertThat(resumo.usuariosNaoEncontrados()).containsExactly(usuarioBase + 2);
+		assertThat(resumo.tiposInvalidos()).isEqualTo(1);
+		assertThat(USUARIO_SERVICE.requisicoes()).isEqualTo(3);
+
+		List<Conta> criadas = contaRepository.findAllContaByUsuarioId(usuarioBase + 1);
+		assertThat(criadas).extracting(conta -> conta.getTipo().name()).containsExactlyInAnyOrder("CORRENTE", "POUPANCA");
+		assertThat(criadas).allSatisfy(conta -> assertThat(conta.getNumeroConta()).matches("ACC-\\d{10}"));
+	}
+
+	@Test
+	void provisionamentoEmLoteEhMuitoMaisRapidoQueCriarContaAConta() {
+		int individuais = 300;
+		long inicio = System.nanoTime();
+		for (int i = 0; i < individuais; i++) {
+			contaService.criarConta(new ContaRequestDTO(usuarioBase + i % 100, "CORRENTE"), null);
+		}
+		double porSegundoIndividual = individuais / ((System.nanoTime() - inicio) / 1e9);
+
+		int emLote = 30_000;
+		List<ContaRequestDTO> contas = new ArrayList<>(emLote);
+		for (int i = 0; i < emLote; i++) {
+			contas.add(new ContaRequestDTO(usuarioBase + 1000 + i % 3000, i % 2 == 0 ? "CORRENTE" : "POUPANCA"));
+		}
+		inicio = System.nanoTime();
+		ProvisionamentoResponseDTO resumo = provisionamentoService.provisionar(contas);
+		double porSegundoLote = emLote / ((System.nanoTime() - inicio) / 1e9);
+
+		logger.info(String.format("Criação conta a conta: %.0f contas/s; provisionamento: %.0f contas/s",
+				porSegundoIndividual, porSegundoLote));
+
+		assertThat(resumo.criadas()).isEqualTo(emLote);
+		assertThat(contaRepository.findAllContaByUsuarioId(usuarioBase + 1000)).hasSize(emLote / 3000);
+		assertThat(porSegundoLote).isGreaterThan(porSegundoIndividual * 10);
+	}
+}
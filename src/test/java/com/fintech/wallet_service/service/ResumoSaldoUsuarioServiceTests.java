@@ -0,0 +1,109 @@
+package com.fintech.wallet_service.service;
+
+import com.fintech.wallet_service.dto.ContaRequestDTO;
+import com.fintech.wallet_service.dto.ContaResponseDTO;
+import com.fintech.wallet_service.dto.ItemLoteRequestDTO;
+import com.fintech.wallet_service.dto.ModoQuenteRequestDTO;
+import com.fintech.wallet_service.dto.ResumoSaldoUsuarioResponseDTO;
+import com.fintech.wallet_service.dto.SaldoPorTipoContaDTO;
+import com.fintech.wallet_service.dto.TransferenciaRequestDTO;
+import com.fintech.wallet_service.dto.TransicaoRequestDTO;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoMovimentacao;
+import com.fintech.wallet_service.support.TesteIntegracaoComUsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumoSaldoUsuarioServiceTests extends TesteIntegracaoComUsuarioService {
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private LoteTransacaoService loteTransacaoService;
+
+	@Autowired
+	private ReconstrucaoResumoSaldoJob reconstrucaoResumoSaldoJob;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void resumoAcompanhaCriacaoMovimentacoesLoteEModoQuente() throws Exception {
+		long usuario = usuarioBase + 1;
+		long outroUsuario = usuarioBase + 2;
+		ContaResponseDTO corrente = contaService.criarConta(new ContaRequestDTO(usuario, "CORRENTE"), null);
+		ContaResponseDTO outraCorrente = contaService.criarConta(new ContaRequestDTO(usuario, "CORRENTE"), null);
+		ContaResponseDTO poupanca = contaService.criarConta(new ContaRequestDTO(usuario, "POUPANCA"), null);
+		ContaResponseDTO deOutroUsuario = contaService.criarConta(new ContaRequestDTO(outroUsuario, "CORRENTE"), null);
+
+		contaService.depositar(corrente.id(), new TransicaoRequestDTO(Dinheiro.parse("100.00")), null);
+		contaService.sacar(corrente.id(), new TransicaoRequestDTO(Dinheiro.parse("10.00")), null);
+		contaService.transferir(new TransferenciaRequestDTO(corrente.id(), poupanca.id(), Dinheiro.parse("40.00")), null);
+		contaService.transferir(new TransferenciaRequestDTO(corrente.id(), deOutroUsuario.id(), Dinheiro.parse("5.00")), null);
+		loteTransacaoService.processar(List.of(
+				new ItemLoteRequestDTO(outraCorrente.id(), TipoMovimentacao.DEPOSITO, Dinheiro.parse("20.00")),
+				new ItemLoteRequestDTO(poupanca.id(), TipoMovimentacao.SAQUE, Dinheiro.parse("1.50")),
+				new ItemLoteRequestDTO(poupanca.id(), TipoMovimentacao.SAQUE, Dinheiro.parse("1000.00"))), bloco -> {
+		});
+		contaService.ativarModoQuente(outraCorrente.id(), new ModoQuenteRequestDTO(4));
+		contaService.depositar(outraCorrente.id(), new TransicaoRequestDTO(Dinheiro.parse("7.25")), null);
+		contaService.sacar(outraCorrente.id(), new TransicaoRequestDTO(Dinheiro.parse("3.00")), null);
+
+		ResumoSaldoUsuarioResponseDTO resumo = contaService.buscarResumoUsuario(usuario);
+		assertThat(resumo.porTipo()).containsExactly(
+				new SaldoPorTipoContaDTO("CORRENTE", Dinheiro.parse("69.25"), 2),
+				new SaldoPorTipoContaDTO("POUPANCA", Dinheiro.parse("38.50"), 1));
+		assertThat(resumo.saldoTotal()).isEqualTo(Dinheiro.parse("107.75"));
+		assertThat(resumo.quantidadeContas()).isEqualTo(3);
+
+		assertThat(contaService.buscarResumoUsuario(outroUsuario).saldoTotal()).isEqualTo(Dinheiro.parse("5.00"));
+		assertThat(contaService.buscarResumoUsuario(usuarioBase + 3).porTipo()).isEmpty();
+		// Outros testes criam contas direto pelo repositório, então só o resumo deste usuário é comparado
+		reconstrucaoResumoSaldoJob.reconstruir();
+		assertThat(contaService.buscarResumoUsuario(usuario)).isEqualTo(resumo);
+	}
+
+	@Test
+	void reconstrucaoCorrigeDivergenciasSemPerderMovimentacoesSimultaneas() throws Exception {
+		long usuario = usuarioBase + 4;
+		ContaResponseDTO conta = contaService.criarConta(new ContaRequestDTO(usuario, "CORRENTE"), null);
+		ContaResponseDTO poupanca = contaService.criarConta(new ContaRequestDTO(usuario, "POUPANCA"), null);
+		contaService.depositar(poupanca.id(), new TransicaoRequestDTO(Dinheiro.parse("50.00")), null);
+
+		jdbcTemplate.update("UPDATE resumo_saldo_usuarios SET saldo = 999, quantidade_contas = 7 WHERE usuario_id = ? AND tipo = 'CORRENTE'", usuario);
+		jdbcTemplate.update("DELETE FROM resumo_saldo_usuarios WHERE usuario_id = ? AND tipo = 'POUPANCA'", usuario);
+
+		int depositos = 200;
+		int corrigidas;
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			List<Future<?>> futuros = new ArrayList<>();
+			for (int i = 0; i < depositos; i++) {
+				futuros.add(executor.submit(() ->
+						contaService.depositar(conta.id(), new TransicaoRequestDTO(Dinheiro.parse("1.00")), null)));
+			}
+			corrigidas = reconstrucaoResumoSaldoJob.reconstruir();
+			for (Future<?> futuro : futuros) {
+				futuro.get();
+			}
+		}
+
+		assertThat(corrigidas).isGreaterThanOrEqualTo(2);
+		// Os depósitos simultâneos somaram em slots diferentes do resumo
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM resumo_saldo_usuarios WHERE usuario_id = ? AND tipo = 'CORRENTE'", Integer.class, usuario))
+				.isGreaterThan(1);
+		assertThat(contaService.buscarResumoUsuario(usuario).porTipo()).containsExactly(
+				new SaldoPorTipoContaDTO("CORRENTE", Dinheiro.deCentavos(100L * depositos), 1),
+				new SaldoPorTipoContaDTO("POUPANCA", Dinheiro.parse("50.00"), 1));
+	}
+}
@@ -0,0 +1,58 @@
+package com.fintech.wallet_service.support;
+
+import com.fintech.wallet_service.entity.Conta;
+import com.fintech.wallet_service.entity.Dinheiro;
+import com.fintech.wallet_service.entity.TipoConta;
+import com.fintech.wallet_service.repository.ContaRepository;
+import com.fintech.wallet_service.service.GeradorNumeroConta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria contas direto no banco para os testes. O saldo inicial não passa pelo livro de movimentações,
+ * então cada conta ganha também o checkpoint com esse saldo, como a migração faz com as contas
+ * existentes: o saldo apurado pelo livro bate com o da conta e a consolidação não acusa divergência.
+ */
+@Component
+public class ContasDeTeste {
+
+    private static final String CHECKPOINT_INICIAL = """
+            INSERT INTO saldo_checkpoints (conta_id, data_movimentacao, movimentacao_id, saldo)
+            VALUES (?, clock_timestamp(), 0, ?)
+            """;
+
+    private final ContaRepository contaRepository;
+    private final GeradorNumeroConta geradorNumeroConta;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContasDeTeste(ContaRepository contaRepository, GeradorNumeroConta geradorNumeroConta,
+                         JdbcTemplate jdbcTemplate) {
+        this.contaRepository = contaRepository;
+        this.geradorNumeroConta = geradorNumeroConta;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Conta nova() {
+        return nova(Dinheiro.ZERO);
+    }
+
+    public Conta nova(Dinheiro saldoInicial) {
+        return nova(saldoInicial, TipoConta.CORRENTE, true);
+    }
+
+    public Conta nova(TipoConta tipo, boolean ativa) {
+        return nova(Dinheiro.ZERO, tipo, ativa);
+    }
+
+    public Conta nova(Dinheiro saldoInicial, TipoConta tipo, boolean ativa) {
+        Conta conta = new Conta();
+        conta.setUsuarioId(1L);
+        conta.setNumeroConta(geradorNumeroConta.gerar());
+        conta.setSaldo(saldoInicial);
+        conta.setTipo(tipo);
+        conta.setAtiva(ativa);
+        conta = contaRepository.save(conta);
+        jdbcTemplate.update(CHECKPOINT_INICIAL, conta.getId(), saldoInicial.toBigDecimal());
+        return conta;
+    }
+}
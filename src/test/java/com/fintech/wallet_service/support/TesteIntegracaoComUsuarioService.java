@@ -0,0 +1,56 @@
+package com.fintech.wallet_service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Base dos testes de integração que passam pelo {@code UsuarioServiceCliente}: aponta a aplicação
+ * para um {@link UsuarioServiceStub} e autentica a thread do teste. Todas as subclasses
+ * compartilham o mesmo stub e, portanto, o mesmo contexto Spring em cache.
+ */
+@SpringBootTest
+public abstract class TesteIntegracaoComUsuarioService {
+
+    protected static final UsuarioServiceStub USUARIO_SERVICE = iniciarStub();
+
+    /**
+     * O banco é compartilhado entre execuções, então cada teste usa usuários ainda sem contas.
+     */
+    protected final long usuarioBase = System.currentTimeMillis() * 100_000;
+
+    @DynamicPropertySource
+    static void usuarioService(DynamicPropertyRegistry registry) {
+        registry.add("usuario-service.url", USUARIO_SERVICE::url);
+    }
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("1", "token", List.of()));
+        USUARIO_SERVICE.zerarContadores();
+    }
+
+    @AfterEach
+    void limparAutenticacao() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static UsuarioServiceStub iniciarStub() {
+        try {
+            UsuarioServiceStub stub = new UsuarioServiceStub();
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
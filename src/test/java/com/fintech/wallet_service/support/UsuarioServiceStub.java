@@ -0,0 +1,103 @@
+package com.fintech.wallet_service.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que faz o papel do user-service em testes: responde 200 para
+ * {@code GET /api/v1/usuarios/{id}}, 404 para os IDs marcados como inexistentes, 401 para os
+ * tokens marcados como recusados, e permite injetar latência e erros.
+ */
+public class UsuarioServiceStub implements AutoCloseable {
+
+    private final HttpServer servidor;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Long> inexistentes = ConcurrentHashMap.newKeySet();
+    private final Set<String> tokensRecusados = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requisicoes = new AtomicInteger();
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicInteger maximoEmAndamento = new AtomicInteger();
+    private volatile Duration latencia = Duration.ZERO;
+    private volatile int statusErro;
+
+    public UsuarioServiceStub() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        servidor.createContext("/api/v1/usuarios/", this::responder);
+        servidor.setExecutor(executor);
+        servidor.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    public void marcarInexistente(Long usuarioId) {
+        inexistentes.add(usuarioId);
+    }
+
+    public void recusarToken(String token) {
+        tokensRecusados.add("Bearer " + token);
+    }
+
+    public void definirLatencia(Duration latencia) {
+        this.latencia = latencia;
+    }
+
+    /**
+     * Faz todas as requisições seguintes responderem com o status informado; 0 volta ao normal.
+     */
+    public void definirStatusErro(int statusErro) {
+        this.statusErro = statusErro;
+    }
+
+    public int requisicoes() {
+        return requisicoes.get();
+    }
+
+    public int maximoEmAndamento() {
+        return maximoEmAndamento.get();
+    }
+
+    public void zerarContadores() {
+        requisicoes.set(0);
+        maximoEmAndamento.set(0);
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        requisicoes.incrementAndGet();
+        maximoEmAndamento.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+        try {
+            if (!latencia.isZero()) {
+                Thread.sleep(latencia);
+            }
+            String caminho = troca.getRequestURI().getPath();
+            Long usuarioId = Long.valueOf(caminho.substring(caminho.lastIndexOf('/') + 1));
+
+            int status = statusErro != 0 ? statusErro
+                    : tokensRecusados.contains(troca.getRequestHeaders().getFirst("Authorization")) ? 401
+                    : inexistentes.contains(usuarioId) ? 404 : 200;
+            troca.sendResponseHeaders(status, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            troca.sendResponseHeaders(503, -1);
+        } finally {
+            emAndamento.decrementAndGet();
+            troca.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+}